@@ -0,0 +1,87 @@
+package com.company.configurations;
+
+import com.company.configurations.environments.EnvironmentConfigManager;
+import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.configurations.properties.PropertyKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration lookups from several threads at once, as parallel test methods do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ConfigLookupBenchmark {
+
+    private static final String ENVIRONMENT_ALIAS = "benchmark";
+    private static final String ENVIRONMENT_FILE = ".env.benchmark";
+    private static final String ENVIRONMENT_KEY = "BENCHMARK_KEY";
+
+    private Path environmentFile;
+    private PropertiesConfigManager properties;
+    private EnvironmentConfigManager environment;
+
+    @Setup
+    public void setUp() throws Exception {
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.GLOBAL.getAlias(), ConfigFilePath.GLOBAL.getFilePath());
+        properties = PropertiesConfigManager.getConfiguration(ConfigFileAlias.GLOBAL);
+
+        environmentFile = Path.of(EnvironmentFilePaths.getDirectoryPath(), ENVIRONMENT_FILE);
+        Files.createDirectories(environmentFile.getParent());
+        Files.writeString(environmentFile, ENVIRONMENT_KEY + "=value\n");
+        EnvironmentConfigManager.loadConfiguration(ENVIRONMENT_ALIAS, ENVIRONMENT_FILE);
+        environment = EnvironmentConfigManager.getConfiguration(ENVIRONMENT_ALIAS);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(environmentFile);
+    }
+
+    @Benchmark
+    public String getProperty() {
+        return properties.getProperty("PROJECT_NAME");
+    }
+
+    @Benchmark
+    public String getPropertyByKey() {
+        return PropertiesConfigManager.get(ConfigFileAlias.GLOBAL, PropertyKeys.PROJECT_NAME);
+    }
+
+    @Benchmark
+    public String getPropertyFromCache() {
+        return PropertiesConfigManager.getPropertyKeyFromCache(ConfigFileAlias.GLOBAL.getAlias(), "PROJECT_NAME");
+    }
+
+    @Benchmark
+    public String getEnvironmentKey() {
+        return environment.getEnvironmentKey(ENVIRONMENT_KEY);
+    }
+
+    @Benchmark
+    public String getEnvironmentKeyFromCache() {
+        return EnvironmentConfigManager.getEnvironmentKeyFromCache(ENVIRONMENT_ALIAS, ENVIRONMENT_KEY);
+    }
+}
@@ -0,0 +1,67 @@
+package com.company.configurations.environments;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and in-place updates of large environment files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentFileBenchmark {
+
+    @Param({"100", "10000"})
+    private int lineCount;
+
+    private Path environmentFile;
+    private Map<String, String> updates;
+
+    @Setup
+    public void setUp() throws Exception {
+        environmentFile = Files.createTempFile("benchmark", ".env");
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < lineCount; line++) {
+            if (line % 10 == 0) {
+                content.append("# Section ").append(line / 10).append('\n');
+            }
+            content.append("KEY_").append(line).append("=value-").append(line).append('\n');
+        }
+        Files.writeString(environmentFile, content);
+        // One existing key in the middle of the file and one appended key
+        updates = Map.of("KEY_" + lineCount / 2, "updated", "NEW_KEY", "appended");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(environmentFile);
+    }
+
+    @Benchmark
+    public EnvironmentFile parse() throws Exception {
+        return EnvironmentFile.parse(environmentFile);
+    }
+
+    @Benchmark
+    public void update() throws Exception {
+        EnvironmentFile.update(environmentFile, updates);
+    }
+}
@@ -0,0 +1,56 @@
+package com.company.crypto.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Batch throughput in records per second, including the single Argon2 derivation each batch pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class BatchCryptoServiceBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+
+    private SecretKey secretKey;
+    private List<String> records;
+    private byte[] batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        secretKey = SecureKeyGenerator.generateSecretKey();
+        records = IntStream.range(0, RECORDS).mapToObj(index -> "user-" + index + "@example.com").toList();
+        batch = BatchCryptoService.encryptBatch(secretKey, records);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public byte[] encryptBatch() {
+        return BatchCryptoService.encryptBatch(secretKey, records);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public List<String> decryptBatch() {
+        return BatchCryptoService.decryptBatch(secretKey, batch);
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.crypto.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypt and decrypt over a range of payload sizes.
+ * Every call derives a fresh Argon2 key, so compare against {@link KeyDerivationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoServiceBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int payloadSize;
+
+    private SecretKey secretKey;
+    private String payload;
+    private String encryptedPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        secretKey = SecureKeyGenerator.generateSecretKey();
+        payload = "x".repeat(payloadSize);
+        encryptedPayload = CryptoService.encrypt(secretKey, payload);
+    }
+
+    @Benchmark
+    public String encrypt() throws Exception {
+        return CryptoService.encrypt(secretKey, payload);
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return CryptoService.decrypt(secretKey, encryptedPayload);
+    }
+}
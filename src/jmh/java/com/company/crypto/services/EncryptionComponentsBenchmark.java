@@ -0,0 +1,61 @@
+package com.company.crypto.services;
+
+import com.company.crypto.utils.CryptoConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packing and unpacking of the salt, IV, cipher text and MAC of an encrypted value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionComponentsBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int cipherTextSize;
+
+    private CryptoService.EncryptionComponents components;
+    private byte[] combined;
+
+    @Setup
+    public void setUp() {
+        components = new CryptoService.EncryptionComponents(
+                randomBytes(CryptoConstants.SALT_KEY_SIZE.getIntValue()),
+                randomBytes(CryptoConstants.IV_KEY_SIZE.getIntValue()),
+                randomBytes(cipherTextSize),
+                randomBytes(CryptoConstants.HMAC_KEY_SIZE.getIntValue()));
+        combined = components.combine();
+    }
+
+    @Benchmark
+    public byte[] combine() {
+        return components.combine();
+    }
+
+    @Benchmark
+    public CryptoService.EncryptionComponents extract() {
+        return CryptoService.EncryptionComponents.extract(combined);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+}
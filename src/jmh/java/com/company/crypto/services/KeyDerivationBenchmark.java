@@ -0,0 +1,42 @@
+package com.company.crypto.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Argon2 key derivation on its own, with the production parameters from {@code CryptoConstants}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyDerivationBenchmark {
+
+    private String secretKey;
+    private byte[] salt;
+
+    @Setup
+    public void setUp() {
+        secretKey = new String(SecureKeyGenerator.generateSecretKey().getEncoded(), StandardCharsets.UTF_8);
+        salt = SecureKeyGenerator.generateSalt();
+    }
+
+    @Benchmark
+    public SecretKeySpec deriveKey() {
+        return CryptoService.deriveKey(secretKey, salt);
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64UtilsBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private byte[] data;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        encoded = Base64Utils.encodeArray(data);
+    }
+
+    @Benchmark
+    public String encode() {
+        return Base64Utils.encodeArray(data);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return Base64Utils.decodeToArray(encoded);
+    }
+}
@@ -0,0 +1,69 @@
+package com.company.configurations;
+
+import com.company.configurations.environments.EnvironmentType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing breakdown produced by {@link ConfigurationBootstrap#loadAll(EnvironmentType)}.
+ *
+ * @param environmentType The environment that was bootstrapped
+ * @param fileTimings     Per-file load timings, slowest first
+ * @param wallClockNanos  Elapsed time for the whole bootstrap
+ */
+public record BootstrapReport(EnvironmentType environmentType, List<FileLoadTiming> fileTimings, long wallClockNanos) {
+
+    /**
+     * Load timing for a single configuration file.
+     *
+     * @param kind   "properties" or "env"
+     * @param alias  Alias the file was cached under
+     * @param source File path or name that was loaded
+     * @param nanos  Time spent loading the file
+     * @param error  Failure raised while loading, or null on success
+     */
+    public record FileLoadTiming(String kind, String alias, String source, long nanos, Throwable error) {
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+
+    public BootstrapReport {
+        fileTimings = fileTimings.stream()
+                .sorted(Comparator.comparingLong(FileLoadTiming::nanos).reversed())
+                .toList();
+    }
+
+    /**
+     * @return Sum of all per-file load times, i.e. what a sequential load would have cost
+     */
+    public long totalFileNanos() {
+        return fileTimings.stream().mapToLong(FileLoadTiming::nanos).sum();
+    }
+
+    public List<FileLoadTiming> failures() {
+        return fileTimings.stream().filter(timing -> !timing.isSuccessful()).toList();
+    }
+
+    /**
+     * Formats the report as a table suitable for logging.
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder(String.format(
+                "Configuration bootstrap for '%s': %d files, wall clock %.2f ms, sequential sum %.2f ms%n",
+                environmentType, fileTimings.size(), toMillis(wallClockNanos), toMillis(totalFileNanos())));
+        for (FileLoadTiming timing : fileTimings) {
+            builder.append(String.format("  %-10s %-12s %-45s %10.2f ms %s%n",
+                    timing.kind(), timing.alias(), timing.source(), toMillis(timing.nanos()),
+                    timing.isSuccessful() ? "OK" : "FAILED"));
+        }
+        return builder.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,158 @@
+package com.company.configurations;
+
+import com.company.configurations.environments.EnvironmentConfigManager;
+import com.company.configurations.environments.EnvironmentFileAlias;
+import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.configurations.environments.EnvironmentType;
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.configurations.validation.ConfigSchemaRegistry;
+import com.company.core.ConfigException;
+import com.company.core.ErrorHandler;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Loads every properties and environment file needed by an environment in one parallel pass,
+ * so cold start of the configuration layer is bounded by the slowest file rather than the sum of all files.
+ */
+public class ConfigurationBootstrap {
+
+    private static final Logger logger = LoggerUtils.getLogger(ConfigurationBootstrap.class);
+
+    private static final String PROPERTIES_KIND = "properties";
+    private static final String ENV_KIND = "env";
+
+    private ConfigurationBootstrap() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Loads the global properties, the base environment file and the files specific to the
+     * given environment into the {@link PropertiesConfigManager} and {@link EnvironmentConfigManager} caches.
+     * Every file is loaded on its own virtual thread and validated against its schema with the rules of the given
+     * environment; all failures are collected and reported together. The process-wide active environment is left
+     * unchanged, see {@link ConfigSchemaRegistry#setActiveEnvironment(EnvironmentType)} for loads outside the bootstrap.
+     *
+     * @param environmentType The environment to bootstrap
+     * @return Per-file timing breakdown of the bootstrap
+     * @throws IllegalStateException if one or more files failed to load
+     */
+    public static BootstrapReport loadAll(EnvironmentType environmentType) {
+        return loadAll(environmentType, Path.of(EnvironmentFilePaths.getDirectoryPath()));
+    }
+
+    /**
+     * Same as {@link #loadAll(EnvironmentType)}, reading the environment files from the given directory.
+     * Aliases that are already loaded are kept, whichever directory they were loaded from.
+     *
+     * @param environmentType The environment to bootstrap
+     * @param envDirectory    Directory holding the environment files
+     * @return Per-file timing breakdown of the bootstrap
+     * @throws IllegalStateException if one or more files failed to load
+     */
+    public static BootstrapReport loadAll(EnvironmentType environmentType, Path envDirectory) {
+        if (environmentType == null) {
+            throw new IllegalArgumentException("Environment type cannot be null");
+        }
+        if (envDirectory == null) {
+            throw new IllegalArgumentException("Environment directory cannot be null");
+        }
+
+        // Scoped to this call, so bootstraps and loads running in parallel keep their own environment rules
+        return ConfigSchemaRegistry.withActiveEnvironment(environmentType, () -> loadFiles(environmentType, envDirectory.toAbsolutePath()));
+    }
+
+    private static BootstrapReport loadFiles(EnvironmentType environmentType, Path envDirectory) {
+        long start = System.nanoTime();
+        List<BootstrapReport.FileLoadTiming> timings = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<BootstrapReport.FileLoadTiming>> futures = new ArrayList<>();
+
+            for (ConfigFileAlias alias : propertiesAliasesFor(environmentType)) {
+                String filePath = alias.getConfigFilePath().getFilePath();
+                futures.add(executor.submit(() -> timeLoad(PROPERTIES_KIND, alias.getAlias(), filePath,
+                        () -> PropertiesConfigManager.loadConfiguration(alias.getAlias(), filePath))));
+            }
+
+            for (EnvironmentFileAlias alias : environmentAliasesFor(environmentType)) {
+                String fileName = envDirectory.resolve(environmentPathFor(alias).getFilename()).toString();
+                futures.add(executor.submit(() -> timeLoad(ENV_KIND, alias.getAlias(), fileName,
+                        () -> EnvironmentConfigManager.loadConfiguration(alias.getAlias(), fileName))));
+            }
+
+            for (Future<BootstrapReport.FileLoadTiming> future : futures) {
+                timings.add(future.get());
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            ErrorHandler.logError(error, "loadAll", "Interrupted while bootstrapping configuration");
+            throw new ConfigException("Interrupted while bootstrapping configuration", error);
+        } catch (ExecutionException error) {
+            ErrorHandler.logError(error, "loadAll", "Unexpected failure while bootstrapping configuration");
+            throw ConfigException.wrap("Unexpected failure while bootstrapping configuration", error.getCause());
+        }
+
+        BootstrapReport report = new BootstrapReport(environmentType, timings, System.nanoTime() - start);
+        logger.info(report.format());
+
+        if (!report.failures().isEmpty()) {
+            String failedFiles = report.failures().stream()
+                    .map(BootstrapReport.FileLoadTiming::source)
+                    .collect(Collectors.joining(", "));
+            IllegalStateException error = new IllegalStateException(
+                    "Failed to load configuration files for '" + environmentType + "': " + failedFiles);
+            report.failures().forEach(failure -> error.addSuppressed(failure.error()));
+            ErrorHandler.logError(error, "loadAll", "Configuration bootstrap incomplete");
+            throw error;
+        }
+        return report;
+    }
+
+    private static BootstrapReport.FileLoadTiming timeLoad(String kind, String alias, String source, Runnable loader) {
+        long start = System.nanoTime();
+        try {
+            loader.run();
+            return new BootstrapReport.FileLoadTiming(kind, alias, source, System.nanoTime() - start, null);
+        } catch (Exception error) {
+            return new BootstrapReport.FileLoadTiming(kind, alias, source, System.nanoTime() - start, error);
+        }
+    }
+
+    private static List<ConfigFileAlias> propertiesAliasesFor(EnvironmentType environmentType) {
+        return switch (environmentType) {
+            case BASE -> List.of(ConfigFileAlias.GLOBAL);
+            case DEVELOPMENT -> List.of(ConfigFileAlias.GLOBAL, ConfigFileAlias.DEVELOPMENT);
+            case UAT -> List.of(ConfigFileAlias.GLOBAL, ConfigFileAlias.UAT);
+            case PRODUCTION -> List.of(ConfigFileAlias.GLOBAL, ConfigFileAlias.PRODUCTION);
+        };
+    }
+
+    private static List<EnvironmentFileAlias> environmentAliasesFor(EnvironmentType environmentType) {
+        return switch (environmentType) {
+            case BASE -> List.of(EnvironmentFileAlias.BASE);
+            case DEVELOPMENT -> List.of(EnvironmentFileAlias.BASE, EnvironmentFileAlias.DEVELOPMENT);
+            case UAT -> List.of(EnvironmentFileAlias.BASE, EnvironmentFileAlias.UAT);
+            case PRODUCTION -> List.of(EnvironmentFileAlias.BASE, EnvironmentFileAlias.PRODUCTION);
+        };
+    }
+
+    private static EnvironmentFilePaths environmentPathFor(EnvironmentFileAlias alias) {
+        return switch (alias) {
+            case BASE -> EnvironmentFilePaths.BASE;
+            case DEVELOPMENT -> EnvironmentFilePaths.DEVELOPMENT;
+            case UAT -> EnvironmentFilePaths.UAT;
+            case PRODUCTION -> EnvironmentFilePaths.PRODUCTION;
+        };
+    }
+}
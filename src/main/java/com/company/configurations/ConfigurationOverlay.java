@@ -0,0 +1,183 @@
+package com.company.configurations;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-scoped configuration overrides.
+ * <p>
+ * An overlay pushed with {@link #with(Map)} is only visible to the pushing thread. Threads are never handed an overlay
+ * implicitly, so a pool thread created while a scope is open does not keep applying it to unrelated tasks.
+ * Tasks that should see the caller's overlay, on a new thread or a pooled one, carry it with {@link #wrap(Runnable)}
+ * or {@link #wrap(Callable)}.
+ * Overlays take precedence over system properties, environment variables and file values in both
+ * {@link com.company.configurations.properties.PropertiesConfigManager} and
+ * {@link com.company.configurations.environments.EnvironmentConfigManager}.
+ * <p>
+ * While no scope is open anywhere, {@link #lookup(String)} costs a single volatile read.
+ *
+ * <pre>{@code
+ * try (ConfigurationOverlay.Scope ignored = ConfigurationOverlay.with("BROWSER", "firefox")) {
+ *     // getProperty("BROWSER") returns "firefox" on this thread only
+ * }
+ * }</pre>
+ */
+public final class ConfigurationOverlay {
+
+    private static final ThreadLocal<Map<String, String>> CURRENT_OVERLAY = new ThreadLocal<>();
+    private static final AtomicInteger OPEN_SCOPES = new AtomicInteger();
+
+    private ConfigurationOverlay() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Handle for an open overlay. Closing it restores the overlay that was active before it was opened.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Thread owner;
+        private final Map<String, String> previousOverlay;
+        private boolean closed;
+
+        private Scope(Map<String, String> previousOverlay) {
+            this.owner = Thread.currentThread();
+            this.previousOverlay = previousOverlay;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            if (Thread.currentThread() != owner) {
+                throw new IllegalStateException("Configuration overlay must be closed by the thread that opened it");
+            }
+            closed = true;
+            restore(previousOverlay);
+            OPEN_SCOPES.decrementAndGet();
+        }
+    }
+
+    /**
+     * Opens an overlay with a single override.
+     *
+     * @param key   Configuration key to override
+     * @param value Value visible to this thread while the scope is open
+     * @return The scope to close when the override should end
+     */
+    public static Scope with(String key, String value) {
+        return with(Map.of(key, value));
+    }
+
+    /**
+     * Opens an overlay on top of the current one. Keys in the new overlay shadow keys of enclosing overlays.
+     *
+     * @param overrides Configuration keys and the values visible to this thread while the scope is open
+     * @return The scope to close when the overrides should end
+     */
+    public static Scope with(Map<String, String> overrides) {
+        if (overrides == null || overrides.isEmpty()) {
+            throw new IllegalArgumentException("Overrides cannot be null or empty");
+        }
+
+        Map<String, String> previousOverlay = CURRENT_OVERLAY.get();
+        Map<String, String> merged = previousOverlay == null ? new HashMap<>() : new HashMap<>(previousOverlay);
+        merged.putAll(overrides);
+
+        OPEN_SCOPES.incrementAndGet();
+        CURRENT_OVERLAY.set(Map.copyOf(merged));
+        return new Scope(previousOverlay);
+    }
+
+    /**
+     * Resolves a key against the overlay of the calling thread.
+     *
+     * @param key Configuration key
+     * @return The overridden value, or null when the key is not overridden on this thread
+     */
+    public static String lookup(String key) {
+        if (OPEN_SCOPES.get() == 0) {
+            return null;
+        }
+        Map<String, String> overlay = CURRENT_OVERLAY.get();
+        return overlay == null ? null : overlay.get(key);
+    }
+
+    /**
+     * @return The overrides visible to the calling thread, empty when none are active
+     */
+    public static Map<String, String> current() {
+        Map<String, String> overlay = CURRENT_OVERLAY.get();
+        return overlay == null ? Map.of() : overlay;
+    }
+
+    /**
+     * Detaches whatever overlay is still attached to the calling thread, for pooled threads that run unrelated
+     * tasks one after another. Scopes that were never closed keep {@link #lookup(String)} off its fast path,
+     * but their values no longer reach the next task on the thread.
+     *
+     * @return The overrides that were detached, empty when none were attached
+     */
+    public static Map<String, String> discardCurrent() {
+        Map<String, String> overlay = CURRENT_OVERLAY.get();
+        CURRENT_OVERLAY.remove();
+        return overlay == null ? Map.of() : overlay;
+    }
+
+    /**
+     * Captures the caller's overlay so the task sees it on whichever thread runs it.
+     */
+    public static Runnable wrap(Runnable task) {
+        Map<String, String> captured = CURRENT_OVERLAY.get();
+        return () -> {
+            Map<String, String> previousOverlay = CURRENT_OVERLAY.get();
+            attach(captured);
+            try {
+                task.run();
+            } finally {
+                detach(captured, previousOverlay);
+            }
+        };
+    }
+
+    /**
+     * Captures the caller's overlay so the task sees it on whichever thread runs it.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Map<String, String> captured = CURRENT_OVERLAY.get();
+        return () -> {
+            Map<String, String> previousOverlay = CURRENT_OVERLAY.get();
+            attach(captured);
+            try {
+                return task.call();
+            } finally {
+                detach(captured, previousOverlay);
+            }
+        };
+    }
+
+    private static void attach(Map<String, String> overlay) {
+        if (overlay != null) {
+            OPEN_SCOPES.incrementAndGet();
+        }
+        restore(overlay);
+    }
+
+    private static void detach(Map<String, String> overlay, Map<String, String> previousOverlay) {
+        restore(previousOverlay);
+        if (overlay != null) {
+            OPEN_SCOPES.decrementAndGet();
+        }
+    }
+
+    private static void restore(Map<String, String> overlay) {
+        if (overlay == null) {
+            CURRENT_OVERLAY.remove();
+        } else {
+            CURRENT_OVERLAY.set(overlay);
+        }
+    }
+}
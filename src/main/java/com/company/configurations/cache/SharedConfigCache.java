@@ -0,0 +1,517 @@
+package com.company.configurations.cache;
+
+import com.company.configurations.environments.EnvironmentSecretKeyVariables;
+import com.company.core.ErrorHandler;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Configuration cache shared by every JVM of a build through a memory-mapped file under {@code target/}.
+ * <p>
+ * With several surefire forks, the first fork that parses a configuration file or decrypts a secret publishes the
+ * result here and later forks read it instead of repeating the work. The file is an append-only log of records:
+ * <pre>
+ * header  int magic, int version, long write offset (next free byte)
+ * record  int state (0 reserved, 1 committed), int record length, long CRC32 of the body, body
+ * body    byte kind, short name length, name (UTF-8), int payload length, payload
+ * </pre>
+ * A writer reserves a slot by setting its length word with compare-and-set and then moves the write offset past it;
+ * any writer that finds a slot already claimed moves the offset on its behalf. Every slot below the write offset
+ * therefore has its length, and a writer that stalls or dies before committing leaves a slot that readers skip
+ * rather than one that hides the records after it. The record is filled in and only then published by setting its
+ * state with release semantics, so readers never lock and never see a partially written record. Each JVM indexes
+ * committed records by name as it first sees them, so a lookup costs a map access however long the log grows.
+ * <p>
+ * File records are named after the path and an HMAC of the exact bytes that were parsed, so a rewrite of the source
+ * misses even when it keeps the size and lands in the same modification time tick.
+ * <p>
+ * Every payload is sealed with AES-GCM, with the record name as associated data. The sealing keys are derived with
+ * HMAC-SHA256 from a random build key that the build hands to its forks in {@value #CACHE_KEY_PROPERTY} and that is
+ * never written to the cache, so the file alone reveals nothing. Secrets are additionally bound to the environment
+ * secret key they are encrypted with; deriving that key is cheap in every fork, unlike the Argon2 derivation used for
+ * the values at rest. Environment files that hold an environment secret key are never published at all, and the
+ * cache file is only readable by its owner.
+ * <p>
+ * The cache is enabled by pointing the {@value #CACHE_FILE_PROPERTY} system property at the cache file and setting
+ * {@value #CACHE_KEY_PROPERTY} to a Base64 encoded 256-bit key. When either is missing, or the file cannot be mapped,
+ * every lookup misses and every publish is a no-op.
+ */
+public final class SharedConfigCache {
+
+    private static final Logger logger = LoggerUtils.getLogger(SharedConfigCache.class);
+
+    public static final String CACHE_FILE_PROPERTY = "config.sharedCache";
+    public static final String CACHE_KEY_PROPERTY = "config.sharedCacheKey";
+
+    /**
+     * What a cached record holds.
+     */
+    public enum Kind {
+        PROPERTIES_FILE,
+        ENVIRONMENT_FILE,
+        SECRET
+    }
+
+    private static final int MAGIC = 0x43464743;
+    private static final int FORMAT_VERSION = 3;
+    private static final int CAPACITY = 4 * 1024 * 1024;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int WRITE_OFFSET = 8;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    private static final int STATE_COMMITTED = 1;
+    private static final int LENGTH_OFFSET = 4;
+    private static final int CHECKSUM_OFFSET = 8;
+
+    private static final String FILE_KEY_LABEL = "shared-config-cache:file:v3";
+    private static final String FILE_NAME_LABEL = "shared-config-cache:file-name:v3";
+    private static final String SECRET_KEY_LABEL = "shared-config-cache:secret:v3";
+    private static final String SECRET_NAME_LABEL = "shared-config-cache:secret-name:v3";
+    private static final int BUILD_KEY_SIZE = 32;
+    private static final String AES_GCM = "AES/GCM/NoPadding";
+    private static final int GCM_NONCE_SIZE = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+    private static final class BuildKeyHolder {
+        private static final byte[] BUILD_KEY = loadBuildKey();
+    }
+
+    private static final class MappedFileHolder {
+        private static final MappedByteBuffer BUFFER = open();
+    }
+
+    /**
+     * Where the payload of a committed record lies in the mapped file.
+     */
+    private record PayloadSlot(int offset, int length) {
+    }
+
+    // Committed records this JVM has seen, keyed by kind and name; guarded by itself while the log is scanned
+    private static final Map<String, PayloadSlot> recordIndex = new ConcurrentHashMap<>();
+    private static final List<Integer> uncommittedSlots = new ArrayList<>();
+    private static volatile int indexedUpTo = HEADER_SIZE;
+    private static volatile boolean hasUncommittedSlots;
+
+    private SharedConfigCache() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @return true when a cache file is configured and mapped
+     */
+    public static boolean isEnabled() {
+        return System.getProperty(CACHE_FILE_PROPERTY) != null && BuildKeyHolder.BUILD_KEY != null
+                && MappedFileHolder.BUFFER != null;
+    }
+
+    /**
+     * Returns the values another JVM published for a configuration file with exactly the given content.
+     *
+     * @param kind       {@link Kind#PROPERTIES_FILE} or {@link Kind#ENVIRONMENT_FILE}
+     * @param sourceFile The configuration file
+     * @param content    The raw content of the file, as it is about to be parsed
+     * @return The cached key/value pairs, or empty on a miss
+     */
+    public static Optional<Map<String, String>> lookupFile(Kind kind, Path sourceFile, byte[] content) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            String name = fileRecordName(sourceFile, content);
+            Optional<ByteBuffer> payload = find(kind, name);
+            if (payload.isEmpty()) {
+                return Optional.empty();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(unseal(payload.get(), fileKey(), name));
+            int entryCount = buffer.getInt();
+            Map<String, String> values = new LinkedHashMap<>(entryCount * 2);
+            for (int index = 0; index < entryCount; index++) {
+                values.put(readString(buffer), readString(buffer));
+            }
+            logger.debug("Configuration file '{}' attached from shared cache", sourceFile);
+            return Optional.of(values);
+        } catch (Exception error) {
+            logger.warn("Ignoring shared cache entry for '{}': {}", sourceFile, error.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Publishes the parsed values of a configuration file for other JVMs of the build.
+     * Environment files holding an environment secret key are not published.
+     *
+     * @param kind       {@link Kind#PROPERTIES_FILE} or {@link Kind#ENVIRONMENT_FILE}
+     * @param sourceFile The configuration file
+     * @param content    The raw content the values were parsed from
+     * @param values     The parsed key/value pairs
+     */
+    public static void publishFile(Kind kind, Path sourceFile, byte[] content, Map<String, String> values) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (kind == Kind.ENVIRONMENT_FILE && holdsSecretKey(values)) {
+            logger.debug("Configuration file '{}' holds an environment secret key and is not shared", sourceFile);
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                output.writeInt(values.size());
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    writeString(output, entry.getKey());
+                    writeString(output, entry.getValue());
+                }
+            }
+            String name = fileRecordName(sourceFile, content);
+            append(kind, name, seal(bytes.toByteArray(), fileKey(), name));
+        } catch (Exception error) {
+            logger.warn("Could not publish '{}' to shared cache: {}", sourceFile, error.getMessage());
+        }
+    }
+
+    /**
+     * Returns a secret another JVM already decrypted from the same encrypted value.
+     *
+     * @param secretKey      The environment secret key the value is encrypted with
+     * @param alias          Alias of the environment configuration
+     * @param key            Name of the encrypted variable
+     * @param encryptedValue The encrypted value as stored in the environment file
+     * @return The plain text, or empty on a miss
+     */
+    public static Optional<String> lookupSecret(SecretKey secretKey, String alias, String key, String encryptedValue) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            String name = secretRecordName(secretKey, alias, key, encryptedValue);
+            Optional<ByteBuffer> payload = find(Kind.SECRET, name);
+            if (payload.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(unseal(payload.get(), secretKey(secretKey), name), StandardCharsets.UTF_8));
+        } catch (Exception error) {
+            logger.debug("Shared cache miss for secret '{}': {}", key, error.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Publishes a decrypted secret, sealed under a key derived from the build key and the environment secret key.
+     *
+     * @param secretKey      The environment secret key the value is encrypted with
+     * @param alias          Alias of the environment configuration
+     * @param key            Name of the encrypted variable
+     * @param encryptedValue The encrypted value as stored in the environment file
+     * @param plainText      The decrypted value
+     */
+    public static void publishSecret(SecretKey secretKey, String alias, String key, String encryptedValue, String plainText) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            String name = secretRecordName(secretKey, alias, key, encryptedValue);
+            append(Kind.SECRET, name, seal(plainText.getBytes(StandardCharsets.UTF_8), secretKey(secretKey), name));
+        } catch (Exception error) {
+            logger.warn("Could not publish secret '{}' to shared cache: {}", key, error.getMessage());
+        }
+    }
+
+    private static MappedByteBuffer open() {
+        String cacheFile = System.getProperty(CACHE_FILE_PROPERTY);
+        if (cacheFile == null || cacheFile.isBlank()) {
+            return null;
+        }
+        try {
+            Path path = Path.of(cacheFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            createOwnerOnly(path);
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, CAPACITY);
+
+                // Whichever JVM gets here first initialises the header; the others see it already set
+                INT_VIEW.compareAndSet(buffer, MAGIC_OFFSET, 0, MAGIC);
+                INT_VIEW.compareAndSet(buffer, VERSION_OFFSET, 0, FORMAT_VERSION);
+                LONG_VIEW.compareAndSet(buffer, WRITE_OFFSET, 0L, (long) HEADER_SIZE);
+
+                if ((int) INT_VIEW.getVolatile(buffer, MAGIC_OFFSET) != MAGIC
+                        || (int) INT_VIEW.getVolatile(buffer, VERSION_OFFSET) != FORMAT_VERSION) {
+                    logger.warn("Shared configuration cache '{}' has an unknown format and will not be used", path);
+                    return null;
+                }
+                logger.info("Attached shared configuration cache '{}'", path);
+                return buffer;
+            }
+        } catch (IOException | RuntimeException error) {
+            ErrorHandler.logError(error, "open", "Failed to map shared configuration cache, continuing without it");
+            return null;
+        }
+    }
+
+    private static Optional<ByteBuffer> find(Kind kind, String name) {
+        MappedByteBuffer buffer = MappedFileHolder.BUFFER;
+        refreshIndex(buffer);
+        PayloadSlot slot = recordIndex.get(indexKey(kind, name));
+        return slot == null ? Optional.empty() : Optional.of(buffer.slice(slot.offset(), slot.length()));
+    }
+
+    /**
+     * Indexes the records appended since the last scan, and the slots that were still uncommitted then.
+     */
+    private static void refreshIndex(MappedByteBuffer buffer) {
+        long end = Math.min((long) LONG_VIEW.getAcquire(buffer, WRITE_OFFSET), CAPACITY);
+        if (end <= indexedUpTo && !hasUncommittedSlots) {
+            return;
+        }
+        synchronized (recordIndex) {
+            uncommittedSlots.removeIf(offset -> indexRecord(buffer, offset));
+            int offset = indexedUpTo;
+            while (offset + RECORD_HEADER_SIZE <= end) {
+                int length = (int) INT_VIEW.getAcquire(buffer, offset + LENGTH_OFFSET);
+                if (length < RECORD_HEADER_SIZE || offset + length > end) {
+                    // Every slot below the write offset has its length, so only a damaged file gets here
+                    logger.warn("Shared configuration cache is damaged at offset {}, later records are ignored", offset);
+                    offset = CAPACITY;
+                    break;
+                }
+                if (!indexRecord(buffer, offset)) {
+                    uncommittedSlots.add(offset);
+                }
+                offset += length;
+            }
+            indexedUpTo = offset;
+            hasUncommittedSlots = !uncommittedSlots.isEmpty();
+        }
+    }
+
+    /**
+     * @return false while the slot is reserved but not committed, true once it has been dealt with
+     */
+    private static boolean indexRecord(ByteBuffer buffer, int offset) {
+        if ((int) INT_VIEW.getAcquire(buffer, offset) != STATE_COMMITTED) {
+            return false;
+        }
+        int length = buffer.getInt(offset + LENGTH_OFFSET);
+        try {
+            ByteBuffer body = buffer.slice(offset + RECORD_HEADER_SIZE, length - RECORD_HEADER_SIZE);
+            CRC32 checksum = new CRC32();
+            checksum.update(body.duplicate());
+            if (checksum.getValue() != buffer.getLong(offset + CHECKSUM_OFFSET)) {
+                return true;
+            }
+            int kind = body.get();
+            byte[] name = new byte[body.getShort()];
+            body.get(name);
+            int payloadLength = body.getInt();
+            if (kind < 0 || kind >= Kind.values().length || payloadLength < 0 || payloadLength > body.remaining()) {
+                return true;
+            }
+            String recordName = new String(name, StandardCharsets.UTF_8);
+            recordIndex.put(indexKey(Kind.values()[kind], recordName),
+                    new PayloadSlot(offset + RECORD_HEADER_SIZE + body.position(), payloadLength));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException error) {
+            // A corrupt record is skipped like one that fails its checksum
+        }
+        return true;
+    }
+
+    private static void append(Kind kind, String name, byte[] payload) {
+        MappedByteBuffer buffer = MappedFileHolder.BUFFER;
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 1 + Short.BYTES + nameBytes.length + Integer.BYTES + payload.length;
+        // Records stay 8-byte aligned so their state words support atomic access
+        int length = (RECORD_HEADER_SIZE + bodyLength + 7) & ~7;
+
+        long offset;
+        while (true) {
+            offset = (long) LONG_VIEW.getVolatile(buffer, WRITE_OFFSET);
+            if (offset + length > CAPACITY) {
+                logger.warn("Shared configuration cache is full, '{}' will not be shared", name);
+                return;
+            }
+            int claimed = (int) INT_VIEW.compareAndExchange(buffer, (int) offset + LENGTH_OFFSET, 0, length);
+            if (claimed == 0) {
+                LONG_VIEW.compareAndSet(buffer, WRITE_OFFSET, offset, offset + length);
+                break;
+            }
+            // Another writer claimed this slot but has not moved the offset yet; move it for them and retry
+            LONG_VIEW.compareAndSet(buffer, WRITE_OFFSET, offset, offset + claimed);
+        }
+
+        int start = (int) offset;
+        ByteBuffer body = buffer.slice(start + RECORD_HEADER_SIZE, length - RECORD_HEADER_SIZE);
+        body.put((byte) kind.ordinal())
+                .putShort((short) nameBytes.length)
+                .put(nameBytes)
+                .putInt(payload.length)
+                .put(payload);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.slice(start + RECORD_HEADER_SIZE, length - RECORD_HEADER_SIZE));
+        buffer.putLong(start + CHECKSUM_OFFSET, checksum.getValue());
+        INT_VIEW.setRelease(buffer, start, STATE_COMMITTED);
+    }
+
+    private static byte[] loadBuildKey() {
+        String encodedKey = System.getProperty(CACHE_KEY_PROPERTY, "").trim();
+        if (encodedKey.isEmpty()) {
+            return null;
+        }
+        try {
+            byte[] key = Base64.getDecoder().decode(encodedKey);
+            if (key.length == BUILD_KEY_SIZE) {
+                return key;
+            }
+        } catch (IllegalArgumentException error) {
+            // Reported below together with a key of the wrong size
+        }
+        logger.warn("{} is not a Base64 encoded {}-bit key, the shared configuration cache is disabled",
+                CACHE_KEY_PROPERTY, BUILD_KEY_SIZE * 8);
+        return null;
+    }
+
+    private static void createOwnerOnly(Path path) throws IOException {
+        if (!Files.getFileStore(path.toAbsolutePath().getParent()).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            return;
+        }
+        try {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } catch (FileAlreadyExistsException error) {
+            Files.setPosixFilePermissions(path, OWNER_ONLY);
+        }
+    }
+
+    private static boolean holdsSecretKey(Map<String, String> values) {
+        for (EnvironmentSecretKeyVariables secretKey : EnvironmentSecretKeyVariables.values()) {
+            if (values.containsKey(secretKey.getSecretKeyVariable())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SecretKeySpec fileKey() throws Exception {
+        return deriveKey(FILE_KEY_LABEL.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SecretKeySpec secretKey(SecretKey environmentSecretKey) throws Exception {
+        byte[] label = SECRET_KEY_LABEL.getBytes(StandardCharsets.UTF_8);
+        byte[] encodedKey = environmentSecretKey.getEncoded();
+        return deriveKey(ByteBuffer.allocate(label.length + encodedKey.length).put(label).put(encodedKey).array());
+    }
+
+    private static SecretKeySpec nameKey(String label, byte[] keyMaterial) throws Exception {
+        byte[] labelBytes = label.getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec key = deriveKey(ByteBuffer.allocate(labelBytes.length + keyMaterial.length)
+                .put(labelBytes).put(keyMaterial).array());
+        return new SecretKeySpec(key.getEncoded(), "HmacSHA256");
+    }
+
+    private static String digest(SecretKeySpec key, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(data));
+    }
+
+    private static SecretKeySpec deriveKey(byte[] context) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(BuildKeyHolder.BUILD_KEY, "HmacSHA256"));
+        return new SecretKeySpec(mac.doFinal(context), "AES");
+    }
+
+    private static byte[] seal(byte[] plainText, SecretKeySpec key, String name) throws Exception {
+        byte[] nonce = new byte[GCM_NONCE_SIZE];
+        secureRandom.nextBytes(nonce);
+        Cipher cipher = Cipher.getInstance(AES_GCM);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, nonce));
+        cipher.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+        byte[] sealed = cipher.doFinal(plainText);
+        return ByteBuffer.allocate(nonce.length + sealed.length).put(nonce).put(sealed).array();
+    }
+
+    private static byte[] unseal(ByteBuffer payload, SecretKeySpec key, String name) throws Exception {
+        byte[] nonce = new byte[GCM_NONCE_SIZE];
+        payload.get(nonce);
+        byte[] sealed = new byte[payload.remaining()];
+        payload.get(sealed);
+        Cipher cipher = Cipher.getInstance(AES_GCM);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, nonce));
+        cipher.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(sealed);
+    }
+
+    private static String fileRecordName(Path sourceFile, byte[] content) throws Exception {
+        return sourceFile.toAbsolutePath().normalize() + "#" + digest(nameKey(FILE_NAME_LABEL, new byte[0]), content);
+    }
+
+    /**
+     * Secrets are named after the encrypted value and the key it is encrypted with, so each name has one record.
+     */
+    private static String secretRecordName(SecretKey secretKey, String alias, String key, String encryptedValue)
+            throws Exception {
+        return alias + '/' + key + '/' + digest(nameKey(SECRET_NAME_LABEL, secretKey.getEncoded()),
+                encryptedValue.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String indexKey(Kind kind, String name) {
+        return kind.ordinal() + ":" + name;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
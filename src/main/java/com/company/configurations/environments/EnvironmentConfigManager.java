@@ -1,97 +1,195 @@
 package com.company.configurations.environments;
 
+import com.company.configurations.ConfigurationOverlay;
+import com.company.configurations.cache.SharedConfigCache;
+import com.company.configurations.keys.ConfigKey;
+import com.company.configurations.statistics.ConfigLookupStatistics;
+import com.company.configurations.statistics.LookupOutcome;
+import com.company.configurations.validation.ConfigSchemaRegistry;
+import com.company.core.ConfigException;
 import com.company.core.ErrorHandler;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import com.company.core.events.ConfigLoadEvent;
 import com.company.utils.Base64Utils;
 import com.company.utils.LoggerUtils;
-import io.github.cdimascio.dotenv.Dotenv;
 import org.apache.logging.log4j.Logger;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class EnvironmentConfigManager {
 
     private static final Logger logger = LoggerUtils.getLogger(EnvironmentConfigManager.class);
 
+    private static final LatencyHistogram LOAD_TIMER = MetricsRegistry.timer("config.environment.load");
+
     /**
      * Thread-safe cache for storing loaded EnvironmentConfigManager instances.
      */
     private static final Map<String, EnvironmentConfigManager> environmentConfigurationCache = new ConcurrentHashMap<>();
 
-    private final Dotenv dotenv;
+    /**
+     * Copy-on-write view of the cache for the framework's own aliases, read without hashing alias strings.
+     */
+    private static volatile Map<EnvironmentFileAlias, EnvironmentConfigManager> configurationsByFileAlias = new EnumMap<>(EnvironmentFileAlias.class);
+
+    private final EnvironmentResolutionTable resolutionTable;
     private final String configName;
+    private final String envFileName;
 
     private EnvironmentConfigManager(String configName, String envName) {
         this.configName = configName;
+        this.envFileName = envName;
+        ConfigLoadEvent event = new ConfigLoadEvent(ConfigLoadEvent.ENVIRONMENT, configName, envName);
+        event.begin();
         try {
-            this.dotenv = Dotenv.configure()
-                    .directory(EnvironmentFilePaths.getDirectoryPath())
-                    .filename(envName)
-                    .load();
+            Map<String, String> fileValues = readFileValues(resolveEnvFile(envName));
+            this.resolutionTable = EnvironmentResolutionTable.build(fileValues);
+            event.keyCount = fileValues.size();
+            event.succeeded = true;
             logger.info("EnvironmentType '{}' was loaded successfully with alias '{}'", envName, configName);
+            logger.debug("Resolved environment '{}': {}", configName, resolutionTable.maskedView());
         } catch (Exception error) {
             logger.error("Failed to load environment '{}' with alias '{}'", envName, configName);
-            ErrorHandler.logError(error, "EnvironmentConfig Constructor", "Failed to load dotenv variables");
-            throw new RuntimeException(error);
+            ErrorHandler.logError(error, "EnvironmentConfig Constructor", "Failed to load environment variables");
+            throw ConfigException.wrap("Failed to load environment variables", error);
+        } finally {
+            event.commit();
         }
     }
 
-    public static void loadConfiguration(String configAlias, String envFilePath) {
-        environmentConfigurationCache.computeIfAbsent(configAlias, key -> {
-            try {
-                logger.info("Loading environment configuration '{}' from '{}'", configAlias, envFilePath);
-                return new EnvironmentConfigManager(configAlias, envFilePath);
-            } catch (Exception error) {
-                ErrorHandler.logError(error, "loadConfiguration", "Failed to load environment configuration");
-                throw new RuntimeException(error);
-            }
-        });
+    private static Path resolveEnvFile(String envFileName) {
+        // Absolute paths are taken as they are, so files outside the environment directory can be loaded
+        return Path.of(EnvironmentFilePaths.getDirectoryPath()).resolve(envFileName);
     }
 
-    public String getEnvironmentKey(String key) {
+    private static Map<String, String> readFileValues(Path envFile) throws IOException {
+        long start = System.nanoTime();
         try {
-            String systemValue = System.getenv(key);
-            if (systemValue != null) {
-                logger.info("Using system environment variable for '{}': '{}'", key, systemValue);
-                return systemValue;
+            // Another fork of this build may already have parsed the file
+            byte[] content = EnvironmentFile.readContent(envFile);
+            Optional<Map<String, String>> sharedValues =
+                    SharedConfigCache.lookupFile(SharedConfigCache.Kind.ENVIRONMENT_FILE, envFile, content);
+            if (sharedValues.isPresent()) {
+                return sharedValues.get();
             }
+            Map<String, String> values = EnvironmentFile.parse(envFile, content).asMap();
+            SharedConfigCache.publishFile(SharedConfigCache.Kind.ENVIRONMENT_FILE, envFile, content, values);
+            return values;
+        } finally {
+            LOAD_TIMER.recordSince(start);
+        }
+    }
 
-            String value = dotenv.get(key);
-            if (value == null || value.isEmpty()) {
-                String message = String.format("Environment variable '%s' not found or empty in configuration '%s'", key, configName);
-                logger.warn(message);
-                throw new IllegalArgumentException(message);
+    /**
+     * Loads an environment file into the cache under the given alias.
+     * The file is parsed outside the cache lock so concurrent loads of different aliases never
+     * wait on each other; if two threads race on the same alias the first parsed copy wins.
+     *
+     * @param configAlias Alias to register the configuration under
+     * @param envFilePath Name of the environment file inside the environment directory, or an absolute path
+     */
+    public static void loadConfiguration(String configAlias, String envFilePath) {
+        if (environmentConfigurationCache.containsKey(configAlias)) {
+            return;
+        }
+        try {
+            logger.info("Loading environment configuration '{}' from '{}'", configAlias, envFilePath);
+            EnvironmentConfigManager loadedConfig = createValidated(configAlias, envFilePath);
+            if (environmentConfigurationCache.putIfAbsent(configAlias, loadedConfig) == null) {
+                syncFileAliasView(configAlias);
             }
-            return value;
         } catch (Exception error) {
-            ErrorHandler.logError(error, "getEnvironmentKey", "Failed to retrieve environment variable");
-            throw new RuntimeException(error);
+            ErrorHandler.logError(error, "loadConfiguration", "Failed to load environment configuration");
+            throw ConfigException.wrap("Failed to load environment configuration", error);
         }
     }
 
+    /**
+     * Reads a typed key through its precomputed key ID.
+     *
+     * @param key Typed environment key
+     * @return The converted value
+     * @throws RuntimeException if the key is missing or empty, or its value cannot be converted
+     */
+    public <T> T get(ConfigKey<T> key) {
+        String value = ConfigurationOverlay.lookup(key.getName());
+        LookupOutcome outcome = LookupOutcome.OVERRIDE;
+        if (value == null) {
+            EnvironmentResolutionTable.Entry entry = resolutionTable.resolve(key.getId(), key.getName());
+            if (entry == null || entry.value().isEmpty()) {
+                throw missingEnvironmentKey(key.getName());
+            }
+            outcome = outcomeOf(entry);
+            value = entry.value();
+        }
+        // The outcome is only known once the value has converted, so each lookup is counted exactly once
+        T converted;
+        try {
+            converted = key.convert(value);
+        } catch (IllegalArgumentException error) {
+            ConfigLookupStatistics.record(configName, key.getName(), LookupOutcome.CONVERSION_FAILURE);
+            throw error;
+        }
+        ConfigLookupStatistics.record(configName, key.getName(), outcome);
+        return converted;
+    }
+
+    /**
+     * Reads a typed key from one of the framework's environment files.
+     *
+     * @param fileAlias Loaded environment file
+     * @param key       Typed environment key
+     * @return The converted value
+     */
+    public static <T> T get(EnvironmentFileAlias fileAlias, ConfigKey<T> key) {
+        return getConfiguration(fileAlias).get(key);
+    }
+
+    public String getEnvironmentKey(String key) {
+        String overlayValue = resolveOverlay(key);
+        if (overlayValue != null) {
+            return overlayValue;
+        }
+
+        // Required keys were checked against the alias schema at load time, so the miss branch is cold
+        EnvironmentResolutionTable.Entry entry = resolutionTable.resolve(key);
+        if (entry != null && !entry.value().isEmpty()) {
+            recordResolved(key, entry);
+            return entry.value();
+        }
+        throw missingEnvironmentKey(key);
+    }
+
     public String getEnvironmentKey(String key, String defaultValue) {
         try {
-            String systemValue = System.getenv(key);
-            if (systemValue != null) {
-                logger.info("Using system environment variable for '{}': '{}'", key, systemValue);
-                return systemValue;
+            String overlayValue = resolveOverlay(key);
+            if (overlayValue != null) {
+                return overlayValue;
             }
 
-            String value = dotenv.get(key, defaultValue);
-            if (value.equals(defaultValue)) {
-                logger.warn("Environment variable '{}' not found, using default '{}' in configuration '{}'", key, defaultValue, configName);
-            } else {
-                logger.info("Retrieved environment variable '{}' from configuration '{}'", key, configName);
+            EnvironmentResolutionTable.Entry entry = resolutionTable.resolve(key);
+            if (entry == null) {
+                ConfigLookupStatistics.record(configName, key, LookupOutcome.DEFAULT);
+                logger.warn("Environment variable '{}' not found, using default '{}' in configuration '{}'",
+                        key, SecretMasker.mask(key, defaultValue), configName);
+                return defaultValue;
             }
-            return value;
+            recordResolved(key, entry);
+            return entry.value();
         } catch (Exception error) {
             ErrorHandler.logError(error, "getEnv", "Failed to retrieve environment variable with default");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to retrieve environment variable with default", error);
         }
     }
 
@@ -105,12 +203,24 @@ public class EnvironmentConfigManager {
         return config;
     }
 
+    /**
+     * Looks up one of the framework's environment files without hashing its alias string.
+     *
+     * @param fileAlias Loaded environment file
+     * @return The loaded configuration
+     * @throws IllegalStateException if the file has not been loaded
+     */
+    public static EnvironmentConfigManager getConfiguration(EnvironmentFileAlias fileAlias) {
+        EnvironmentConfigManager config = configurationsByFileAlias.get(fileAlias);
+        return config != null ? config : getConfiguration(fileAlias.getAlias());
+    }
+
     public static String getEnvironmentKeyFromCache (String aliasName, String environmentKey){
         try {
             return getConfiguration(aliasName).getEnvironmentKey(environmentKey);
         } catch (Exception error) {
             ErrorHandler.logError(error, "getCachedEnvironmentKey", "Failed to retrieve cached environment key");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to retrieve cached environment key", error);
         }
     }
 
@@ -120,7 +230,7 @@ public class EnvironmentConfigManager {
 
         } catch (Exception error) {
             ErrorHandler.logError(error, "getSecretKeyFromCache", "Failed to retrieve cached secret key");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to retrieve cached secret key", error);
         }
     }
 
@@ -134,7 +244,7 @@ public class EnvironmentConfigManager {
             return environmentConfigurationCache.containsKey(configAlias);
         } catch (Exception error) {
             ErrorHandler.logError(error, "isConfigurationLoaded", "Failed to check if configuration is loaded");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to check if configuration is loaded", error);
         }
     }
 
@@ -146,23 +256,96 @@ public class EnvironmentConfigManager {
      */
     public <ConversionType> Optional<ConversionType> getEnvironmentKey(String key, Class<ConversionType> type) {
         try {
-            String systemValue = System.getenv(key);
-            String value = systemValue != null ? systemValue : dotenv.get(key);
-
-            if (value == null || value.isEmpty()) {
-                logger.warn("Environment variable '{}' not found in configuration '{}'", key, configName);
-                return Optional.empty();
+            String value = ConfigurationOverlay.lookup(key);
+            LookupOutcome outcome = LookupOutcome.OVERRIDE;
+            if (value == null) {
+                EnvironmentResolutionTable.Entry entry = resolutionTable.resolve(key);
+                if (entry == null || entry.value().isEmpty()) {
+                    ConfigLookupStatistics.record(configName, key, LookupOutcome.MISS);
+                    logger.warn("Environment variable '{}' not found in configuration '{}'", key, configName);
+                    return Optional.empty();
+                }
+                outcome = outcomeOf(entry);
+                value = entry.value();
             }
 
-            // Type conversion
+            // Type conversion; a value that fails to convert is counted as a conversion failure only
             ConversionType result = getConversionType(type, value);
+            ConfigLookupStatistics.record(configName, key, outcome);
             return Optional.of(result);
         } catch (Exception error) {
+            ConfigLookupStatistics.record(configName, key, LookupOutcome.CONVERSION_FAILURE);
             ErrorHandler.logError(error, "getEnvironmentKey", "Failed to retrieve or convert environment variable");
             return Optional.empty();
         }
     }
 
+    /**
+     * Get the file-defined keys of this configuration with secret values masked, for diagnostics.
+     * @return Sorted map of key to display value
+     */
+    public Map<String, String> getMaskedEnvironment() {
+        return resolutionTable.maskedView();
+    }
+
+    /**
+     * Resolves a thread overlay for the key.
+     *
+     * @return The overlay value, or null when the key is not overridden on this thread
+     */
+    private String resolveOverlay(String key) {
+        String value = ConfigurationOverlay.lookup(key);
+        if (value != null) {
+            ConfigLookupStatistics.record(configName, key, LookupOutcome.OVERRIDE);
+        }
+        return value;
+    }
+
+    private String resolveLoadedValue(String key) {
+        EnvironmentResolutionTable.Entry entry = resolutionTable.resolve(key);
+        return entry == null ? null : entry.value();
+    }
+
+    private static EnvironmentConfigManager createValidated(String configAlias, String envFileName) {
+        EnvironmentConfigManager config = new EnvironmentConfigManager(configAlias, envFileName);
+        ConfigSchemaRegistry.validate(configAlias, config::resolveLoadedValue);
+        return config;
+    }
+
+    /**
+     * Copies the cached configuration of a framework alias into the enum view.
+     * Always reads the cache under the lock, so racing loads and reloads cannot leave a stale copy behind.
+     */
+    private static synchronized void syncFileAliasView(String configAlias) {
+        EnvironmentFileAlias.fromAlias(configAlias).ifPresent(fileAlias -> {
+            Map<EnvironmentFileAlias, EnvironmentConfigManager> updated = new EnumMap<>(configurationsByFileAlias);
+            EnvironmentConfigManager config = environmentConfigurationCache.get(configAlias);
+            if (config == null) {
+                updated.remove(fileAlias);
+            } else {
+                updated.put(fileAlias, config);
+            }
+            configurationsByFileAlias = updated;
+        });
+    }
+
+    private ConfigException missingEnvironmentKey(String key) {
+        ConfigLookupStatistics.record(configName, key, LookupOutcome.MISS);
+        // Misses are routinely caught by callers that fall back or retry, so skip the stack walk
+        ConfigException error = ConfigException.stackless(
+                "Environment variable '" + key + "' not found or empty in configuration '" + configName + "'");
+        ErrorHandler.logError(error, "getEnvironmentKey", "Failed to retrieve environment variable");
+        return error;
+    }
+
+    private void recordResolved(String key, EnvironmentResolutionTable.Entry entry) {
+        ConfigLookupStatistics.record(configName, key, outcomeOf(entry));
+    }
+
+    private static LookupOutcome outcomeOf(EnvironmentResolutionTable.Entry entry) {
+        return entry.source() == EnvironmentResolutionTable.Source.PROCESS ? LookupOutcome.OVERRIDE : LookupOutcome.HIT;
+    }
+
     private <ConversionType> ConversionType getConversionType(Class<ConversionType> type, String value) {
         try{
         Object convertedValue = switch (type.getSimpleName()) {
@@ -179,7 +362,7 @@ public class EnvironmentConfigManager {
         return result;
         } catch (Exception error) {
             ErrorHandler.logError(error, "getT", "Failed to convert property");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to convert property", error);
         }
     }
 
@@ -190,12 +373,49 @@ public class EnvironmentConfigManager {
                 throw new IllegalStateException("Configuration '" + configAlias + "' not found. Load it first.");
             }
 
-            // Remove and reload
-            environmentConfigurationCache.remove(configAlias);
-            loadConfiguration(configAlias, existingConfig.configName);
+            // Swap in the new copy only once it is loaded, so readers never see the alias missing
+            environmentConfigurationCache.put(configAlias, createValidated(configAlias, existingConfig.envFileName));
+            syncFileAliasView(configAlias);
         } catch (Exception error) {
             ErrorHandler.logError(error, "reloadConfiguration", "Failed to reload configuration");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to reload configuration", error);
+        }
+    }
+
+    /**
+     * Removes a configuration from the cache, so the alias can be loaded again from another file.
+     *
+     * @param configAlias Alias to remove
+     * @return true if the alias was loaded
+     */
+    public static synchronized boolean unloadConfiguration(String configAlias) {
+        boolean removed = environmentConfigurationCache.remove(configAlias) != null;
+        syncFileAliasView(configAlias);
+        return removed;
+    }
+
+    /**
+     * Reloads every alias loaded from the given file, so readers see values written to it after it was loaded.
+     * A reload always reads the file as it is now, so racing writers converge on the last written content.
+     *
+     * @param envFile Environment file that was written
+     * @return The reloaded aliases
+     */
+    public static synchronized Set<String> reloadConfigurationsFor(Path envFile) {
+        try {
+            Path writtenFile = envFile.toAbsolutePath().normalize();
+            Set<String> reloadedAliases = new TreeSet<>();
+            for (Map.Entry<String, EnvironmentConfigManager> entry : environmentConfigurationCache.entrySet()) {
+                Path loadedFile = resolveEnvFile(entry.getValue().envFileName).toAbsolutePath().normalize();
+                if (loadedFile.equals(writtenFile)) {
+                    reloadConfiguration(entry.getKey());
+                    reloadedAliases.add(entry.getKey());
+                }
+            }
+            return reloadedAliases;
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "reloadConfigurationsFor", "Failed to reload configurations for " + envFile);
+            throw ConfigException.wrap("Failed to reload configurations for " + envFile, error);
         }
     }
 
@@ -208,7 +428,7 @@ public class EnvironmentConfigManager {
             return Collections.unmodifiableSet(environmentConfigurationCache.keySet());
         } catch (Exception error) {
             ErrorHandler.logError(error, "getLoadedConfigurationAliases", "Failed to retrieve loaded configuration aliases");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to retrieve loaded configuration aliases", error);
         }
     }
 
@@ -0,0 +1,362 @@
+package com.company.configurations.environments;
+
+import com.company.core.FileManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed view of a {@code .env} file.
+ * <p>
+ * The file is read through a single {@link FileChannel} read and parsed in one linear pass over the raw bytes.
+ * Besides the resolved values, every key is indexed to the byte range of the line that defines it, so updates
+ * can be applied by copying the untouched byte ranges and substituting only the affected lines.
+ * <p>
+ * Supported syntax: {@code KEY=value}, an optional {@code export} prefix, full-line {@code #} comments,
+ * inline comments after unquoted values, single-quoted literals and double-quoted values with
+ * {@code \n}, {@code \r}, {@code \t}, {@code \"} and {@code \\} escapes. When a key is defined more than once the last
+ * definition wins.
+ */
+public final class EnvironmentFile {
+
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final String EXPORT_PREFIX = "export ";
+
+    /**
+     * Byte range of the line that defines a key, excluding the line terminator.
+     *
+     * @param offset Offset of the first byte of the line
+     * @param length Number of bytes in the line
+     * @param export Whether the line uses the {@code export} prefix
+     */
+    private record LineSpan(int offset, int length, boolean export) {
+    }
+
+    private final Path path;
+    private final byte[] content;
+    private final Map<String, String> values;
+    private final Map<String, LineSpan> lineIndex;
+
+    private EnvironmentFile(Path path, byte[] content, Map<String, String> values, Map<String, LineSpan> lineIndex) {
+        this.path = path;
+        this.content = content;
+        this.values = Collections.unmodifiableMap(values);
+        this.lineIndex = lineIndex;
+    }
+
+    /**
+     * Reads and parses an environment file.
+     *
+     * @param path Path of the environment file
+     * @return The parsed file
+     * @throws IOException              If the file cannot be read
+     * @throws IllegalArgumentException If a line is malformed
+     */
+    public static EnvironmentFile parse(Path path) throws IOException {
+        return parse(path, readContent(path));
+    }
+
+    /**
+     * Parses environment file content that has already been read into memory.
+     *
+     * @param path    Path the content belongs to, used for error messages and updates
+     * @param content Raw UTF-8 content of the file
+     * @return The parsed file
+     * @throws IllegalArgumentException If a line is malformed
+     */
+    public static EnvironmentFile parse(Path path, byte[] content) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, LineSpan> lineIndex = new LinkedHashMap<>();
+
+        int lineStart = 0;
+        int lineNumber = 1;
+        while (lineStart < content.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < content.length && content[lineEnd] != NEW_LINE) {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && content[lineEnd - 1] == CARRIAGE_RETURN ? lineEnd - 1 : lineEnd;
+
+            parseLine(path, content, lineStart, contentEnd, lineNumber, values, lineIndex);
+
+            lineStart = lineEnd + 1;
+            lineNumber++;
+        }
+        return new EnvironmentFile(path, content, values, lineIndex);
+    }
+
+    /**
+     * Applies key updates to an environment file in one pass and writes the result back.
+     *
+     * @param path    Path of the environment file
+     * @param updates Keys and their new values; keys not yet present are appended and {@code null} values remove the key
+     * @throws IOException If the file cannot be read or written
+     */
+    public static void update(Path path, Map<String, String> updates) throws IOException {
+        // Locked read-modify-write: concurrent updates from other threads or processes are applied one after another
+        FileManager.updateAtomically(path, content -> parse(path, content).withUpdates(updates));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public boolean containsKey(String key) {
+        return values.containsKey(key);
+    }
+
+    public Set<String> keys() {
+        return values.keySet();
+    }
+
+    /**
+     * @return Unmodifiable view of all resolved values, in file order
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    /**
+     * Produces the file content with the given keys updated. Existing definitions are rewritten in place,
+     * keeping their {@code export} prefix; all other bytes, including comments and formatting, are copied unchanged.
+     * New keys are appended at the end of the file. A {@code null} value removes the line that defines the key, together
+     * with its line terminator; an earlier duplicate definition of the key, if any, takes effect again.
+     *
+     * @param updates Keys and their new values, or {@code null} to remove a key
+     * @return The updated file content
+     */
+    public byte[] withUpdates(Map<String, String> updates) {
+        List<Map.Entry<String, LineSpan>> replacements = new ArrayList<>();
+        List<String> appends = new ArrayList<>();
+        for (String key : updates.keySet()) {
+            validateKey(key);
+            LineSpan span = lineIndex.get(key);
+            if (span != null) {
+                replacements.add(Map.entry(key, span));
+            } else if (updates.get(key) != null) {
+                appends.add(key);
+            }
+        }
+        replacements.sort(Comparator.comparingInt(entry -> entry.getValue().offset()));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length + 64 * updates.size());
+        int position = 0;
+        for (Map.Entry<String, LineSpan> replacement : replacements) {
+            LineSpan span = replacement.getValue();
+            output.write(content, position, span.offset() - position);
+            position = span.offset() + span.length();
+            String value = updates.get(replacement.getKey());
+            if (value != null) {
+                writeLine(output, replacement.getKey(), value, span.export());
+                continue;
+            }
+            if (position < content.length && content[position] == CARRIAGE_RETURN) {
+                position++;
+            }
+            if (position < content.length && content[position] == NEW_LINE) {
+                position++;
+            }
+        }
+        output.write(content, position, content.length - position);
+
+        if (!appends.isEmpty()) {
+            if (content.length > 0 && content[content.length - 1] != NEW_LINE) {
+                output.write(NEW_LINE);
+            }
+            for (String key : appends) {
+                writeLine(output, key, updates.get(key), false);
+                output.write(NEW_LINE);
+            }
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads the raw content of an environment file with a single channel read, for {@link #parse(Path, byte[])}.
+     *
+     * @param path Path of the environment file
+     * @return The raw UTF-8 content
+     * @throws IOException If the file cannot be read
+     */
+    public static byte[] readContent(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Environment file is too large: " + path);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or the channel is exhausted
+            }
+            return buffer.position() == buffer.capacity()
+                    ? buffer.array()
+                    : Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+
+    private static void parseLine(Path path, byte[] content, int start, int end, int lineNumber,
+                                  Map<String, String> values, Map<String, LineSpan> lineIndex) {
+        int position = skipWhitespace(content, start, end);
+        if (position == end || content[position] == '#') {
+            return;
+        }
+
+        boolean export = startsWith(content, position, end, EXPORT_PREFIX);
+        if (export) {
+            position = skipWhitespace(content, position + EXPORT_PREFIX.length(), end);
+        }
+
+        int separator = position;
+        while (separator < end && content[separator] != '=') {
+            separator++;
+        }
+        if (separator == end) {
+            throw malformed(path, lineNumber, "missing '='");
+        }
+
+        String key = new String(content, position, trimEnd(content, position, separator) - position, StandardCharsets.UTF_8);
+        if (key.isEmpty() || containsWhitespace(key)) {
+            throw malformed(path, lineNumber, "invalid key '" + key + "'");
+        }
+
+        String value = parseValue(path, content, skipWhitespace(content, separator + 1, end), end, lineNumber);
+        values.put(key, value);
+        lineIndex.put(key, new LineSpan(start, end - start, export));
+    }
+
+    private static String parseValue(Path path, byte[] content, int start, int end, int lineNumber) {
+        if (start == end) {
+            return "";
+        }
+
+        byte quote = content[start];
+        if (quote == '\'' || quote == '"') {
+            StringBuilder builder = new StringBuilder();
+            int position = start + 1;
+            int segmentStart = position;
+            while (position < end && content[position] != quote) {
+                if (quote == '"' && content[position] == '\\' && position + 1 < end) {
+                    builder.append(new String(content, segmentStart, position - segmentStart, StandardCharsets.UTF_8));
+                    builder.append(unescape(content[position + 1]));
+                    position += 2;
+                    segmentStart = position;
+                } else {
+                    position++;
+                }
+            }
+            if (position == end) {
+                throw malformed(path, lineNumber, "unterminated quoted value");
+            }
+            builder.append(new String(content, segmentStart, position - segmentStart, StandardCharsets.UTF_8));
+
+            int trailing = skipWhitespace(content, position + 1, end);
+            if (trailing != end && content[trailing] != '#') {
+                throw malformed(path, lineNumber, "unexpected characters after quoted value");
+            }
+            return builder.toString();
+        }
+
+        int valueEnd = start;
+        while (valueEnd < end && !(content[valueEnd] == '#' && isWhitespace(content[valueEnd - 1]))) {
+            valueEnd++;
+        }
+        return new String(content, start, trimEnd(content, start, valueEnd) - start, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLine(ByteArrayOutputStream output, String key, String value, boolean export) {
+        String line = (export ? EXPORT_PREFIX : "") + key + "=" + formatValue(value);
+        output.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String formatValue(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Environment value cannot be null");
+        }
+        boolean needsQuotes = value.chars()
+                .anyMatch(character -> Character.isWhitespace(character) || character == '#'
+                        || character == '"' || character == '\'' || character == '\\');
+        if (!needsQuotes) {
+            return value;
+        }
+        return '"' + value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t") + '"';
+    }
+
+    private static char unescape(byte escaped) {
+        return switch (escaped) {
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            default -> (char) escaped;
+        };
+    }
+
+    private static void validateKey(String key) {
+        if (key == null || key.isBlank() || containsWhitespace(key) || key.indexOf('=') >= 0) {
+            throw new IllegalArgumentException("Invalid environment variable name: '" + key + "'");
+        }
+    }
+
+    private static boolean startsWith(byte[] content, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int index = 0; index < prefix.length(); index++) {
+            if (content[start + index] != prefix.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(byte[] content, int start, int end) {
+        while (start < end && isWhitespace(content[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(byte[] content, int start, int end) {
+        while (end > start && isWhitespace(content[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWhitespace(byte character) {
+        return character == ' ' || character == '\t';
+    }
+
+    private static boolean containsWhitespace(String value) {
+        return value.chars().anyMatch(Character::isWhitespace);
+    }
+
+    private static IllegalArgumentException malformed(Path path, int lineNumber, String reason) {
+        return new IllegalArgumentException(String.format("Malformed entry in '%s' at line %d: %s", path, lineNumber, reason));
+    }
+}
@@ -1,5 +1,7 @@
 package com.company.configurations.environments;
 
+import java.util.Optional;
+
 public enum EnvironmentFileAlias {
     BASE("BaseEnvFile"),
     DEVELOPMENT("DevEnvFile"),
@@ -15,4 +17,16 @@ public enum EnvironmentFileAlias {
     public String getAlias() {
         return alias;
     }
+
+    /**
+     * @return The constant registered under the alias string, or empty for ad-hoc aliases
+     */
+    public static Optional<EnvironmentFileAlias> fromAlias(String alias) {
+        for (EnvironmentFileAlias candidate : values()) {
+            if (candidate.alias.equals(alias)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
 }
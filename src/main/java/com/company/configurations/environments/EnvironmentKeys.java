@@ -0,0 +1,17 @@
+package com.company.configurations.environments;
+
+import com.company.configurations.keys.ConfigKey;
+
+/**
+ * Typed keys of the framework environment files.
+ * Secret keys are declared through {@link EnvironmentSecretKeyVariables}.
+ */
+public final class EnvironmentKeys {
+
+    public static final ConfigKey<String> PORTAL_USERNAME = ConfigKey.ofString("PORTAL_USERNAME");
+    public static final ConfigKey<String> PORTAL_PASSWORD = ConfigKey.ofString("PORTAL_PASSWORD");
+
+    private EnvironmentKeys() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+}
@@ -0,0 +1,113 @@
+package com.company.configurations.environments;
+
+import com.company.configurations.store.ConfigValueTable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable key to value table for one environment file, merged with a one-time snapshot of the process environment.
+ * <p>
+ * Process environment variables take precedence over file values, as they always have. Keys defined in the file are
+ * resolved with a single map read; keys that only exist in the process environment fall through to the shared
+ * process snapshot. Every entry carries a display value that is already masked for secret keys, so callers can log
+ * entries without formatting or exposing secrets.
+ * <p>
+ * File entries are held in a {@link ConfigValueTable}, so environments loaded side by side share key names. Entries
+ * are not pooled: they hold secrets and ciphertexts, which must not be kept or shared beyond the table.
+ */
+public final class EnvironmentResolutionTable {
+
+    /**
+     * Where a resolved value came from.
+     */
+    public enum Source {
+        FILE,
+        PROCESS
+    }
+
+    /**
+     * A resolved value.
+     *
+     * @param value        The raw value
+     * @param displayValue The value safe to log; {@link SecretMasker#MASK} for secret keys
+     * @param source       Where the value came from
+     */
+    public record Entry(String value, String displayValue, Source source) {
+    }
+
+    private static final class ProcessSnapshotHolder {
+        private static final Map<String, Entry> PROCESS_ENTRIES = snapshotProcessEnvironment();
+    }
+
+    private final ConfigValueTable<Entry> entries;
+
+    private EnvironmentResolutionTable(ConfigValueTable<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Builds the table for the given file values.
+     *
+     * @param fileValues Values parsed from an environment file
+     * @return The resolution table
+     */
+    public static EnvironmentResolutionTable build(Map<String, String> fileValues) {
+        Map<String, Entry> processEntries = ProcessSnapshotHolder.PROCESS_ENTRIES;
+        Map<String, Entry> entries = new LinkedHashMap<>(fileValues.size() * 2);
+        fileValues.forEach((key, value) -> {
+            Entry processEntry = processEntries.get(key);
+            entries.put(key, processEntry != null ? processEntry : createEntry(key, value, Source.FILE));
+        });
+        return new EnvironmentResolutionTable(ConfigValueTable.ofUnpooled(entries));
+    }
+
+    /**
+     * @return The entry for the key, or null when neither the file nor the process environment defines it
+     */
+    public Entry resolve(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry : ProcessSnapshotHolder.PROCESS_ENTRIES.get(key);
+    }
+
+    /**
+     * Resolves a key whose {@link com.company.configurations.store.ConfigKeyDictionary} ID is already known.
+     *
+     * @param keyId ID of the key
+     * @param key   The key, used for the process environment fallback
+     * @return The entry for the key, or null when neither the file nor the process environment defines it
+     */
+    public Entry resolve(int keyId, String key) {
+        Entry entry = entries.get(keyId);
+        return entry != null ? entry : ProcessSnapshotHolder.PROCESS_ENTRIES.get(key);
+    }
+
+    /**
+     * @return The keys defined by the file
+     */
+    public List<String> fileKeys() {
+        return entries.keys();
+    }
+
+    /**
+     * @return The file-defined keys with their masked display values, sorted by key
+     */
+    public Map<String, String> maskedView() {
+        Map<String, String> view = new TreeMap<>();
+        entries.forEach((key, entry) -> view.put(key, entry.displayValue()));
+        return view;
+    }
+
+    private static Map<String, Entry> snapshotProcessEnvironment() {
+        Map<String, Entry> snapshot = new HashMap<>();
+        System.getenv().forEach((key, value) -> snapshot.put(key, createEntry(key, value, Source.PROCESS)));
+        return Map.copyOf(snapshot);
+    }
+
+    private static Entry createEntry(String key, String value, Source source) {
+        return new Entry(value, SecretMasker.mask(key, value), source);
+    }
+}
@@ -0,0 +1,41 @@
+package com.company.configurations.environments;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which configuration keys hold secrets and masks their values for display.
+ * A key is secret when it is one of the {@link EnvironmentSecretKeyVariables} or its name matches a common
+ * secret pattern such as {@code PASSWORD}, {@code SECRET}, {@code TOKEN} or a {@code _KEY} suffix.
+ */
+public final class SecretMasker {
+
+    public static final String MASK = "********";
+
+    private static final Pattern SECRET_KEY_PATTERN = Pattern.compile(
+            "(?i).*(SECRET|PASSWORD|PASSWD|PWD|TOKEN|CREDENTIAL|PRIVATE|API_KEY|ACCESS_KEY|_KEY$).*");
+
+    private static final Set<String> SECRET_KEY_NAMES = Arrays.stream(EnvironmentSecretKeyVariables.values())
+            .map(EnvironmentSecretKeyVariables::getSecretKeyVariable)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private SecretMasker() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static boolean isSecret(String key) {
+        return key != null && (SECRET_KEY_NAMES.contains(key) || SECRET_KEY_PATTERN.matcher(key).matches());
+    }
+
+    /**
+     * @return The value itself for non-secret keys, {@link #MASK} for secret keys
+     */
+    public static String mask(String key, String value) {
+        if (value == null) {
+            return null;
+        }
+        return isSecret(key) ? MASK : value;
+    }
+}
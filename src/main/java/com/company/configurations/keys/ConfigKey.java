@@ -0,0 +1,95 @@
+package com.company.configurations.keys;
+
+import com.company.configurations.store.ConfigKeyDictionary;
+
+import java.util.function.Function;
+
+/**
+ * A typed configuration key whose {@link ConfigKeyDictionary} ID is resolved once, when the constant is created.
+ * <p>
+ * Reading through a key skips hashing the key name and probing the process-wide dictionary that string reads go
+ * through; the loaded file's {@link com.company.configurations.store.ConfigValueTable} finds the ID by binary search
+ * over the keys that file defines. The value comes back already converted:
+ * <pre>{@code
+ * public static final ConfigKey<String> PORTAL_BASE_URL = ConfigKey.ofString("PORTAL_BASE_URL");
+ *
+ * String baseUrl = PropertiesConfigManager.get(ConfigFileAlias.UAT, PropertyKeys.PORTAL_BASE_URL);
+ * }</pre>
+ * Declare keys as constants in the module that owns them, so each is registered exactly once.
+ *
+ * @param <T> Type the raw value converts to
+ */
+public final class ConfigKey<T> {
+
+    private final String name;
+    private final Class<T> type;
+    private final Function<String, T> converter;
+    private final int id;
+
+    private ConfigKey(String name, Class<T> type, Function<String, T> converter) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Configuration key name cannot be null or empty");
+        }
+        this.name = name;
+        this.type = type;
+        this.converter = converter;
+        this.id = ConfigKeyDictionary.idOf(name);
+    }
+
+    public static ConfigKey<String> ofString(String name) {
+        return new ConfigKey<>(name, String.class, Function.identity());
+    }
+
+    public static ConfigKey<Integer> ofInteger(String name) {
+        return new ConfigKey<>(name, Integer.class, Integer::valueOf);
+    }
+
+    public static ConfigKey<Long> ofLong(String name) {
+        return new ConfigKey<>(name, Long.class, Long::valueOf);
+    }
+
+    public static ConfigKey<Double> ofDouble(String name) {
+        return new ConfigKey<>(name, Double.class, Double::valueOf);
+    }
+
+    public static ConfigKey<Boolean> ofBoolean(String name) {
+        return new ConfigKey<>(name, Boolean.class, Boolean::valueOf);
+    }
+
+    /**
+     * @return The key as it appears in configuration files
+     */
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return The precomputed {@link ConfigKeyDictionary} ID of the key
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Converts a raw configuration value to the key type.
+     *
+     * @throws IllegalArgumentException if the value cannot be converted
+     */
+    public T convert(String rawValue) {
+        try {
+            return converter.apply(rawValue);
+        } catch (RuntimeException error) {
+            throw new IllegalArgumentException(
+                    "Value of '" + name + "' cannot be converted to " + type.getSimpleName(), error);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + "<" + type.getSimpleName() + ">";
+    }
+}
@@ -1,19 +1,39 @@
 package com.company.configurations.properties;
 
+import java.util.Optional;
+
 public enum ConfigFileAlias {
 
-    GLOBAL("GlobalConfig"),
-    DEVELOPMENT("DevConfig"),
-    UAT("UatConfig"),
-    PRODUCTION("ProdConfig");
+    GLOBAL("GlobalConfig", ConfigFilePath.GLOBAL),
+    DEVELOPMENT("DevConfig", ConfigFilePath.DEV),
+    UAT("UatConfig", ConfigFilePath.UAT),
+    PRODUCTION("ProdConfig", ConfigFilePath.PROD);
 
     private final String alias;
+    private final ConfigFilePath configFilePath;
 
-    ConfigFileAlias(String alias) {
+    ConfigFileAlias(String alias, ConfigFilePath configFilePath) {
         this.alias = alias;
+        this.configFilePath = configFilePath;
     }
 
     public String getAlias() {
         return alias;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return The constant registered under the alias string, or empty for ad-hoc aliases
+     */
+    public static Optional<ConfigFileAlias> fromAlias(String alias) {
+        for (ConfigFileAlias candidate : values()) {
+            if (candidate.alias.equals(alias)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public ConfigFilePath getConfigFilePath() {
+        return configFilePath;
+    }
+}
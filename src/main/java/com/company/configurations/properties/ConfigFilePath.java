@@ -13,6 +13,10 @@ public enum ConfigFilePath {
         this.path = path;
     }
 
+    public String getFileName() {
+        return path;
+    }
+
     public String getFilePath() {
         return CONTENT_ROOT_PATH + path;
     }
@@ -1,12 +1,24 @@
 package com.company.configurations.properties;
 
+import com.company.configurations.ConfigurationOverlay;
+import com.company.configurations.cache.SharedConfigCache;
+import com.company.configurations.keys.ConfigKey;
+import com.company.configurations.statistics.ConfigLookupStatistics;
+import com.company.configurations.statistics.LookupOutcome;
+import com.company.configurations.store.ConfigValueTable;
+import com.company.configurations.validation.ConfigSchemaRegistry;
+import com.company.core.ConfigException;
 import com.company.core.ErrorHandler;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import com.company.core.events.ConfigLoadEvent;
 import com.company.utils.LoggerUtils;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -16,85 +28,147 @@ public class PropertiesConfigManager {
 
     private static final Logger logger = LoggerUtils.getLogger(PropertiesConfigManager.class);
 
+    private static final LatencyHistogram LOAD_TIMER = MetricsRegistry.timer("config.properties.load");
+
     /**
      * Thread-safe cache for storing loaded PropertiesConfig instances.
      */
     private static final Map<String, PropertiesConfigManager> propertyConfigurationCache = new ConcurrentHashMap<>();
 
-    private final Properties properties;
+    /**
+     * Copy-on-write view of the cache for the framework's own aliases, read without hashing alias strings.
+     */
+    private static volatile Map<ConfigFileAlias, PropertiesConfigManager> configurationsByFileAlias = new EnumMap<>(ConfigFileAlias.class);
+
+    private final ConfigValueTable<String> properties;
+    private final String configAlias;
     private final String propertiesFilePath;
 
-    private PropertiesConfigManager(String propertiesFilePath) {
+    private PropertiesConfigManager(String configAlias, String propertiesFilePath) {
+        ConfigLoadEvent event = new ConfigLoadEvent(ConfigLoadEvent.PROPERTIES, configAlias, propertiesFilePath);
+        event.begin();
         try {
             validateFilePath(propertiesFilePath);
 
             // assign ...
-            this.properties = new Properties();
+            this.configAlias = configAlias;
             this.propertiesFilePath = propertiesFilePath;
-
-            loadProperties();
+            long loadStart = System.nanoTime();
+            this.properties = ConfigValueTable.of(loadProperties());
+            LOAD_TIMER.recordSince(loadStart);
+            event.keyCount = properties.size();
+            event.succeeded = true;
         } catch (Exception error) {
             ErrorHandler.logError(
                     error,
                     "Constructor",
                     "Failed to initialize properties from file");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to initialize properties from file", error);
+        } finally {
+            event.commit();
         }
     }
 
+    /**
+     * Loads a properties file into the cache under the given alias.
+     * The file is parsed outside the cache lock so concurrent loads of different aliases never
+     * wait on each other; if two threads race on the same alias the first parsed copy wins.
+     *
+     * @param configAlias        Alias to register the configuration under
+     * @param propertiesFilePath Path to the properties file
+     */
     public static void loadConfiguration(String configAlias, String propertiesFilePath) {
-        propertyConfigurationCache.computeIfAbsent(configAlias, key -> {
-            try {
+        if (propertyConfigurationCache.containsKey(configAlias)) {
+            return;
+        }
+        try {
+            PropertiesConfigManager loadedConfig = createValidated(configAlias, propertiesFilePath);
+            if (propertyConfigurationCache.putIfAbsent(configAlias, loadedConfig) == null) {
+                syncFileAliasView(configAlias);
                 logger.info("Property configuration with alias '{}' loaded successfully.", configAlias);
-                return new PropertiesConfigManager(propertiesFilePath);
-            } catch (Exception error) {
-                ErrorHandler.logError(error, "loadConfiguration",
-                        "Failed to load config file");
-                throw new RuntimeException(error);
             }
-        });
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "loadConfiguration",
+                    "Failed to load config file");
+            throw ConfigException.wrap("Failed to load config file", error);
+        }
     }
 
-    public String getProperty(String propertyKey) {
-        try {
-            String systemValue = System.getProperty(propertyKey);
-            if (systemValue != null) {
-                logger.info("Using system property for '{}': '{}'", propertyKey, systemValue);
-                return systemValue;
-            }
-
-            String value = properties.getProperty(propertyKey);
+    /**
+     * Reads a typed key through its precomputed key ID.
+     *
+     * @param key Typed property key
+     * @return The converted value
+     * @throws RuntimeException if the key is missing or empty, or its value cannot be converted
+     */
+    public <T> T get(ConfigKey<T> key) {
+        String value = lookupOverride(key.getName());
+        LookupOutcome outcome = LookupOutcome.OVERRIDE;
+        if (value == null) {
+            value = properties.get(key.getId());
             if (value == null || value.isEmpty()) {
-                logger.warn("Property '{}' not found or empty in properties file", propertyKey);
-                throw new IllegalArgumentException("Property '" + propertyKey + "' not found or empty in properties file");
+                throw missingProperty(key.getName());
             }
+            outcome = LookupOutcome.HIT;
+        }
+        // The outcome is only known once the value has converted, so each lookup is counted exactly once
+        T converted;
+        try {
+            converted = key.convert(value);
+        } catch (IllegalArgumentException error) {
+            ConfigLookupStatistics.record(configAlias, key.getName(), LookupOutcome.CONVERSION_FAILURE);
+            throw error;
+        }
+        ConfigLookupStatistics.record(configAlias, key.getName(), outcome);
+        return converted;
+    }
+
+    /**
+     * Reads a typed key from one of the framework's properties files.
+     *
+     * @param fileAlias Loaded properties file
+     * @param key       Typed property key
+     * @return The converted value
+     */
+    public static <T> T get(ConfigFileAlias fileAlias, ConfigKey<T> key) {
+        return getConfiguration(fileAlias).get(key);
+    }
+
+    public String getProperty(String propertyKey) {
+        String overrideValue = resolveOverride(propertyKey);
+        if (overrideValue != null) {
+            return overrideValue;
+        }
+
+        // Required keys were checked against the alias schema at load time, so the miss branch is cold
+        String value = properties.get(propertyKey);
+        if (value != null && !value.isEmpty()) {
+            ConfigLookupStatistics.record(configAlias, propertyKey, LookupOutcome.HIT);
             return value;
-        } catch (Exception error) {
-            ErrorHandler.logError(error, "getProperty",
-                    "Failed to retrieve property");
-            throw new RuntimeException(error);
         }
+        throw missingProperty(propertyKey);
     }
 
     public String getProperty(String propertyKey, String defaultValue) {
         try {
-            String systemValue = System.getProperty(propertyKey);
-            if (systemValue != null) {
-                logger.info("Retrieved system property for '{}': '{}'", propertyKey, systemValue);
-                return systemValue;
+            String overrideValue = resolveOverride(propertyKey);
+            if (overrideValue != null) {
+                return overrideValue;
             }
 
-            String value = properties.getProperty(propertyKey, defaultValue);
-            if (value.equals(defaultValue)) {
+            String value = properties.get(propertyKey);
+            if (value == null) {
+                ConfigLookupStatistics.record(configAlias, propertyKey, LookupOutcome.DEFAULT);
                 logger.warn("Property '{}' not found, using default: '{}'", propertyKey, defaultValue);
-            } else {
-                logger.info("Property retrieved successfully");
+                return defaultValue;
             }
+            ConfigLookupStatistics.record(configAlias, propertyKey, LookupOutcome.HIT);
+            logger.debug("Property '{}' retrieved successfully", propertyKey);
             return value;
         } catch (Exception error) {
             ErrorHandler.logError(error, "getProperty",
                     "Failed to retrieve property");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to retrieve property", error);
         }
     }
 
@@ -114,23 +188,59 @@ public class PropertiesConfigManager {
         }
     }
 
+    /**
+     * Looks up one of the framework's properties files without hashing its alias string.
+     *
+     * @param fileAlias Loaded properties file
+     * @return The loaded configuration
+     * @throws IllegalStateException if the file has not been loaded
+     */
+    public static PropertiesConfigManager getConfiguration(ConfigFileAlias fileAlias) {
+        PropertiesConfigManager config = configurationsByFileAlias.get(fileAlias);
+        return config != null ? config : getConfiguration(fileAlias.getAlias());
+    }
+
     public static String getPropertyKeyFromCache(String aliasName, String propertyKey){
         try{
             return getConfiguration(aliasName).getProperty(propertyKey);
         } catch (Exception error){
             ErrorHandler.logError(error, "getCachedPropertyKey", "Failed to retrieve cached property key");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to retrieve cached property key", error);
         }
     }
 
-    private void loadProperties() throws IOException {
+    private Map<String, String> loadProperties() throws IOException {
         if (!Files.exists(Path.of(propertiesFilePath))) {
             logger.error("Properties file not found: '{}'", propertiesFilePath);
             throw new FileNotFoundException("Properties file not found: " + propertiesFilePath);
         }
 
-        try (FileInputStream inputStream = new FileInputStream(propertiesFilePath)) {
-            properties.load(inputStream);
+        // Everything below is keyed by this one read, so a concurrent rewrite cannot mix old values with new content
+        Path sourceFile = Path.of(propertiesFilePath);
+        byte[] content = Files.readAllBytes(sourceFile);
+
+        // Another fork of this build may already have parsed the file
+        Optional<Map<String, String>> sharedValues =
+                SharedConfigCache.lookupFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile, content);
+        if (sharedValues.isPresent()) {
+            return sharedValues.get();
+        }
+
+        // Prefer the index compiled at build time; fall back to the text file when it is missing or stale
+        Optional<Map<String, String>> indexedValues = PropertiesIndex.readIfFresh(PropertiesIndex.indexPathFor(sourceFile), content);
+        if (indexedValues.isPresent()) {
+            logger.debug("Properties for '{}' loaded from compiled index", configAlias);
+            SharedConfigCache.publishFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile, content, indexedValues.get());
+            return indexedValues.get();
+        }
+
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            Properties fileProperties = new Properties();
+            fileProperties.load(inputStream);
+            Map<String, String> values = new LinkedHashMap<>();
+            fileProperties.stringPropertyNames().forEach(key -> values.put(key, fileProperties.getProperty(key)));
+            SharedConfigCache.publishFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile, content, values);
+            return values;
         } catch (IOException error) {
             ErrorHandler.logError(error, "loadProperties",
                     "Failed to load properties file");
@@ -146,19 +256,25 @@ public class PropertiesConfigManager {
      */
     public <ConversionType> Optional<ConversionType> getProperty(String propertyKey, Class<ConversionType> type) {
         try {
-            // Check system properties first
-            String systemValue = System.getProperty(propertyKey);
-            String value = systemValue != null ? systemValue : properties.getProperty(propertyKey);
-
-            if (value == null || value.isEmpty()) {
-                logger.warn("Property '{}' not found in properties file", propertyKey);
-                return Optional.empty();
+            // Check thread overlays and system properties first
+            String value = lookupOverride(propertyKey);
+            LookupOutcome outcome = LookupOutcome.OVERRIDE;
+            if (value == null) {
+                value = properties.get(propertyKey);
+                if (value == null || value.isEmpty()) {
+                    ConfigLookupStatistics.record(configAlias, propertyKey, LookupOutcome.MISS);
+                    logger.warn("Property '{}' not found in properties file", propertyKey);
+                    return Optional.empty();
+                }
+                outcome = LookupOutcome.HIT;
             }
 
-            // Type conversion
+            // Type conversion; a value that fails to convert is counted as a conversion failure only
             ConversionType result = getConversionType(type, value);
+            ConfigLookupStatistics.record(configAlias, propertyKey, outcome);
             return Optional.of(result);
         } catch (Exception error) {
+            ConfigLookupStatistics.record(configAlias, propertyKey, LookupOutcome.CONVERSION_FAILURE);
             ErrorHandler.logError(error, "getProperty", "Failed to retrieve or convert property");
             return Optional.empty();
         }
@@ -180,7 +296,7 @@ public class PropertiesConfigManager {
             return result;
         } catch (Exception error) {
             ErrorHandler.logError(error, "getT", "Failed to convert property");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to convert property", error);
         }
     }
 
@@ -194,7 +310,7 @@ public class PropertiesConfigManager {
             return propertyConfigurationCache.containsKey(configAlias);
         } catch (Exception error) {
             ErrorHandler.logError(error, "isConfigurationLoaded", "Failed to check if configuration is loaded");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to check if configuration is loaded", error);
         }
     }
 
@@ -210,12 +326,13 @@ public class PropertiesConfigManager {
                 throw new IllegalStateException("Configuration '" + configAlias + "' not found. Load it first.");
             }
 
-            // Remove and reload
-            propertyConfigurationCache.remove(configAlias);
-            loadConfiguration(configAlias, existingConfig.propertiesFilePath);
+            // Swap in the new copy only once it is loaded, so readers never see the alias missing
+            propertyConfigurationCache.put(configAlias, createValidated(configAlias, existingConfig.propertiesFilePath));
+            syncFileAliasView(configAlias);
+            logger.info("Property configuration with alias '{}' reloaded successfully.", configAlias);
         } catch (Exception error) {
             ErrorHandler.logError(error, "reloadConfiguration", "Failed to reload configuration");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to reload configuration", error);
         }
     }
 
@@ -228,8 +345,68 @@ public class PropertiesConfigManager {
             return Collections.unmodifiableSet(propertyConfigurationCache.keySet());
         } catch (Exception error) {
             ErrorHandler.logError(error, "getLoadedConfigurationAliases", "Failed to retrieve loaded configuration aliases");
-            throw new RuntimeException(error);
+            throw ConfigException.wrap("Failed to retrieve loaded configuration aliases", error);
+        }
+    }
+
+    private static PropertiesConfigManager createValidated(String configAlias, String propertiesFilePath) {
+        PropertiesConfigManager config = new PropertiesConfigManager(configAlias, propertiesFilePath);
+        ConfigSchemaRegistry.validate(configAlias, config.properties::get);
+        return config;
+    }
+
+    /**
+     * Copies the cached configuration of a framework alias into the enum view.
+     * Always reads the cache under the lock, so racing loads and reloads cannot leave a stale copy behind.
+     */
+    private static synchronized void syncFileAliasView(String configAlias) {
+        ConfigFileAlias.fromAlias(configAlias).ifPresent(fileAlias -> {
+            Map<ConfigFileAlias, PropertiesConfigManager> updated = new EnumMap<>(configurationsByFileAlias);
+            PropertiesConfigManager config = propertyConfigurationCache.get(configAlias);
+            if (config == null) {
+                updated.remove(fileAlias);
+            } else {
+                updated.put(fileAlias, config);
+            }
+            configurationsByFileAlias = updated;
+        });
+    }
+
+    private ConfigException missingProperty(String propertyKey) {
+        ConfigLookupStatistics.record(configAlias, propertyKey, LookupOutcome.MISS);
+        // Misses are routinely caught by callers that fall back or retry, so skip the stack walk
+        ConfigException error = ConfigException.stackless(
+                "Property '" + propertyKey + "' not found or empty in configuration '" + configAlias + "'");
+        ErrorHandler.logError(error, "getProperty",
+                "Failed to retrieve property");
+        return error;
+    }
+
+    /**
+     * Resolves a value that shadows the file: a thread overlay first, then a system property.
+     *
+     * @return The overriding value, or null when the key is not overridden
+     */
+    private String resolveOverride(String propertyKey) {
+        String value = lookupOverride(propertyKey);
+        if (value != null) {
+            ConfigLookupStatistics.record(configAlias, propertyKey, LookupOutcome.OVERRIDE);
+        }
+        return value;
+    }
+
+    /**
+     * Same as {@link #resolveOverride} without counting the lookup, for callers that count it once converted.
+     */
+    private String lookupOverride(String propertyKey) {
+        String value = ConfigurationOverlay.lookup(propertyKey);
+        if (value == null) {
+            value = System.getProperty(propertyKey);
+        }
+        if (value != null) {
+            logger.debug("Using override for property '{}'", propertyKey);
         }
+        return value;
     }
 
     private void validateFilePath(String filePath) {
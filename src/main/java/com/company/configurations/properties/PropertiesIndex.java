@@ -0,0 +1,172 @@
+package com.company.configurations.properties;
+
+import com.company.core.FileManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary form of a {@code .properties} file, produced at build time by {@link PropertiesIndexCompiler}.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int    magic ("CFGI")
+ * short  format version
+ * byte[32] SHA-256 of the source file content
+ * int    entry count
+ * entry* short key length, key bytes (UTF-8), int value length, value bytes (UTF-8)
+ * long   CRC32 of every preceding byte
+ * </pre>
+ * An index is only used while the recorded hash still matches the content of its source; otherwise callers fall back
+ * to parsing the text file. Indexes are laid out like their sources, so files of the same name in different directories
+ * each keep their own index.
+ */
+public final class PropertiesIndex {
+
+    public static final String DEFAULT_SOURCE_DIRECTORY = "src/main/resources/properties";
+    public static final String DEFAULT_INDEX_DIRECTORY = "target/config-index";
+    public static final String INDEX_EXTENSION = ".idx";
+
+    private static final int MAGIC = 0x43464749;
+    private static final short FORMAT_VERSION = 2;
+    private static final int SOURCE_HASH_SIZE = 32;
+    private static final int CHECKSUM_SIZE = Long.BYTES;
+
+    private PropertiesIndex() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @return Where the index for the given properties file lives in the default index directory
+     */
+    public static Path indexPathFor(Path sourceFile) {
+        return indexPathFor(Path.of(DEFAULT_SOURCE_DIRECTORY), Path.of(DEFAULT_INDEX_DIRECTORY), sourceFile);
+    }
+
+    /**
+     * Keys the index by the path of its source relative to the source directory. A source outside that directory is
+     * keyed by its absolute path instead, so it can never share an index with another file.
+     *
+     * @param sourceDirectory Root the compiled properties files live under
+     * @param indexDirectory  Root the indexes are written to
+     * @param sourceFile      Properties file to locate the index for
+     * @return Where the index for the given properties file lives
+     */
+    public static Path indexPathFor(Path sourceDirectory, Path indexDirectory, Path sourceFile) {
+        Path source = sourceFile.toAbsolutePath().normalize();
+        Path relative = sourceDirectory.toAbsolutePath().normalize().relativize(source);
+        if (relative.startsWith("..")) {
+            relative = source.getRoot().relativize(source);
+        }
+        return indexDirectory.resolve(relative + INDEX_EXTENSION);
+    }
+
+    /**
+     * Writes an index for the given source file.
+     *
+     * @param indexFile     Destination index file
+     * @param sourceContent Content of the properties file the values were parsed from
+     * @param values        Parsed key/value pairs
+     * @throws IOException If the index cannot be written
+     */
+    public static void write(Path indexFile, byte[] sourceContent, Map<String, String> values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeShort(FORMAT_VERSION);
+            output.write(FileManager.contentHash(sourceContent));
+            output.writeInt(values.size());
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                byte[] value = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                if (key.length > Short.MAX_VALUE) {
+                    throw new IOException("Property key too long to index: " + entry.getKey().substring(0, 64) + "...");
+                }
+                output.writeShort(key.length);
+                output.write(key);
+                output.writeInt(value.length);
+                output.write(value);
+            }
+
+            CRC32 checksum = new CRC32();
+            checksum.update(bytes.toByteArray());
+            output.writeLong(checksum.getValue());
+        }
+
+        if (indexFile.getParent() != null) {
+            Files.createDirectories(indexFile.getParent());
+        }
+        Files.write(indexFile, bytes.toByteArray());
+    }
+
+    /**
+     * Reads the index for a properties file with a single memory-mapped read, if it is present and up to date.
+     *
+     * @param indexFile     Index file to read
+     * @param sourceContent Current content of the properties file the index was built from
+     * @return The indexed values, or empty when the index is missing, stale or corrupt
+     * @throws IOException If the index cannot be read
+     */
+    public static Optional<Map<String, String>> readIfFresh(Path indexFile, byte[] sourceContent) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < CHECKSUM_SIZE || size > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.slice(0, (int) size - CHECKSUM_SIZE));
+            if (checksum.getValue() != buffer.getLong((int) size - CHECKSUM_SIZE)) {
+                return Optional.empty();
+            }
+
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            byte[] sourceHash = new byte[SOURCE_HASH_SIZE];
+            buffer.get(sourceHash);
+            if (!Arrays.equals(sourceHash, FileManager.contentHash(sourceContent))) {
+                return Optional.empty();
+            }
+
+            int entryCount = buffer.getInt();
+            Map<String, String> values = new LinkedHashMap<>(entryCount * 2);
+            for (int index = 0; index < entryCount; index++) {
+                String key = readString(buffer, buffer.getShort());
+                String value = readString(buffer, buffer.getInt());
+                values.put(key, value);
+            }
+            return Optional.of(values);
+        } catch (BufferUnderflowException | IllegalArgumentException error) {
+            return Optional.empty();
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length in properties index");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
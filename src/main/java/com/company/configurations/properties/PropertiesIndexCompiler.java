@@ -0,0 +1,122 @@
+package com.company.configurations.properties;
+
+import com.company.configurations.validation.ConfigSchema;
+import com.company.configurations.validation.ConfigSchemaRegistry;
+import com.company.configurations.validation.ConfigViolation;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Build step that compiles every {@code .properties} file under a directory into a {@link PropertiesIndex}.
+ * <p>
+ * Files that belong to a known {@link ConfigFileAlias} are validated against the alias schema, so a missing or
+ * malformed key fails the build instead of a test run. Keys a schema does not declare are reported as likely typos.
+ * Runs in its own JVM from the {@code process-classes} phase of the Maven build:
+ * <pre>
+ * java com.company.configurations.properties.PropertiesIndexCompiler &lt;source dir&gt; &lt;index dir&gt;
+ * </pre>
+ */
+public final class PropertiesIndexCompiler {
+
+    private static final Logger logger = LoggerUtils.getLogger(PropertiesIndexCompiler.class);
+
+    private PropertiesIndexCompiler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: PropertiesIndexCompiler <source directory> <index directory>");
+        }
+        Path sourceDirectory = Path.of(args[0]);
+        Path indexDirectory = Path.of(args[1]);
+
+        List<ConfigViolation> violations = compile(sourceDirectory, indexDirectory);
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> logger.error("Configuration schema violation: {}", violation));
+            throw new IllegalStateException(violations.size() + " configuration schema violation(s) found in " + sourceDirectory);
+        }
+    }
+
+    /**
+     * Compiles every properties file under the source directory, keeping its relative path in the index directory.
+     *
+     * @return All schema violations found; indexes are only written for valid files
+     */
+    public static List<ConfigViolation> compile(Path sourceDirectory, Path indexDirectory) throws IOException {
+        List<ConfigViolation> violations = new ArrayList<>();
+        if (!Files.isDirectory(sourceDirectory)) {
+            logger.info("No properties directory at {}, nothing to compile", sourceDirectory);
+            return violations;
+        }
+
+        List<Path> sourceFiles;
+        try (Stream<Path> files = Files.walk(sourceDirectory)) {
+            sourceFiles = files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(".properties"))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path sourceFile : sourceFiles) {
+            Path relativePath = sourceDirectory.relativize(sourceFile);
+            byte[] content = Files.readAllBytes(sourceFile);
+            Map<String, String> values = load(content);
+            List<ConfigViolation> fileViolations = validate(relativePath, values);
+            violations.addAll(fileViolations);
+
+            if (fileViolations.isEmpty()) {
+                Path indexFile = PropertiesIndex.indexPathFor(sourceDirectory, indexDirectory, sourceFile);
+                PropertiesIndex.write(indexFile, content, values);
+                logger.info("{} -> {} ({} keys)", relativePath, indexFile, values.size());
+            }
+        }
+        return violations;
+    }
+
+    private static Map<String, String> load(byte[] content) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            properties.load(inputStream);
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        properties.stringPropertyNames().stream().sorted().forEach(key -> values.put(key, properties.getProperty(key)));
+        return values;
+    }
+
+    private static List<ConfigViolation> validate(Path relativePath, Map<String, String> values) {
+        Optional<ConfigFileAlias> alias = Arrays.stream(ConfigFileAlias.values())
+                .filter(candidate -> Path.of(candidate.getConfigFilePath().getFileName()).equals(relativePath))
+                .findFirst();
+        if (alias.isEmpty()) {
+            return List.of();
+        }
+
+        Optional<ConfigSchema> schema = ConfigSchemaRegistry.getSchema(alias.get().getAlias());
+        if (schema.isEmpty()) {
+            return List.of();
+        }
+
+        values.keySet().stream()
+                .filter(key -> !schema.get().getDeclaredKeys().contains(key))
+                .forEach(key -> logger.warn("{}: key '{}' is not declared in the schema for {}",
+                        relativePath, key, alias.get().getAlias()));
+
+        // Environment-specific rules depend on the run, not the build, so only unconditional rules are checked here
+        return schema.get().validate(alias.get().getAlias(), null, values::get);
+    }
+}
@@ -0,0 +1,21 @@
+package com.company.configurations.properties;
+
+import com.company.configurations.keys.ConfigKey;
+
+/**
+ * Typed keys of the framework properties files.
+ */
+public final class PropertyKeys {
+
+    // global-config.properties
+    public static final ConfigKey<String> PROJECT_NAME = ConfigKey.ofString("PROJECT_NAME");
+    public static final ConfigKey<String> REPORT_NAME = ConfigKey.ofString("REPORT_NAME");
+
+    // config-<environment>.properties
+    public static final ConfigKey<String> PORTAL_BASE_URL = ConfigKey.ofString("PORTAL_BASE_URL");
+    public static final ConfigKey<String> API_BASE_URL = ConfigKey.ofString("API_BASE_URL");
+
+    private PropertyKeys() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+}
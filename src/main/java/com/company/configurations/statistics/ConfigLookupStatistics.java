@@ -0,0 +1,214 @@
+package com.company.configurations.statistics;
+
+import com.company.core.ConfigException;
+import com.company.core.ErrorHandler;
+import com.company.utils.JsonUtils;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-alias, per-key counters for configuration lookups.
+ * <p>
+ * Counters are striped {@link LongAdder}s, so recording from many test threads does not contend on a single
+ * cache line. The counters are exposed over JMX and can be dumped as JSON at the end of a suite to find keys
+ * worth pre-resolving and keys that are never read.
+ */
+public final class ConfigLookupStatistics implements ConfigLookupStatisticsMBean {
+
+    private static final Logger logger = LoggerUtils.getLogger(ConfigLookupStatistics.class);
+
+    private static final String OBJECT_NAME = "com.company.configurations:type=ConfigLookupStatistics";
+    private static final int HOT_KEY_LIMIT = 20;
+    private static final LookupOutcome[] OUTCOMES = LookupOutcome.values();
+
+    private static final ConfigLookupStatistics INSTANCE = new ConfigLookupStatistics();
+
+    static {
+        registerMBean();
+    }
+
+    private final Map<String, Map<String, KeyCounters>> countersByAlias = new ConcurrentHashMap<>();
+
+    private static final class KeyCounters {
+
+        private final LongAdder[] adders = new LongAdder[OUTCOMES.length];
+
+        private KeyCounters() {
+            for (int index = 0; index < adders.length; index++) {
+                adders[index] = new LongAdder();
+            }
+        }
+
+        private long get(LookupOutcome outcome) {
+            return adders[outcome.ordinal()].sum();
+        }
+
+        private long total() {
+            long total = 0;
+            for (LongAdder adder : adders) {
+                total += adder.sum();
+            }
+            return total;
+        }
+    }
+
+    private ConfigLookupStatistics() {
+    }
+
+    public static ConfigLookupStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the outcome of a single lookup.
+     *
+     * @param alias   Alias of the configuration that was read
+     * @param key     Key that was read
+     * @param outcome How the lookup was resolved
+     */
+    public static void record(String alias, String key, LookupOutcome outcome) {
+        // Plain reads first so the steady state never takes a bin lock
+        Map<String, KeyCounters> counters = INSTANCE.countersByAlias.get(alias);
+        if (counters == null) {
+            counters = INSTANCE.countersByAlias.computeIfAbsent(alias, ignored -> new ConcurrentHashMap<>());
+        }
+        KeyCounters keyCounters = counters.get(key);
+        if (keyCounters == null) {
+            keyCounters = counters.computeIfAbsent(key, ignored -> new KeyCounters());
+        }
+        keyCounters.adders[outcome.ordinal()].increment();
+    }
+
+    /**
+     * Writes the current counters as JSON.
+     *
+     * @param reportFile Destination file; parent directories are created as needed
+     */
+    public static void writeJsonReport(Path reportFile) {
+        try {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            Files.writeString(reportFile, INSTANCE.toJson());
+            logger.info("Configuration lookup statistics written to '{}'", reportFile);
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "writeJsonReport", "Failed to write configuration lookup statistics");
+            throw ConfigException.wrap("Failed to write configuration lookup statistics", error);
+        }
+    }
+
+    @Override
+    public long getTotalLookups() {
+        return sumAll(null);
+    }
+
+    @Override
+    public long getHits() {
+        return sumAll(LookupOutcome.HIT);
+    }
+
+    @Override
+    public long getMisses() {
+        return sumAll(LookupOutcome.MISS);
+    }
+
+    @Override
+    public long getDefaults() {
+        return sumAll(LookupOutcome.DEFAULT);
+    }
+
+    @Override
+    public long getOverrides() {
+        return sumAll(LookupOutcome.OVERRIDE);
+    }
+
+    @Override
+    public long getConversionFailures() {
+        return sumAll(LookupOutcome.CONVERSION_FAILURE);
+    }
+
+    @Override
+    public String[] getHotKeys() {
+        List<Map.Entry<String, Long>> totals = new ArrayList<>();
+        countersByAlias.forEach((alias, counters) -> counters.forEach((key, keyCounters) ->
+                totals.add(Map.entry(alias + "/" + key, keyCounters.total()))));
+        return totals.stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(HOT_KEY_LIMIT)
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public String toJson() {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("lookups", getTotalLookups());
+        for (LookupOutcome outcome : OUTCOMES) {
+            totals.put(outcome.name().toLowerCase(), sumAll(outcome));
+        }
+
+        Map<String, Object> aliases = new TreeMap<>();
+        countersByAlias.forEach((alias, counters) -> {
+            Map<String, Object> keys = new TreeMap<>();
+            counters.forEach((key, keyCounters) -> {
+                Map<String, Object> keyStatistics = new LinkedHashMap<>();
+                keyStatistics.put("lookups", keyCounters.total());
+                for (LookupOutcome outcome : OUTCOMES) {
+                    keyStatistics.put(outcome.name().toLowerCase(), keyCounters.get(outcome));
+                }
+                keys.put(key, keyStatistics);
+            });
+            aliases.put(alias, keys);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totals", totals);
+        report.put("hotKeys", List.of(getHotKeys()));
+        report.put("aliases", aliases);
+        return JsonUtils.toJson(report);
+    }
+
+    @Override
+    public void reset() {
+        countersByAlias.clear();
+    }
+
+    private long sumAll(LookupOutcome outcome) {
+        long sum = 0;
+        for (Map<String, KeyCounters> counters : countersByAlias.values()) {
+            for (KeyCounters keyCounters : counters.values()) {
+                sum += outcome == null ? keyCounters.total() : keyCounters.get(outcome);
+            }
+        }
+        return sum;
+    }
+
+    private static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException error) {
+            // Statistics still work without JMX; only the remote view is lost
+            logger.warn("Failed to register configuration lookup statistics MBean: {}", error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.company.configurations.statistics;
+
+/**
+ * JMX view of {@link ConfigLookupStatistics}, registered as
+ * {@code com.company.configurations:type=ConfigLookupStatistics}.
+ */
+public interface ConfigLookupStatisticsMBean {
+
+    long getTotalLookups();
+
+    long getHits();
+
+    long getMisses();
+
+    long getDefaults();
+
+    long getOverrides();
+
+    long getConversionFailures();
+
+    /**
+     * @return The most frequently read keys formatted as {@code alias/key=count}, most read first
+     */
+    String[] getHotKeys();
+
+    /**
+     * @return Per-alias, per-key counters rendered as JSON
+     */
+    String toJson();
+
+    void reset();
+}
@@ -0,0 +1,18 @@
+package com.company.configurations.statistics;
+
+/**
+ * How a configuration lookup was resolved.
+ */
+public enum LookupOutcome {
+
+    /** Value was found in the loaded file. */
+    HIT,
+    /** Key was not found and no default was supplied. */
+    MISS,
+    /** Key was not found and the caller's default was returned. */
+    DEFAULT,
+    /** Value came from a thread overlay, system property or process environment variable, shadowing the file. */
+    OVERRIDE,
+    /** Value was found but could not be converted to the requested type. */
+    CONVERSION_FAILURE
+}
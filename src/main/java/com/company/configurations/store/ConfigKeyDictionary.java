@@ -0,0 +1,86 @@
+package com.company.configurations.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary that assigns every configuration key a small, stable integer ID.
+ * <p>
+ * The dictionary is shared by every loaded properties and environment file, so a key such as {@code PORTAL_BASE_URL}
+ * is stored once no matter how many environments a matrix run loads. Per-file values live in
+ * {@link ConfigValueTable}s keyed by these IDs. IDs are never reused or removed.
+ */
+public final class ConfigKeyDictionary {
+
+    /**
+     * Returned by {@link #lookupId(String)} for keys that have never been registered.
+     */
+    public static final int UNKNOWN_KEY = -1;
+
+    private static final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private static volatile String[] keysById = new String[64];
+    private static int size;
+
+    private ConfigKeyDictionary() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the ID of the key, registering it on first use.
+     *
+     * @param key Configuration key
+     * @return The key ID
+     */
+    public static int idOf(String key) {
+        Integer id = idsByKey.get(key);
+        return id != null ? id : register(key);
+    }
+
+    /**
+     * Returns the ID of the key without registering it.
+     *
+     * @param key Configuration key
+     * @return The key ID, or {@link #UNKNOWN_KEY} when no file has defined the key
+     */
+    public static int lookupId(String key) {
+        Integer id = idsByKey.get(key);
+        return id != null ? id : UNKNOWN_KEY;
+    }
+
+    /**
+     * @return The key registered under the ID
+     */
+    public static String keyOf(int id) {
+        String[] keys = keysById;
+        if (id < 0 || id >= keys.length || keys[id] == null) {
+            throw new IllegalArgumentException("Unknown configuration key ID: " + id);
+        }
+        return keys[id];
+    }
+
+    /**
+     * @return The number of registered keys; every ID is below this value
+     */
+    public static synchronized int size() {
+        return size;
+    }
+
+    private static synchronized int register(String key) {
+        Integer existing = idsByKey.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        String[] keys = keysById;
+        if (id == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[id] = key.intern();
+        keysById = keys;
+        size = id + 1;
+        // Publish the ID only after the reverse mapping is visible
+        idsByKey.put(keys[id], id);
+        return id;
+    }
+}
@@ -0,0 +1,144 @@
+package com.company.configurations.store;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable values of one configuration file, looked up by {@link ConfigKeyDictionary} key ID.
+ * <p>
+ * A table holds only the keys its file defines, sorted by ID and found by binary search, so its size does not grow
+ * with the number of keys other files have registered. Tables built with {@link #of(Map)} intern their values in a
+ * process-wide weak pool, so environments that share a value share a single instance while any of them is loaded.
+ * Tables built with {@link #ofUnpooled(Map)} keep their values to themselves, for values such as secrets and
+ * ciphertexts that must not outlive their file or be shared with other loads.
+ *
+ * @param <V> Value type; must implement {@code equals} and {@code hashCode} by value
+ */
+public final class ConfigValueTable<V> {
+
+    // Weak keys and values, so a value leaves the pool once no loaded table holds it
+    private static final Map<Object, WeakReference<Object>> valuePool = new WeakHashMap<>();
+
+    private final int[] sortedKeyIds;
+    private final Object[] sortedValues;
+    private final int[] fileOrder;
+
+    private ConfigValueTable(int[] sortedKeyIds, Object[] sortedValues, int[] fileOrder) {
+        this.sortedKeyIds = sortedKeyIds;
+        this.sortedValues = sortedValues;
+        this.fileOrder = fileOrder;
+    }
+
+    /**
+     * Builds a table from parsed file values, sharing values equal to those of other loaded tables.
+     *
+     * @param source Key/value pairs of the file
+     * @return The table
+     */
+    public static <V> ConfigValueTable<V> of(Map<String, ? extends V> source) {
+        return build(source, true);
+    }
+
+    /**
+     * Builds a table from parsed file values without adding them to the shared pool.
+     *
+     * @param source Key/value pairs of the file
+     * @return The table
+     */
+    public static <V> ConfigValueTable<V> ofUnpooled(Map<String, ? extends V> source) {
+        return build(source, false);
+    }
+
+    private static <V> ConfigValueTable<V> build(Map<String, ? extends V> source, boolean pooled) {
+        int size = source.size();
+        long[] idAndPosition = new long[size];
+        Object[] valuesInFileOrder = new Object[size];
+        int position = 0;
+        for (Map.Entry<String, ? extends V> entry : source.entrySet()) {
+            idAndPosition[position] = ((long) ConfigKeyDictionary.idOf(entry.getKey()) << 32) | position;
+            valuesInFileOrder[position] = pooled ? intern(entry.getValue()) : entry.getValue();
+            position++;
+        }
+        // Key IDs are non-negative, so sorting the packed longs sorts by ID
+        Arrays.sort(idAndPosition);
+
+        int[] sortedKeyIds = new int[size];
+        Object[] sortedValues = new Object[size];
+        int[] fileOrder = new int[size];
+        for (int index = 0; index < size; index++) {
+            int filePosition = (int) idAndPosition[index];
+            sortedKeyIds[index] = (int) (idAndPosition[index] >>> 32);
+            sortedValues[index] = valuesInFileOrder[filePosition];
+            fileOrder[filePosition] = index;
+        }
+        return new ConfigValueTable<>(sortedKeyIds, sortedValues, fileOrder);
+    }
+
+    /**
+     * @return The value for the key, or null when this file does not define it
+     */
+    public V get(String key) {
+        return get(ConfigKeyDictionary.lookupId(key));
+    }
+
+    /**
+     * @return The value for the key ID, or null when this file does not define it
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int keyId) {
+        if (keyId < 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(sortedKeyIds, keyId);
+        return index >= 0 ? (V) sortedValues[index] : null;
+    }
+
+    /**
+     * @return The number of keys this file defines
+     */
+    public int size() {
+        return sortedKeyIds.length;
+    }
+
+    /**
+     * @return The keys this file defines, in file order
+     */
+    public List<String> keys() {
+        List<String> keys = new ArrayList<>(fileOrder.length);
+        for (int index : fileOrder) {
+            keys.add(ConfigKeyDictionary.keyOf(sortedKeyIds[index]));
+        }
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * Visits every key this file defines, in file order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<String, ? super V> action) {
+        for (int index : fileOrder) {
+            action.accept(ConfigKeyDictionary.keyOf(sortedKeyIds[index]), (V) sortedValues[index]);
+        }
+    }
+
+    private static Object intern(Object value) {
+        if (value == null) {
+            return null;
+        }
+        synchronized (valuePool) {
+            WeakReference<Object> reference = valuePool.get(value);
+            Object pooled = reference != null ? reference.get() : null;
+            if (pooled != null) {
+                return pooled;
+            }
+            valuePool.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+}
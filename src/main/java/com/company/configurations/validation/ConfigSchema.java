@@ -0,0 +1,202 @@
+package com.company.configurations.validation;
+
+import com.company.configurations.environments.EnvironmentType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Declarative description of the keys a configuration alias must or may contain.
+ * <p>
+ * A schema is compiled once, when it is built, into a flat list of validators with patterns precompiled and
+ * ranges parsed. Running it against a loaded configuration collects every violation instead of stopping at the first.
+ *
+ * <pre>{@code
+ * ConfigSchema.builder()
+ *         .required("PORTAL_BASE_URL", ValueType.URL)
+ *         .optional("TIMEOUT_SECONDS", ValueType.INTEGER, rule -> rule.range(1, 300))
+ *         .requiredFor(EnvironmentType.UAT, "UAT_SECRET_KEY", ValueType.BASE64)
+ *         .build();
+ * }</pre>
+ */
+public final class ConfigSchema {
+
+    /**
+     * A compiled check for a single key.
+     */
+    @FunctionalInterface
+    private interface KeyValidator {
+        void validate(String alias, EnvironmentType activeEnvironment, Function<String, String> lookup,
+                      List<ConfigViolation> violations);
+    }
+
+    private final List<KeyValidator> validators;
+    private final Set<String> declaredKeys;
+
+    private ConfigSchema(List<KeyValidator> validators, Set<String> declaredKeys) {
+        this.validators = List.copyOf(validators);
+        this.declaredKeys = Set.copyOf(declaredKeys);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Every key the schema declares, required or optional
+     */
+    public Set<String> getDeclaredKeys() {
+        return declaredKeys;
+    }
+
+    /**
+     * Runs every compiled validator.
+     *
+     * @param alias             Alias of the configuration being validated, used in violation messages
+     * @param activeEnvironment Environment the run targets, or null when unknown; environment-specific rules only apply when it matches
+     * @param lookup            Resolves a key to its loaded value, or null when absent
+     * @return All violations found, empty when the configuration is valid
+     */
+    public List<ConfigViolation> validate(String alias, EnvironmentType activeEnvironment, Function<String, String> lookup) {
+        List<ConfigViolation> violations = new ArrayList<>();
+        for (KeyValidator validator : validators) {
+            validator.validate(alias, activeEnvironment, lookup, violations);
+        }
+        return violations;
+    }
+
+    /**
+     * Constraints for a single key beyond presence and type.
+     */
+    public static final class Rule {
+
+        private Double minimum;
+        private Double maximum;
+        private Pattern pattern;
+
+        private Rule() {
+        }
+
+        /**
+         * Requires a numeric value within the inclusive range.
+         */
+        public Rule range(double minimum, double maximum) {
+            if (minimum > maximum) {
+                throw new IllegalArgumentException("Range minimum cannot exceed maximum");
+            }
+            this.minimum = minimum;
+            this.maximum = maximum;
+            return this;
+        }
+
+        /**
+         * Requires the whole value to match the regular expression.
+         */
+        public Rule matching(String regex) {
+            this.pattern = Pattern.compile(regex);
+            return this;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<KeyValidator> validators = new ArrayList<>();
+        private final Set<String> declaredKeys = new LinkedHashSet<>();
+
+        private Builder() {
+        }
+
+        public Builder required(String key) {
+            return required(key, ValueType.STRING);
+        }
+
+        public Builder required(String key, ValueType type) {
+            return add(key, type, true, null, rule -> { });
+        }
+
+        public Builder required(String key, ValueType type, Consumer<Rule> constraints) {
+            return add(key, type, true, null, constraints);
+        }
+
+        public Builder optional(String key, ValueType type) {
+            return add(key, type, false, null, rule -> { });
+        }
+
+        public Builder optional(String key, ValueType type, Consumer<Rule> constraints) {
+            return add(key, type, false, null, constraints);
+        }
+
+        /**
+         * Declares a key that is only required when the run targets the given environment.
+         */
+        public Builder requiredFor(EnvironmentType environment, String key, ValueType type) {
+            return add(key, type, true, EnumSet.of(environment), rule -> { });
+        }
+
+        public ConfigSchema build() {
+            return new ConfigSchema(validators, declaredKeys);
+        }
+
+        private Builder add(String key, ValueType type, boolean required, Set<EnvironmentType> environments,
+                            Consumer<Rule> constraints) {
+            if (key == null || key.isBlank()) {
+                throw new IllegalArgumentException("Schema key cannot be null or empty");
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("Schema type cannot be null for key: " + key);
+            }
+            Rule rule = new Rule();
+            constraints.accept(rule);
+            if (rule.minimum != null && type != ValueType.INTEGER && type != ValueType.LONG && type != ValueType.DOUBLE) {
+                throw new IllegalArgumentException("Range constraints require a numeric type for key: " + key);
+            }
+            declaredKeys.add(key);
+            validators.add(compile(key, type, required, environments, rule));
+            return this;
+        }
+
+        private static KeyValidator compile(String key, ValueType type, boolean required,
+                                            Set<EnvironmentType> environments, Rule rule) {
+            Double minimum = rule.minimum;
+            Double maximum = rule.maximum;
+            Pattern pattern = rule.pattern;
+
+            return (alias, activeEnvironment, lookup, violations) -> {
+                if (environments != null && !environments.contains(activeEnvironment)) {
+                    return;
+                }
+
+                String value = lookup.apply(key);
+                if (value == null || value.isEmpty()) {
+                    if (required) {
+                        violations.add(new ConfigViolation(alias, key, environments == null
+                                ? "required key is missing or empty"
+                                : "key is required for environment " + activeEnvironment + " but is missing or empty"));
+                    }
+                    return;
+                }
+
+                if (!type.matches(value)) {
+                    violations.add(new ConfigViolation(alias, key, "value is not a valid " + type));
+                    return;
+                }
+                if (minimum != null) {
+                    double number = Double.parseDouble(value);
+                    if (number < minimum || number > maximum) {
+                        violations.add(new ConfigViolation(alias, key,
+                                "value is outside the range [" + minimum + ", " + maximum + "]"));
+                    }
+                }
+                if (pattern != null && !pattern.matcher(value).matches()) {
+                    violations.add(new ConfigViolation(alias, key, "value does not match pattern " + pattern.pattern()));
+                }
+            };
+        }
+    }
+}
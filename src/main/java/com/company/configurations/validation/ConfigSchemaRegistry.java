@@ -0,0 +1,111 @@
+package com.company.configurations.validation;
+
+import com.company.configurations.environments.EnvironmentType;
+import com.company.core.ErrorHandler;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link ConfigSchema} for each configuration alias and runs it when the alias is loaded.
+ * The schemas in {@link DefaultConfigSchemas} are registered up front; suites can register or replace schemas
+ * for their own aliases before loading them.
+ */
+public final class ConfigSchemaRegistry {
+
+    private static final Logger logger = LoggerUtils.getLogger(ConfigSchemaRegistry.class);
+
+    private static final Map<String, ConfigSchema> schemas = new ConcurrentHashMap<>(DefaultConfigSchemas.create());
+
+    private static volatile EnvironmentType activeEnvironment;
+
+    /**
+     * Environment set by {@link #withActiveEnvironment} for the calling thread and the threads it starts.
+     */
+    private static final InheritableThreadLocal<EnvironmentType> scopedEnvironment = new InheritableThreadLocal<>();
+
+    private ConfigSchemaRegistry() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static void register(String configAlias, ConfigSchema schema) {
+        if (configAlias == null || configAlias.isBlank() || schema == null) {
+            throw new IllegalArgumentException("Configuration alias and schema are required");
+        }
+        schemas.put(configAlias, schema);
+    }
+
+    public static void unregister(String configAlias) {
+        schemas.remove(configAlias);
+    }
+
+    public static Optional<ConfigSchema> getSchema(String configAlias) {
+        return Optional.ofNullable(schemas.get(configAlias));
+    }
+
+    /**
+     * Sets the environment the run targets, which enables the environment-specific rules of every schema.
+     */
+    public static void setActiveEnvironment(EnvironmentType environmentType) {
+        activeEnvironment = environmentType;
+    }
+
+    /**
+     * @return The environment of the enclosing {@link #withActiveEnvironment} call, or the process-wide one
+     */
+    public static EnvironmentType getActiveEnvironment() {
+        EnvironmentType environmentType = scopedEnvironment.get();
+        return environmentType != null ? environmentType : activeEnvironment;
+    }
+
+    /**
+     * Runs the action with the rules of the given environment enabled on this thread and the threads it starts,
+     * without changing the environment seen by other threads, so parallel loads of different environments
+     * each validate against their own rules.
+     *
+     * @param environmentType Environment to validate against while the action runs
+     * @param action          Loads to validate
+     * @return The result of the action
+     */
+    public static <T> T withActiveEnvironment(EnvironmentType environmentType, Supplier<T> action) {
+        EnvironmentType previousEnvironment = scopedEnvironment.get();
+        scopedEnvironment.set(environmentType);
+        try {
+            return action.get();
+        } finally {
+            if (previousEnvironment == null) {
+                scopedEnvironment.remove();
+            } else {
+                scopedEnvironment.set(previousEnvironment);
+            }
+        }
+    }
+
+    /**
+     * Validates a freshly loaded configuration against its schema, if one is registered.
+     *
+     * @param configAlias Alias of the loaded configuration
+     * @param lookup      Resolves a key to its loaded value, or null when absent
+     * @throws ConfigValidationException listing every violation when the configuration is invalid
+     */
+    public static void validate(String configAlias, Function<String, String> lookup) {
+        ConfigSchema schema = schemas.get(configAlias);
+        if (schema == null) {
+            return;
+        }
+
+        List<ConfigViolation> violations = schema.validate(configAlias, getActiveEnvironment(), lookup);
+        if (!violations.isEmpty()) {
+            ConfigValidationException error = new ConfigValidationException(configAlias, violations);
+            ErrorHandler.logError(error, "validate", "Configuration failed schema validation");
+            throw error;
+        }
+        logger.debug("Configuration '{}' passed schema validation ({} keys declared)", configAlias, schema.getDeclaredKeys().size());
+    }
+}
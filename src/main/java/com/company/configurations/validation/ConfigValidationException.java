@@ -0,0 +1,22 @@
+package com.company.configurations.validation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Raised when a loaded configuration violates its schema. Carries every violation found, not just the first.
+ */
+public class ConfigValidationException extends IllegalStateException {
+
+    private final transient List<ConfigViolation> violations;
+
+    public ConfigValidationException(String alias, List<ConfigViolation> violations) {
+        super(String.format("Configuration '%s' has %d schema violation(s):%n  %s", alias, violations.size(),
+                violations.stream().map(ConfigViolation::toString).collect(Collectors.joining(System.lineSeparator() + "  "))));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<ConfigViolation> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,16 @@
+package com.company.configurations.validation;
+
+/**
+ * A single schema violation found while validating a loaded configuration.
+ *
+ * @param alias   Alias of the configuration that was validated
+ * @param key     Offending key
+ * @param message What is wrong with the key; never contains the value itself
+ */
+public record ConfigViolation(String alias, String key, String message) {
+
+    @Override
+    public String toString() {
+        return alias + "/" + key + ": " + message;
+    }
+}
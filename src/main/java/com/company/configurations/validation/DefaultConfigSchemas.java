@@ -0,0 +1,53 @@
+package com.company.configurations.validation;
+
+import com.company.configurations.environments.EnvironmentFileAlias;
+import com.company.configurations.environments.EnvironmentSecretKeyVariables;
+import com.company.configurations.environments.EnvironmentType;
+import com.company.configurations.properties.ConfigFileAlias;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Schemas for the framework's own configuration aliases.
+ */
+final class DefaultConfigSchemas {
+
+    private DefaultConfigSchemas() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static Map<String, ConfigSchema> create() {
+        Map<String, ConfigSchema> schemas = new HashMap<>();
+
+        schemas.put(ConfigFileAlias.GLOBAL.getAlias(), ConfigSchema.builder()
+                .required("PROJECT_NAME")
+                .required("REPORT_NAME")
+                .build());
+
+        ConfigSchema environmentProperties = ConfigSchema.builder()
+                .required("PORTAL_BASE_URL", ValueType.URL)
+                .required("API_BASE_URL", ValueType.URL)
+                .build();
+        schemas.put(ConfigFileAlias.DEVELOPMENT.getAlias(), environmentProperties);
+        schemas.put(ConfigFileAlias.UAT.getAlias(), environmentProperties);
+        schemas.put(ConfigFileAlias.PRODUCTION.getAlias(), environmentProperties);
+
+        // The base file holds the secret key of every environment; only the targeted one has to be present
+        ConfigSchema.Builder baseEnvironment = ConfigSchema.builder();
+        for (EnvironmentSecretKeyVariables secretKey : EnvironmentSecretKeyVariables.values()) {
+            baseEnvironment.requiredFor(EnvironmentType.valueOf(secretKey.name()), secretKey.getSecretKeyVariable(), ValueType.BASE64);
+        }
+        schemas.put(EnvironmentFileAlias.BASE.getAlias(), baseEnvironment.build());
+
+        ConfigSchema environmentCredentials = ConfigSchema.builder()
+                .required("PORTAL_USERNAME")
+                .required("PORTAL_PASSWORD")
+                .build();
+        schemas.put(EnvironmentFileAlias.DEVELOPMENT.getAlias(), environmentCredentials);
+        schemas.put(EnvironmentFileAlias.UAT.getAlias(), environmentCredentials);
+        schemas.put(EnvironmentFileAlias.PRODUCTION.getAlias(), environmentCredentials);
+
+        return schemas;
+    }
+}
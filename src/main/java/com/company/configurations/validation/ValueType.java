@@ -0,0 +1,48 @@
+package com.company.configurations.validation;
+
+import java.net.URI;
+import java.util.Base64;
+import java.util.function.Predicate;
+
+/**
+ * Value types a configuration key can be declared with in a {@link ConfigSchema}.
+ */
+public enum ValueType {
+
+    STRING(value -> true),
+    INTEGER(value -> parses(() -> Integer.parseInt(value))),
+    LONG(value -> parses(() -> Long.parseLong(value))),
+    DOUBLE(value -> parses(() -> Double.parseDouble(value))),
+    BOOLEAN(value -> value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")),
+    URL(ValueType::isHttpUrl),
+    BASE64(value -> parses(() -> Base64.getDecoder().decode(value)));
+
+    private final Predicate<String> matcher;
+
+    ValueType(Predicate<String> matcher) {
+        this.matcher = matcher;
+    }
+
+    public boolean matches(String value) {
+        return matcher.test(value);
+    }
+
+    private static boolean parses(Runnable parser) {
+        try {
+            parser.run();
+            return true;
+        } catch (RuntimeException error) {
+            return false;
+        }
+    }
+
+    private static boolean isHttpUrl(String value) {
+        try {
+            URI uri = URI.create(value);
+            return uri.getHost() != null
+                    && ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()));
+        } catch (IllegalArgumentException error) {
+            return false;
+        }
+    }
+}
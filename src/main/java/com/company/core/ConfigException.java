@@ -0,0 +1,33 @@
+package com.company.core;
+
+/**
+ * A configuration file could not be loaded, or a configuration value could not be resolved.
+ */
+public class ConfigException extends FrameworkException {
+
+    public ConfigException(String message) {
+        super(message);
+    }
+
+    public ConfigException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    private ConfigException(String message, boolean stackless) {
+        super(message, null, stackless);
+    }
+
+    /**
+     * Creates an exception without a stack trace, for expected misses that callers routinely handle.
+     */
+    public static ConfigException stackless(String message) {
+        return new ConfigException(message, true);
+    }
+
+    /**
+     * @return The cause itself when it is already a framework exception, otherwise a new exception wrapping it
+     */
+    public static RuntimeException wrap(String message, Throwable cause) {
+        return cause instanceof FrameworkException frameworkException ? frameworkException : new ConfigException(message, cause);
+    }
+}
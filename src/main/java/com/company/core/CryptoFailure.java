@@ -0,0 +1,22 @@
+package com.company.core;
+
+/**
+ * An encryption, decryption or key handling operation failed.
+ */
+public class CryptoFailure extends FrameworkException {
+
+    public CryptoFailure(String message) {
+        super(message);
+    }
+
+    public CryptoFailure(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * @return The cause itself when it is already a framework exception, otherwise a new exception wrapping it
+     */
+    public static RuntimeException wrap(String message, Throwable cause) {
+        return cause instanceof FrameworkException frameworkException ? frameworkException : new CryptoFailure(message, cause);
+    }
+}
@@ -0,0 +1,22 @@
+package com.company.core;
+
+/**
+ * A browser session could not be created, borrowed or returned.
+ */
+public class DriverFailure extends FrameworkException {
+
+    public DriverFailure(String message) {
+        super(message);
+    }
+
+    public DriverFailure(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * @return The cause itself when it is already a framework exception, otherwise a new exception wrapping it
+     */
+    public static RuntimeException wrap(String message, Throwable cause) {
+        return cause instanceof FrameworkException frameworkException ? frameworkException : new DriverFailure(message, cause);
+    }
+}
@@ -1,12 +1,125 @@
 package com.company.core;
 
 import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.CloseableThreadContext;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Central error logging.
+ * <p>
+ * An error is logged with its stack trace only once. The first method that reports it opens a pending report; when
+ * outer methods report the same error again, or wrap it and report the wrapper, they are appended to the report's
+ * context path. Once the error has stopped propagating for {@value #PROPAGATION_QUIET_MILLIS} ms the report is
+ * emitted as a single record that carries the innermost message, the full path and the stack trace of the outermost
+ * error. {@link #flush()} emits the calling thread's reports right away, e.g. at the end of a test, and
+ * {@link #flushAll()} emits every report; {@link LoggerUtils} calls it from its shutdown hook, before logging stops.
+ * <p>
+ * Identical errors from the same method in the same test are also rate-limited. After the first one, more are
+ * suppressed for a short window and counted, and the count is logged when the window closes. The test is part of the
+ * signature, so a failure shared by parallel tests still shows up in the log of each of them.
+ */
 public class ErrorHandler {
 
     private static final Logger logger = LoggerUtils.getLogger(ErrorHandler.class);
 
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long PROPAGATION_QUIET_MILLIS = 100;
+    private static final int MAX_TRACKED_SIGNATURES = 1024;
+    private static final int MAX_CAUSE_DEPTH = 32;
+
+    /**
+     * Errors already logged, keyed by identity, with the methods they have propagated through.
+     * Weak keys let reported errors be collected once nothing else references them.
+     */
+    private static final Map<Throwable, ContextPath> reportedErrors = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+    private static final Set<ContextPath> pendingReports = ConcurrentHashMap.newKeySet();
+    private static final LongAdder suppressedErrors = new LongAdder();
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "error-handler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class ContextPath {
+
+        private final List<String> methods = new CopyOnWriteArrayList<>();
+        private final Thread reportingThread = Thread.currentThread();
+        private final Map<String, String> threadContext = ThreadContext.getImmutableContext();
+        private final String message;
+        private final AtomicBoolean emitted = new AtomicBoolean();
+        private volatile Throwable outermostError;
+        private volatile long lastPropagationNanos = System.nanoTime();
+
+        private ContextPath(String methodName, String message, Throwable error) {
+            this.message = message;
+            this.outermostError = error;
+            methods.add(methodName);
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" <- ", methods);
+        }
+    }
+
+    private static final class RateWindow {
+
+        private final String signature;
+        private boolean started;
+        private long windowStart;
+        private long suppressedCount;
+
+        private RateWindow(String signature) {
+            this.signature = signature;
+        }
+
+        /**
+         * @return The number of errors suppressed in an expired window that was not reported yet, or -1 when this
+         * one is suppressed too
+         */
+        private synchronized long admit(long now) {
+            if (started && now - windowStart < RATE_WINDOW_NANOS) {
+                suppressedCount++;
+                return -1;
+            }
+            long suppressed = suppressedCount;
+            suppressedCount = 0;
+            windowStart = now;
+            started = true;
+            return suppressed;
+        }
+
+        /**
+         * @return The number of errors suppressed in the window that started at the given time, once it has closed
+         */
+        private synchronized long close(long start) {
+            if (windowStart != start) {
+                // A later error already reported this window's count when it opened the next one
+                return 0;
+            }
+            long suppressed = suppressedCount;
+            suppressedCount = 0;
+            return suppressed;
+        }
+    }
+
     // Prevent instantiation of utility class
     private ErrorHandler() {
         throw new AssertionError("Utility class - do not instantiate");
@@ -18,7 +131,7 @@ public class ErrorHandler {
 
 
     /**
-     * Logs an error with detailed information and returns the error for further handling.
+     * Logs an error with detailed information, unless it or one of its causes has already been logged.
      *
      * @param error        The throwable instance representing the error (required)
      * @param methodName   The name of the method where the error occurred (required)
@@ -30,8 +143,156 @@ public class ErrorHandler {
         validateParameters(error, "error");
         validateParameters(methodName, "methodName");
 
-        String detailedMessage = buildErrorMessage(methodName, errorMessage, context, error);
-        logger.error(detailedMessage, error);
+        ContextPath path = findReported(error);
+        if (path != null) {
+            path.methods.add(methodName);
+            path.outermostError = error;
+            path.lastPropagationNanos = System.nanoTime();
+            return;
+        }
+
+        long now = System.nanoTime();
+        RateWindow window = rateWindowFor(error, methodName);
+        long suppressed = window.admit(now);
+        if (suppressed < 0) {
+            // Still tracked, so outer methods reporting it do not open a report of their own
+            reportedErrors.put(error, new ContextPath(methodName, null, error));
+            suppressedErrors.increment();
+            return;
+        }
+        if (suppressed > 0) {
+            logSuppressed(window.signature, suppressed);
+        }
+        scheduler.schedule(() -> closeRateWindow(window, now), RATE_WINDOW_NANOS, TimeUnit.NANOSECONDS);
+
+        path = new ContextPath(methodName, buildErrorMessage(methodName, errorMessage, context, error), error);
+        reportedErrors.put(error, path);
+        pendingReports.add(path);
+        scheduleEmit(path, PROPAGATION_QUIET_MILLIS);
+    }
+
+    /**
+     * Emits the reports opened by the calling thread without waiting for their errors to stop propagating.
+     *
+     * @return The number of reports emitted
+     */
+    public static int flush() {
+        return flush(Thread.currentThread());
+    }
+
+    /**
+     * Emits every pending report, e.g. before the logging system is shut down.
+     *
+     * @return The number of reports emitted
+     */
+    public static int flushAll() {
+        return flush(null);
+    }
+
+    /**
+     * @return The methods the error (or the reported error it wraps) has been reported from, innermost first
+     */
+    public static Optional<String> getContextPath(Throwable error) {
+        ContextPath path = findReported(error);
+        return path == null ? Optional.empty() : Optional.of(path.toString());
+    }
+
+    /**
+     * @return How many errors have been suppressed by rate limiting since startup
+     */
+    public static long getSuppressedErrorCount() {
+        return suppressedErrors.sum();
+    }
+
+    private static int flush(Thread reportingThread) {
+        int emitted = 0;
+        for (ContextPath path : pendingReports) {
+            if ((reportingThread == null || path.reportingThread == reportingThread) && emit(path)) {
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    private static void scheduleEmit(ContextPath path, long delayMillis) {
+        scheduler.schedule(() -> {
+            long quietMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - path.lastPropagationNanos);
+            if (quietMillis < PROPAGATION_QUIET_MILLIS) {
+                scheduleEmit(path, PROPAGATION_QUIET_MILLIS - quietMillis);
+            } else {
+                emit(path);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Logs the report once, in the thread context of the method that opened it.
+     *
+     * @return true if this call emitted the report
+     */
+    private static boolean emit(ContextPath path) {
+        if (!path.emitted.compareAndSet(false, true)) {
+            return false;
+        }
+        pendingReports.remove(path);
+        String message = path.methods.size() > 1 ? path.message + ". Propagated through: " + path : path.message;
+        if (Thread.currentThread() == path.reportingThread) {
+            logger.error(message, path.outermostError);
+        } else {
+            try (CloseableThreadContext.Instance ignored = CloseableThreadContext.putAll(path.threadContext)) {
+                logger.error(message, path.outermostError);
+            }
+        }
+        return true;
+    }
+
+    private static void closeRateWindow(RateWindow window, long windowStart) {
+        long suppressed = window.close(windowStart);
+        if (suppressed > 0) {
+            logSuppressed(window.signature, suppressed);
+        }
+    }
+
+    private static void logSuppressed(String signature, long suppressed) {
+        logger.warn("{} identical errors suppressed in {}s: {}", suppressed,
+                TimeUnit.NANOSECONDS.toSeconds(RATE_WINDOW_NANOS), signature);
+    }
+
+    /**
+     * Finds the context path of the error or the nearest reported cause, sharing it with the error when found
+     * on a cause so the next lookup is a single map read.
+     */
+    private static ContextPath findReported(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            ContextPath path = reportedErrors.get(current);
+            if (path != null) {
+                if (current != error) {
+                    reportedErrors.put(error, path);
+                }
+                return path;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+
+    private static RateWindow rateWindowFor(Throwable error, String methodName) {
+        String testId = LoggerUtils.currentTestId();
+        String signature = (testId != null ? testId + '|' : "")
+                + methodName + '|' + error.getClass().getName() + '|' + error.getMessage();
+        RateWindow window = rateWindows.get(signature);
+        if (window == null) {
+            if (rateWindows.size() >= MAX_TRACKED_SIGNATURES) {
+                // Errors with unique messages would otherwise grow the map without bound
+                rateWindows.clear();
+            }
+            window = rateWindows.computeIfAbsent(signature, RateWindow::new);
+        }
+        return window;
     }
 
     private static void validateParameters(Object param, String paramName) {
@@ -61,32 +322,4 @@ public class ErrorHandler {
                 error.getMessage()
         );
     }
-
-    /**
-     * Creates a custom exception instance with the provided detailed message.
-     *
-     * @param errorType       The custom exception type to create (optional)
-     * @param detailedMessage The detailed message to pass to the exception constructor (required)
-     * @return The created exception instance
-     * @throws IllegalArgumentException if detailedMessage is null or empty
-     * @throws T                        The created exception instance
-     */
-    private static <T extends RuntimeException> T createException(
-            Class<T> errorType,
-            String detailedMessage) {
-        if (errorType == null) {
-            @SuppressWarnings("unchecked")
-            T runtimeException = (T) new RuntimeException(detailedMessage);
-            return runtimeException;
-        }
-
-        try {
-            return errorType.getConstructor(String.class).newInstance(detailedMessage);
-        } catch (ReflectiveOperationException e) {
-            logger.warn("Failed to create custom exception of type: {}. Defaulting to RuntimeException", errorType.getName());
-            @SuppressWarnings("unchecked")
-            T runtimeException = (T) new RuntimeException(detailedMessage);
-            return runtimeException;
-        }
-    }
 }
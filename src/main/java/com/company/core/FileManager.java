@@ -2,12 +2,63 @@ package com.company.core;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * File helpers for files that several threads, surefire forks or CI jobs may write at the same time.
+ * <p>
+ * Writes go through {@link #writeAtomically(Path, byte[])}: the content is written to a temporary file next to the
+ * target, forced to disk and renamed over the target, so a reader sees either the old or the new file and never a
+ * partial one. Read-modify-write sequences run under {@link #withLock(Path, LockedAction)}, which serializes writers
+ * within the JVM with a {@link ReentrantLock} and across processes with a {@link FileChannel#lock()} on a
+ * {@code <file>.lock} sibling. The lock is advisory: it only excludes writers that use it too. Writers that cannot hold
+ * a lock while they compute can use {@link #compareAndSwap(Path, byte[], byte[])} with a hash from
+ * {@link #contentHash(Path)} and retry when another writer got there first.
+ */
 public class FileManager {
 
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * In-JVM side of {@link #withLock}. File locks are held per process, so threads of one JVM must not rely on them.
+     */
+    private static final Map<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Work done while holding the lock of a file.
+     */
+    @FunctionalInterface
+    public interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Computes new file content from the current content.
+     */
+    @FunctionalInterface
+    public interface ContentUpdate {
+        byte[] apply(byte[] current) throws IOException;
+    }
+
     /**
      * Creates a directory if it does not already exist.
      *
@@ -59,4 +110,156 @@ public class FileManager {
             throw error;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs an action while holding the exclusive lock of a file, waiting for other threads and processes that hold it.
+     * The lock is reentrant for the calling thread.
+     *
+     * @param path   The file to lock; it does not need to exist
+     * @param action The action to run
+     * @return The action's result
+     * @throws IOException If the lock cannot be acquired or the action fails
+     */
+    public static <T> T withLock(Path path, LockedAction<T> action) throws IOException {
+        Path target = path.toAbsolutePath().normalize();
+        ReentrantLock processLock = PROCESS_LOCKS.computeIfAbsent(target, ignored -> new ReentrantLock());
+        processLock.lock();
+        try {
+            if (processLock.getHoldCount() > 1) {
+                return action.run();
+            }
+            Path lockFile = target.resolveSibling(target.getFileName() + LOCK_SUFFIX);
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.run();
+            }
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "withLock", "Failed to run locked action on: " + path);
+            throw error;
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the content of a file so that concurrent readers see either the old or the new content. The new
+     * content is forced to disk before it replaces the old, and the file keeps its POSIX permissions.
+     *
+     * @param path    The file to write; created if missing
+     * @param content The new content
+     * @throws IOException If the file cannot be written
+     */
+    public static void writeAtomically(Path path, byte[] content) throws IOException {
+        Path target = path.toAbsolutePath().normalize();
+        Path directory = target.getParent();
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, "." + target.getFileName(), ".tmp");
+            copyPermissions(target, temporary);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException error) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temporary = null;
+            forceDirectory(directory);
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "writeAtomically", "Failed to write file: " + path);
+            throw error;
+        } finally {
+            if (temporary != null) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    /**
+     * Reads, transforms and atomically rewrites a file while holding its lock, so concurrent updates are never lost.
+     *
+     * @param path   The file to update
+     * @param update Computes the new content from the current content
+     * @return The content written
+     * @throws NoSuchFileException If the file does not exist
+     * @throws IOException         If the file cannot be read or written
+     */
+    public static byte[] updateAtomically(Path path, ContentUpdate update) throws IOException {
+        return withLock(path, () -> {
+            byte[] content = update.apply(Files.readAllBytes(path));
+            writeAtomically(path, content);
+            return content;
+        });
+    }
+
+    /**
+     * Replaces the content of a file only if it still has the expected content.
+     *
+     * @param path         The file to write
+     * @param expectedHash {@link #contentHash(Path)} of the content the new content was computed from, or {@code null}
+     *                     if the file is expected not to exist
+     * @param newContent   The new content
+     * @return {@code true} if the file was written, {@code false} if its content had changed
+     * @throws IOException If the file cannot be read or written
+     */
+    public static boolean compareAndSwap(Path path, byte[] expectedHash, byte[] newContent) throws IOException {
+        return withLock(path, () -> {
+            if (!Arrays.equals(contentHash(path), expectedHash)) {
+                return false;
+            }
+            writeAtomically(path, newContent);
+            return true;
+        });
+    }
+
+    /**
+     * @return The SHA-256 hash of the file's content, or {@code null} if the file does not exist
+     * @throws IOException If the file cannot be read
+     */
+    public static byte[] contentHash(Path path) throws IOException {
+        try {
+            return contentHash(Files.readAllBytes(path));
+        } catch (NoSuchFileException error) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The SHA-256 hash of the given content
+     */
+    public static byte[] contentHash(byte[] content) {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException error) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is required by every Java platform", error);
+        }
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if (sourceView == null || !Files.exists(source)) {
+            return;
+        }
+        Set<PosixFilePermission> permissions = sourceView.readAttributes().permissions();
+        Files.setPosixFilePermissions(target, permissions);
+    }
+
+    /**
+     * Makes the rename durable. Not every platform can open a directory for this, in which case the rename is still
+     * atomic but may be lost on a crash.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException error) {
+            // Best effort, see above
+        }
+    }
+}
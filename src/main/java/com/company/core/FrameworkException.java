@@ -0,0 +1,37 @@
+package com.company.core;
+
+/**
+ * Base of the framework exception hierarchy.
+ * <p>
+ * Layers that catch a failure and rethrow it use the {@code wrap} factory of the matching subclass, which returns
+ * a framework exception unchanged instead of wrapping it again. A failure therefore keeps its original type, cause
+ * and stack trace however many layers it crosses. Expected, frequent failures such as a missing key can be created
+ * stackless, skipping the stack walk that dominates the cost of constructing an exception.
+ */
+public abstract class FrameworkException extends RuntimeException {
+
+    private final boolean stackless;
+
+    protected FrameworkException(String message) {
+        this(message, null, false);
+    }
+
+    protected FrameworkException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    /**
+     * @param stackless When true, no stack trace is captured and suppressed exceptions are not recorded
+     */
+    protected FrameworkException(String message, Throwable cause, boolean stackless) {
+        super(message, cause, !stackless, !stackless);
+        this.stackless = stackless;
+    }
+
+    /**
+     * @return true when the exception was created without a stack trace
+     */
+    public boolean isStackless() {
+        return stackless;
+    }
+}
@@ -0,0 +1,147 @@
+package com.company.core;
+
+import com.company.utils.JsonUtils;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Framework-wide timers, counters and gauges.
+ * <p>
+ * Call sites look their metric up once and keep it in a static field, then record with
+ * {@code long start = System.nanoTime(); ... TIMER.recordSince(start);}. Recording never allocates or locks, so it can
+ * stay enabled on hot paths. {@link #writeReport(Path, String)} writes everything recorded by this JVM as JSON plus a
+ * text summary.
+ */
+public final class MetricsRegistry {
+
+    private static final Logger logger = LoggerUtils.getLogger(MetricsRegistry.class);
+
+    private static final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    static {
+        gauge("errors.suppressed", ErrorHandler::getSuppressedErrorCount);
+    }
+
+    private MetricsRegistry() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @return The latency histogram registered under the name, created on first use
+     */
+    public static LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * @return The counter registered under the name, created on first use
+     */
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, ignored -> new LongAdder());
+    }
+
+    /**
+     * Registers a value that is read when a report is written. A later registration under the same name replaces it.
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Removes a gauge, unless a later registration has replaced the supplier since.
+     */
+    public static void removeGauge(String name, LongSupplier supplier) {
+        gauges.remove(name, supplier);
+    }
+
+    /**
+     * @return The current value of the gauge, or empty when no gauge is registered under the name
+     */
+    public static OptionalLong gaugeValue(String name) {
+        LongSupplier supplier = gauges.get(name);
+        return supplier == null ? OptionalLong.empty() : OptionalLong.of(supplier.getAsLong());
+    }
+
+    /**
+     * Clears all timers and counters. Gauges are kept.
+     */
+    public static void reset() {
+        timers.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Writes {@code <name>.json} and {@code <name>.txt} to the directory.
+     *
+     * @param reportDirectory Destination directory; created as needed
+     * @param reportName      Base name of the report files, usually the suite name
+     */
+    public static void writeReport(Path reportDirectory, String reportName) {
+        String baseName = reportName.replaceAll("[^A-Za-z0-9._-]", "_");
+        try {
+            Files.createDirectories(reportDirectory);
+            Files.writeString(reportDirectory.resolve(baseName + ".json"), toJson());
+            Files.writeString(reportDirectory.resolve(baseName + ".txt"), toSummary());
+            logger.info("Metrics written to '{}'", reportDirectory.resolve(baseName + ".json"));
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "writeReport", "Failed to write metrics report");
+            throw new UncheckedIOException("Failed to write metrics report", error);
+        }
+    }
+
+    public static String toJson() {
+        Map<String, Object> timerValues = new TreeMap<>();
+        timers.forEach((name, histogram) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", histogram.getCount());
+            values.put("meanMs", LatencyHistogram.toMillis(Math.round(histogram.getMeanNanos())));
+            values.put("p50Ms", LatencyHistogram.toMillis(histogram.getPercentileNanos(50)));
+            values.put("p90Ms", LatencyHistogram.toMillis(histogram.getPercentileNanos(90)));
+            values.put("p99Ms", LatencyHistogram.toMillis(histogram.getPercentileNanos(99)));
+            values.put("maxMs", LatencyHistogram.toMillis(histogram.getMaxNanos()));
+            timerValues.put(name, values);
+        });
+        Map<String, Object> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+        Map<String, Object> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, supplier) -> gaugeValues.put(name, supplier.getAsLong()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("pid", ProcessHandle.current().pid());
+        report.put("timestamp", Instant.now().toString());
+        report.put("timers", timerValues);
+        report.put("counters", counterValues);
+        report.put("gauges", gaugeValues);
+        return JsonUtils.toJson(report);
+    }
+
+    public static String toSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-40s %10s %12s %12s %12s%n", "timer", "count", "p50 ms", "p99 ms", "max ms"));
+        new TreeMap<>(timers).forEach((name, histogram) -> summary.append(String.format("%-40s %10d %12.3f %12.3f %12.3f%n",
+                name, histogram.getCount(),
+                LatencyHistogram.toMillis(histogram.getPercentileNanos(50)),
+                LatencyHistogram.toMillis(histogram.getPercentileNanos(99)),
+                LatencyHistogram.toMillis(histogram.getMaxNanos()))));
+        new TreeMap<>(counters).forEach((name, counter) ->
+                summary.append(String.format("%-40s %10d%n", name, counter.sum())));
+        new TreeMap<>(gauges).forEach((name, supplier) ->
+                summary.append(String.format("%-40s %10d%n", name, supplier.getAsLong())));
+        return summary.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.company.core;
+
+/**
+ * An argument or input value was rejected before any work was done.
+ */
+public class ValidationException extends FrameworkException {
+
+    public ValidationException(String message) {
+        super(message);
+    }
+
+    public ValidationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * @return The cause itself when it is already a framework exception, otherwise a new exception wrapping it
+     */
+    public static RuntimeException wrap(String message, Throwable cause) {
+        return cause instanceof FrameworkException frameworkException ? frameworkException : new ValidationException(message, cause);
+    }
+}
@@ -0,0 +1,43 @@
+package com.company.core.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for loading a properties or environment file into its configuration manager.
+ */
+@Name("com.company.ConfigLoad")
+@Label("Configuration Load")
+@Category({"Company Framework", "Configuration"})
+@Description("Loading of a properties or environment file under an alias")
+@StackTrace(false)
+public final class ConfigLoadEvent extends Event {
+
+    public static final String PROPERTIES = "properties";
+    public static final String ENVIRONMENT = "environment";
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Alias")
+    public String alias;
+
+    @Label("File")
+    public String file;
+
+    @Label("Key Count")
+    public int keyCount;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public ConfigLoadEvent(String kind, String alias, String file) {
+        this.kind = kind;
+        this.alias = alias;
+        this.file = file;
+    }
+}
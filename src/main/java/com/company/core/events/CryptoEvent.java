@@ -0,0 +1,44 @@
+package com.company.core.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a key derivation, encryption or decryption.
+ * <p>
+ * {@code CryptoService} records the operation and payload size. {@code CryptoServiceUtils} records an enclosing
+ * event with the alias and key name, so an Argon2 hot spot can be traced to the environment key that caused it.
+ * Values are never recorded.
+ */
+@Name("com.company.Crypto")
+@Label("Crypto Operation")
+@Category({"Company Framework", "Crypto"})
+@Description("Key derivation, encryption or decryption of a value")
+@StackTrace(false)
+public final class CryptoEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Alias")
+    public String alias;
+
+    @Label("Key Name")
+    public String keyName;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public CryptoEvent(String operation) {
+        this.operation = operation;
+    }
+}
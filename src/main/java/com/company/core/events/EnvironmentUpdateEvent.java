@@ -0,0 +1,35 @@
+package com.company.core.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for rewriting keys of an environment file. Only key names are recorded.
+ */
+@Name("com.company.EnvironmentUpdate")
+@Label("Environment File Update")
+@Category({"Company Framework", "Configuration"})
+@Description("Rewrite of one or more keys in an environment file")
+@StackTrace(false)
+public final class EnvironmentUpdateEvent extends Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Key Names")
+    public String keyNames;
+
+    @Label("Key Count")
+    public int keyCount;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public EnvironmentUpdateEvent(String file) {
+        this.file = file;
+    }
+}
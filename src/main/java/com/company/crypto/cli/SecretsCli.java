@@ -0,0 +1,532 @@
+package com.company.crypto.cli;
+
+import com.company.configurations.environments.EnvironmentFile;
+import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.core.ErrorHandler;
+import com.company.crypto.services.CryptoProviderSelector;
+import com.company.crypto.services.CryptoService;
+import com.company.crypto.services.SecureKeyGenerator;
+import com.company.crypto.utils.CryptoConstants;
+import com.company.utils.Base64Utils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.selector.ClassLoaderContextSelector;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line entry point for secret maintenance without Maven, surefire or TestNG.
+ * <p>
+ * Keys are read from and written to the base environment file ({@code envs/.env} unless {@code --base} is given).
+ * The work of {@code encrypt}, {@code decrypt}, {@code verify} and {@code rotate} is split into one task per file and
+ * variable and run on a bounded pool, since each task spends several seconds in Argon2 key derivation. Progress goes
+ * to stderr; decrypted values go to stdout. Files are only written once every task of the run has succeeded.
+ * <p>
+ * {@code rotate} first stores the new key under {@code <KEY>_NEXT} in the base file, then rewrites the files and only
+ * then promotes the staged key to {@code <KEY>}. If it stops part way, the old key still decrypts every value not yet
+ * rewritten and the staged key every value that was; running {@code rotate} again picks the staged key up and finishes
+ * the rotation. It refuses to start while a variable that was not named still decrypts with the old key, since that
+ * value would be unreadable once the key is replaced.
+ * <p>
+ * Exit codes: {@code 0} on success, {@code 1} when any task failed, {@code 2} on a usage error.
+ * <p>
+ * Packaged by {@code mvn package} as {@code target/*-secrets-cli.jar}. For hooks that run it often, adding
+ * {@code -XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=<file>.jsa} to the {@code java -jar} command roughly halves
+ * JVM startup from the second run on.
+ */
+public final class SecretsCli {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final String LOG_CONFIGURATION_PROPERTY = "log4j2.configurationFile";
+    private static final String LOG_CONTEXT_SELECTOR_PROPERTY = "log4j2.contextSelector";
+    private static final String STAGED_KEY_SUFFIX = "_NEXT";
+
+    /**
+     * Heap one Argon2 derivation needs, with headroom; bounds the default number of threads.
+     */
+    private static final long DERIVATION_MEMORY_BYTES = 768L * 1024 * 1024;
+
+    private static final int AES_BLOCK_SIZE = 16;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: secrets <command> --key <variable> [options] [--file <env file>]... [VARIABLE]...",
+            "",
+            "Commands:",
+            "  generate-key   Generate a key and store it under --key in the base file (--force replaces an existing key)",
+            "  encrypt        Encrypt the named variables in every --file",
+            "  decrypt        Print the decrypted values of the named variables in every --file",
+            "  verify         Check that the named variables in every --file decrypt with the key",
+            "  rotate         Re-encrypt the named variables in every --file with a new key, then replace the key;",
+            "                 refuses while other variables in the files still use the key, and resumes an interrupted run",
+            "",
+            "Options:",
+            "  --key <variable>   Base file variable holding the Base64 key, e.g. UAT_SECRET_KEY",
+            "  --base <path>      Base environment file holding the keys (default: envs/.env)",
+            "  --file <path>      Environment file to process; repeatable",
+            "  --threads <n>      Parallel tasks (default: processors, bounded by the heap)",
+            "  --force            Let generate-key replace an existing key");
+
+    private enum Command {
+        GENERATE_KEY("generate-key"),
+        ENCRYPT("encrypt"),
+        DECRYPT("decrypt"),
+        VERIFY("verify"),
+        ROTATE("rotate");
+
+        private final String name;
+
+        Command(String name) {
+            this.name = name;
+        }
+
+        private static Command of(String name) {
+            for (Command command : values()) {
+                if (command.name.equals(name)) {
+                    return command;
+                }
+            }
+            throw new IllegalArgumentException("Unknown command '" + name + "'");
+        }
+    }
+
+    private record Options(Command command, String keyVariable, Path baseFile, List<Path> files,
+                           List<String> variables, int threads, boolean force) {
+    }
+
+    /**
+     * Outcome of one file and variable task.
+     *
+     * @param value Resulting value, or {@code null} if the task failed
+     * @param error Failure message, or {@code null} if the task succeeded
+     */
+    private record TaskResult(Path file, String variable, String value, String error, long nanos) {
+    }
+
+    private record Task(EnvironmentFile file, String variable) {
+    }
+
+    @FunctionalInterface
+    private interface SecretTransform {
+        String apply(String value) throws Exception;
+    }
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private SecretsCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        // Must be set before the first logger is created; the test configuration writes log files and status output
+        if (System.getProperty(LOG_CONFIGURATION_PROPERTY) == null) {
+            System.setProperty(LOG_CONFIGURATION_PROPERTY, "log4j2-cli.xml");
+            // A synchronous context skips starting the ring buffer thread, which a short-lived process does not need
+            System.setProperty(LOG_CONTEXT_SELECTOR_PROPERTY, ClassLoaderContextSelector.class.getName());
+        }
+        // Reuse the provider benchmark of earlier runs instead of repeating it on every start
+        if (System.getProperty(CryptoProviderSelector.CACHE_FILE_PROPERTY) == null) {
+            System.setProperty(CryptoProviderSelector.CACHE_FILE_PROPERTY,
+                    Path.of(System.getProperty("java.io.tmpdir"), "secrets-cli-crypto-providers.properties").toString());
+        }
+        int exitCode;
+        try {
+            exitCode = run(args, System.out, System.err);
+        } finally {
+            ErrorHandler.flushAll();
+            LogManager.shutdown();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs one command without exiting the JVM.
+     *
+     * @return The process exit code
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException error) {
+            err.println("secrets: " + error.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        try {
+            return new SecretsCli(out, err).execute(options);
+        } catch (IllegalArgumentException | IllegalStateException | IOException error) {
+            err.println("secrets: " + error.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private int execute(Options options) throws IOException {
+        if (options.command() == Command.GENERATE_KEY) {
+            return generateKey(options);
+        }
+        SecretKey key = loadKey(options);
+        return switch (options.command()) {
+            case ENCRYPT -> writeBack(process(options, value -> CryptoService.encrypt(key, value)));
+            case DECRYPT -> printValues(process(options, value -> CryptoService.decrypt(key, value)));
+            case VERIFY -> report(process(options, value -> {
+                CryptoService.decrypt(key, value);
+                return value;
+            }));
+            case ROTATE -> rotate(options, key);
+            case GENERATE_KEY -> throw new IllegalStateException("unreachable");
+        };
+    }
+
+    private int generateKey(Options options) throws IOException {
+        if (!options.force() && Files.exists(options.baseFile())
+                && EnvironmentFile.parse(options.baseFile()).containsKey(options.keyVariable())) {
+            throw new IllegalStateException("'" + options.keyVariable() + "' already exists in " + options.baseFile()
+                    + "; use --force to replace it");
+        }
+        storeVariables(options, Map.of(options.keyVariable(),
+                Base64Utils.encodeSecretKey(SecureKeyGenerator.generateSecretKey())));
+        err.println("Generated " + options.keyVariable() + " in " + options.baseFile());
+        return EXIT_OK;
+    }
+
+    private int rotate(Options options, SecretKey currentKey) throws IOException {
+        String stagedKeyVariable = options.keyVariable() + STAGED_KEY_SUFFIX;
+        List<String> unnamed = findUnnamedSecrets(options, currentKey, stagedKeyVariable);
+        if (!unnamed.isEmpty()) {
+            err.println("Not rotating: still encrypted with " + options.keyVariable() + " but not named: "
+                    + String.join(", ", unnamed));
+            err.println("Name these variables as well, or they cannot be decrypted once the key is replaced");
+            return EXIT_FAILED;
+        }
+
+        String stagedKey = EnvironmentFile.parse(options.baseFile()).get(stagedKeyVariable);
+        boolean resuming = stagedKey != null;
+        SecretKey newKey;
+        if (resuming) {
+            newKey = Base64Utils.decodeSecretKey(stagedKey);
+            err.println("Resuming the rotation staged in " + stagedKeyVariable);
+        } else {
+            newKey = SecureKeyGenerator.generateSecretKey();
+            // Stored before any file changes, so values rewritten by a run that dies part way stay decryptable
+            storeVariables(options, Map.of(stagedKeyVariable, Base64Utils.encodeSecretKey(newKey)));
+        }
+
+        List<TaskResult> results = process(options, value -> {
+            if (resuming && decrypts(newKey, value)) {
+                return value;
+            }
+            return CryptoService.encrypt(newKey, CryptoService.decrypt(currentKey, value));
+        });
+        if (writeBack(results) != EXIT_OK) {
+            if (resuming) {
+                err.println("The new key stays staged in " + stagedKeyVariable + "; run rotate again to finish");
+            } else {
+                // No file was written, so the staged key protects nothing
+                storeVariables(options, Collections.singletonMap(stagedKeyVariable, null));
+            }
+            return EXIT_FAILED;
+        }
+
+        // Promotes the staged key and drops it in one atomic update of the base file
+        Map<String, String> promotion = new HashMap<>();
+        promotion.put(options.keyVariable(), Base64Utils.encodeSecretKey(newKey));
+        promotion.put(stagedKeyVariable, null);
+        storeVariables(options, promotion);
+        err.println("Rotated " + options.keyVariable() + " in " + options.baseFile());
+        return EXIT_OK;
+    }
+
+    /**
+     * Looks for variables that {@code rotate} would leave encrypted with the old key: those in the processed files and
+     * the base file that were not named but still decrypt with it. Only values shaped like ciphertext are tried, since
+     * every attempt costs an Argon2 derivation.
+     *
+     * @return The offending variables as {@code <file>:<variable>}
+     */
+    private List<String> findUnnamedSecrets(Options options, SecretKey currentKey, String stagedKeyVariable)
+            throws IOException {
+        Set<Path> paths = new LinkedHashSet<>(options.files());
+        if (Files.exists(options.baseFile())) {
+            paths.add(options.baseFile());
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (Path path : paths) {
+            EnvironmentFile file = EnvironmentFile.parse(path);
+            for (Map.Entry<String, String> entry : file.asMap().entrySet()) {
+                String variable = entry.getKey();
+                boolean named = options.files().contains(path) && options.variables().contains(variable);
+                if (!named && !variable.equals(options.keyVariable()) && !variable.equals(stagedKeyVariable)
+                        && looksEncrypted(entry.getValue())) {
+                    tasks.add(new Task(file, variable));
+                }
+            }
+        }
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        err.println("Checking " + tasks.size() + " unnamed encrypted-looking variable(s) for use of "
+                + options.keyVariable());
+        List<String> unnamed = new ArrayList<>();
+        for (TaskResult result : runTasks(tasks, options.threads(), value -> CryptoService.decrypt(currentKey, value),
+                false)) {
+            if (result.error() == null) {
+                unnamed.add(result.file() + ":" + result.variable());
+            }
+        }
+        return unnamed;
+    }
+
+    /**
+     * @return true when the value has the layout {@link CryptoService#encrypt} produces: Base64 of salt, IV, whole AES
+     * blocks of ciphertext and MAC
+     */
+    private static boolean looksEncrypted(String value) {
+        byte[] decoded;
+        try {
+            decoded = Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException error) {
+            return false;
+        }
+        int overhead = CryptoConstants.SALT_KEY_SIZE.getIntValue() + CryptoConstants.IV_KEY_SIZE.getIntValue()
+                + CryptoConstants.HMAC_KEY_SIZE.getIntValue();
+        int cipherTextSize = decoded.length - overhead;
+        return cipherTextSize >= AES_BLOCK_SIZE && cipherTextSize % AES_BLOCK_SIZE == 0;
+    }
+
+    private static boolean decrypts(SecretKey key, String value) {
+        try {
+            CryptoService.decrypt(key, value);
+            return true;
+        } catch (Exception error) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs the transform on every file and variable in parallel, printing progress as tasks complete.
+     *
+     * @return Results in file and variable order
+     */
+    private List<TaskResult> process(Options options, SecretTransform transform) throws IOException {
+        if (options.files().isEmpty() || options.variables().isEmpty()) {
+            throw new IllegalArgumentException("at least one --file and one variable are required");
+        }
+        List<Task> tasks = new ArrayList<>(options.files().size() * options.variables().size());
+        for (Path path : options.files()) {
+            EnvironmentFile file = EnvironmentFile.parse(path);
+            for (String variable : options.variables()) {
+                tasks.add(new Task(file, variable));
+            }
+        }
+        return runTasks(tasks, options.threads(), transform, true);
+    }
+
+    /**
+     * Runs the transform on every task on a bounded pool.
+     *
+     * @param printProgress Whether to print a line to stderr for every completed task
+     * @return Results in task order
+     */
+    private List<TaskResult> runTasks(List<Task> tasks, int maxThreads, SecretTransform transform, boolean printProgress) {
+        int total = tasks.size();
+        int threads = Math.min(maxThreads, total);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<TaskResult> completion = new ExecutorCompletionService<>(executor);
+            for (Task task : tasks) {
+                completion.submit(() -> runTask(task.file(), task.variable(), transform));
+            }
+
+            Map<String, TaskResult> completed = new HashMap<>();
+            long start = System.nanoTime();
+            for (int done = 1; done <= total; done++) {
+                TaskResult result = completion.take().get();
+                completed.put(taskKey(result.file(), result.variable()), result);
+                if (printProgress) {
+                    err.printf("[%d/%d] %s %s %s (%d ms)%n", done, total, result.file(), result.variable(),
+                            result.error() == null ? "ok" : "FAILED: " + result.error(),
+                            TimeUnit.NANOSECONDS.toMillis(result.nanos()));
+                }
+            }
+            if (printProgress) {
+                err.printf("%d task(s) on %d thread(s) in %d ms%n", total, threads,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+
+            List<TaskResult> ordered = new ArrayList<>(total);
+            for (Task task : tasks) {
+                ordered.add(completed.get(taskKey(task.file().getPath(), task.variable())));
+            }
+            return ordered;
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", error);
+        } catch (ExecutionException error) {
+            throw new IllegalStateException("task failed unexpectedly", error.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TaskResult runTask(EnvironmentFile file, String variable, SecretTransform transform) {
+        long start = System.nanoTime();
+        String value = file.get(variable);
+        if (value == null) {
+            return new TaskResult(file.getPath(), variable, null, "variable not defined", System.nanoTime() - start);
+        }
+        try {
+            return new TaskResult(file.getPath(), variable, transform.apply(value), null, System.nanoTime() - start);
+        } catch (Exception error) {
+            return new TaskResult(file.getPath(), variable, null, describe(error), System.nanoTime() - start);
+        }
+    }
+
+    private int writeBack(List<TaskResult> results) throws IOException {
+        if (report(results) != EXIT_OK) {
+            err.println("No files were changed");
+            return EXIT_FAILED;
+        }
+        Map<Path, Map<String, String>> updates = new LinkedHashMap<>();
+        for (TaskResult result : results) {
+            updates.computeIfAbsent(result.file(), ignored -> new LinkedHashMap<>()).put(result.variable(), result.value());
+        }
+        for (Map.Entry<Path, Map<String, String>> update : updates.entrySet()) {
+            EnvironmentFile.update(update.getKey(), update.getValue());
+        }
+        return EXIT_OK;
+    }
+
+    private int printValues(List<TaskResult> results) {
+        for (TaskResult result : results) {
+            if (result.error() == null) {
+                out.println(result.file() + ": " + result.variable() + "=" + result.value());
+            }
+        }
+        return report(results);
+    }
+
+    private int report(List<TaskResult> results) {
+        long failed = results.stream().filter(result -> result.error() != null).count();
+        if (failed > 0) {
+            err.println(failed + " of " + results.size() + " task(s) failed");
+            return EXIT_FAILED;
+        }
+        return EXIT_OK;
+    }
+
+    private SecretKey loadKey(Options options) throws IOException {
+        String encodedKey = Files.exists(options.baseFile())
+                ? EnvironmentFile.parse(options.baseFile()).get(options.keyVariable())
+                : null;
+        if (encodedKey == null) {
+            throw new IllegalStateException("'" + options.keyVariable() + "' is not defined in " + options.baseFile());
+        }
+        return Base64Utils.decodeSecretKey(encodedKey);
+    }
+
+    /**
+     * Applies the updates to the base file, creating it if needed; a {@code null} value removes the variable.
+     */
+    private static void storeVariables(Options options, Map<String, String> updates) throws IOException {
+        if (!Files.exists(options.baseFile())) {
+            if (options.baseFile().getParent() != null) {
+                Files.createDirectories(options.baseFile().getParent());
+            }
+            Files.createFile(options.baseFile());
+        }
+        EnvironmentFile.update(options.baseFile(), updates);
+    }
+
+    private static Options parse(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("no command given");
+        }
+        Command command = Command.of(args[0]);
+        String keyVariable = null;
+        Path baseFile = Path.of(EnvironmentFilePaths.BASE.getPath());
+        List<Path> files = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int threads = defaultThreads();
+        boolean force = false;
+
+        for (int index = 1; index < args.length; index++) {
+            String argument = args[index];
+            switch (argument) {
+                case "--key" -> keyVariable = valueOf(args, ++index, argument);
+                case "--base" -> baseFile = Path.of(valueOf(args, ++index, argument));
+                case "--file" -> files.add(Path.of(valueOf(args, ++index, argument)));
+                case "--threads" -> threads = parseThreads(valueOf(args, ++index, argument));
+                case "--force" -> force = true;
+                default -> {
+                    if (argument.startsWith("--")) {
+                        throw new IllegalArgumentException("unknown option '" + argument + "'");
+                    }
+                    variables.add(argument);
+                }
+            }
+        }
+        if (keyVariable == null) {
+            throw new IllegalArgumentException("--key is required");
+        }
+        return new Options(command, keyVariable, baseFile, List.copyOf(files), List.copyOf(variables), threads, force);
+    }
+
+    private static String valueOf(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " requires a value");
+        }
+        return args[index];
+    }
+
+    private static int parseThreads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads < 1) {
+                throw new IllegalArgumentException("--threads must be at least 1");
+            }
+            return threads;
+        } catch (NumberFormatException error) {
+            throw new IllegalArgumentException("--threads must be a number", error);
+        }
+    }
+
+    private static int defaultThreads() {
+        long byMemory = Math.max(1, Runtime.getRuntime().maxMemory() / DERIVATION_MEMORY_BYTES);
+        return (int) Math.min(Runtime.getRuntime().availableProcessors(), byMemory);
+    }
+
+    private static String taskKey(Path file, String variable) {
+        return file + "\u0000" + variable;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
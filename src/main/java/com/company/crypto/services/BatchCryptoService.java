@@ -0,0 +1,204 @@
+package com.company.crypto.services;
+
+import com.company.core.CryptoFailure;
+import com.company.core.ErrorHandler;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import com.company.core.events.CryptoEvent;
+import com.company.crypto.utils.CryptoConstants;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.company.crypto.services.SecureKeyGenerator.generateSalt;
+import static com.company.crypto.utils.CryptoInputValidator.validateInput;
+
+/**
+ * Encrypts and decrypts many records under one key derivation, for bulk data such as generated test fixtures.
+ * <p>
+ * {@link CryptoService} pays an Argon2 derivation per value. A batch pays it once: the batch key is derived from the
+ * secret key and a fresh salt, and every record is sealed with AES-GCM under that key. Record {@code i} uses the
+ * 96-bit nonce {@code i}, which cannot repeat because each batch has its own key. The batch header is authenticated
+ * with every record, so records cannot be modified, reordered, dropped or moved to another batch without failing
+ * decryption. Records are processed in chunks in parallel, with one reinitialized {@link Cipher} per chunk.
+ * <p>
+ * Output format, big-endian:
+ * <pre>
+ * header  int magic, byte version, salt, int record count
+ * record  int length, AES-GCM cipher text followed by its tag
+ * </pre>
+ */
+public final class BatchCryptoService {
+
+    private static final String SECRET_KEY_INPUT_TYPE = "Secret Key";
+    private static final String RECORDS_INPUT_TYPE = "Records";
+    private static final String BATCH_INPUT_TYPE = "Encrypted Batch";
+
+    private static final int MAGIC = 0x43534231;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int SALT_SIZE = CryptoConstants.SALT_KEY_SIZE.getIntValue();
+    private static final int HEADER_SIZE = Integer.BYTES + 1 + SALT_SIZE + Integer.BYTES;
+    private static final int NONCE_SIZE = CryptoConstants.GCM_NONCE_SIZE.getIntValue();
+    private static final int TAG_BITS = CryptoConstants.GCM_TAG_BITS.getIntValue();
+    private static final int TAG_SIZE = TAG_BITS / Byte.SIZE;
+
+    /**
+     * Records per parallel task; large enough that the per-task cipher lookup is negligible.
+     */
+    private static final int CHUNK_SIZE = 512;
+
+    private static final LatencyHistogram ENCRYPT_BATCH_TIMER = MetricsRegistry.timer("crypto.batch.encrypt");
+    private static final LatencyHistogram DECRYPT_BATCH_TIMER = MetricsRegistry.timer("crypto.batch.decrypt");
+
+    @FunctionalInterface
+    private interface RecordOperation {
+        void apply(Cipher cipher, int index) throws GeneralSecurityException;
+    }
+
+    private BatchCryptoService() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @param key     Secret key, as for {@link CryptoService#encrypt(SecretKey, String)}
+     * @param records Values to encrypt; none may be null
+     * @return The framed batch
+     */
+    public static byte[] encryptBatch(SecretKey key, List<String> records) {
+        validateInput(key, SECRET_KEY_INPUT_TYPE);
+        validateInput(records, RECORDS_INPUT_TYPE);
+
+        long start = System.nanoTime();
+        CryptoEvent event = new CryptoEvent("encryptBatch");
+        event.begin();
+        try {
+            String[] values = records.toArray(String[]::new);
+            if (Arrays.asList(values).contains(null)) {
+                throw new IllegalArgumentException("Records cannot contain null");
+            }
+            byte[] salt = generateSalt();
+            SecretKeySpec batchKey = CryptoService.deriveKey(new String(key.getEncoded(), StandardCharsets.UTF_8), salt);
+            byte[] header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).put(FORMAT_VERSION).put(salt).putInt(values.length)
+                    .array();
+
+            byte[][] sealed = new byte[values.length][];
+            forEachRecord(values.length, (cipher, index) -> {
+                cipher.init(Cipher.ENCRYPT_MODE, batchKey, nonce(index));
+                cipher.updateAAD(header);
+                sealed[index] = cipher.doFinal(values[index].getBytes(StandardCharsets.UTF_8));
+            });
+
+            int size = HEADER_SIZE;
+            for (byte[] record : sealed) {
+                size = Math.addExact(size, Integer.BYTES + record.length);
+            }
+            ByteBuffer output = ByteBuffer.allocate(size).put(header);
+            for (byte[] record : sealed) {
+                output.putInt(record.length).put(record);
+            }
+            event.payloadSize = size;
+            event.succeeded = true;
+            return output.array();
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "encryptBatch", "Failed to encrypt batch");
+            throw CryptoFailure.wrap("Failed to encrypt batch", error);
+        } finally {
+            ENCRYPT_BATCH_TIMER.recordSince(start);
+            event.commit();
+        }
+    }
+
+    /**
+     * @param key   Secret key the batch was encrypted with
+     * @param batch Output of {@link #encryptBatch(SecretKey, List)}
+     * @return The records, in their original order
+     * @throws CryptoFailure If the batch is malformed, was modified or was encrypted with another key
+     */
+    public static List<String> decryptBatch(SecretKey key, byte[] batch) {
+        validateInput(key, SECRET_KEY_INPUT_TYPE);
+        validateInput(batch, BATCH_INPUT_TYPE);
+
+        long start = System.nanoTime();
+        CryptoEvent event = new CryptoEvent("decryptBatch");
+        event.begin();
+        event.payloadSize = batch.length;
+        try {
+            ByteBuffer input = ByteBuffer.wrap(batch);
+            if (batch.length < HEADER_SIZE || input.getInt() != MAGIC || input.get() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Not an encrypted batch of a supported version");
+            }
+            byte[] salt = new byte[SALT_SIZE];
+            input.get(salt);
+            int count = input.getInt();
+            if (count < 0 || count > input.remaining() / (Integer.BYTES + TAG_SIZE)) {
+                throw new IllegalArgumentException("Invalid record count " + count);
+            }
+            byte[] header = Arrays.copyOf(batch, HEADER_SIZE);
+
+            // Record boundaries are checked up front, so the parallel pass only decrypts
+            int[] offsets = new int[count];
+            int[] lengths = new int[count];
+            for (int index = 0; index < count; index++) {
+                int length = input.remaining() >= Integer.BYTES ? input.getInt() : -1;
+                if (length < TAG_SIZE || length > input.remaining()) {
+                    throw new IllegalArgumentException("Record " + index + " is truncated");
+                }
+                offsets[index] = input.position();
+                lengths[index] = length;
+                input.position(input.position() + length);
+            }
+            if (input.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data after the last record");
+            }
+
+            SecretKeySpec batchKey = CryptoService.deriveKey(new String(key.getEncoded(), StandardCharsets.UTF_8), salt);
+            String[] values = new String[count];
+            forEachRecord(count, (cipher, index) -> {
+                cipher.init(Cipher.DECRYPT_MODE, batchKey, nonce(index));
+                cipher.updateAAD(header);
+                values[index] = new String(cipher.doFinal(batch, offsets[index], lengths[index]), StandardCharsets.UTF_8);
+            });
+            event.succeeded = true;
+            return List.of(values);
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "decryptBatch", "Failed to decrypt batch");
+            throw CryptoFailure.wrap("Failed to decrypt batch", error);
+        } finally {
+            DECRYPT_BATCH_TIMER.recordSince(start);
+            event.commit();
+        }
+    }
+
+    private static void forEachRecord(int count, RecordOperation operation) {
+        String transformation = CryptoConstants.AES_GCM.getStringValue();
+        Provider provider = CryptoProviderSelector.providerFor(transformation);
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int index = chunk * CHUNK_SIZE;
+            try {
+                Cipher cipher = Cipher.getInstance(transformation, provider);
+                for (int end = Math.min(count, index + CHUNK_SIZE); index < end; index++) {
+                    operation.apply(cipher, index);
+                }
+            } catch (GeneralSecurityException error) {
+                throw new IllegalStateException("Record " + index + " failed", error);
+            }
+        });
+    }
+
+    private static GCMParameterSpec nonce(int index) {
+        byte[] nonce = new byte[NONCE_SIZE];
+        ByteBuffer.wrap(nonce).putLong(NONCE_SIZE - Long.BYTES, index);
+        return new GCMParameterSpec(TAG_BITS, nonce);
+    }
+}
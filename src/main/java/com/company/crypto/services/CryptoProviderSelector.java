@@ -0,0 +1,362 @@
+package com.company.crypto.services;
+
+import com.company.core.CryptoFailure;
+import com.company.core.ErrorHandler;
+import com.company.core.FileManager;
+import com.company.crypto.utils.CryptoConstants;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pins the JCA provider {@link CryptoService} and {@link BatchCryptoService} use for each cipher and MAC algorithm.
+ * <p>
+ * Every installed provider, plus Bouncy Castle when it is on the classpath but not installed, is a candidate. A
+ * candidate is compliant when it reproduces a published known-answer vector (NIST SP 800-38A for AES-CBC, the GCM
+ * specification's test vectors for AES-GCM, RFC 4231 for HMAC-SHA256). Compliant candidates are warmed up and then
+ * timed in interleaved rounds on the per-call work of the crypto services (instance lookup, init and one
+ * {@value #PAYLOAD_SIZE} byte operation), and the fastest one is pinned. This is usually the intrinsified SunJCE
+ * implementation on hardware with AES and SHA instructions.
+ * <p>
+ * The selection is made once per JVM and logged. When the {@value #CACHE_FILE_PROPERTY} system property names a file,
+ * the result is stored there and reused by later JVMs with the same runtime, architecture and provider versions; only
+ * the known-answer checks are repeated. The {@value #PROVIDER_PROPERTY} system property forces a provider by name.
+ */
+public final class CryptoProviderSelector {
+
+    private static final Logger logger = LoggerUtils.getLogger(CryptoProviderSelector.class);
+
+    public static final String CACHE_FILE_PROPERTY = "crypto.providerCache";
+    public static final String PROVIDER_PROPERTY = "crypto.provider";
+
+    private static final String FINGERPRINT_KEY = "fingerprint";
+    private static final int PAYLOAD_SIZE = 1024;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final long ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * The provider pinned for one algorithm.
+     *
+     * @param opsPerSecond Best measured throughput per compliant candidate; empty when the choice was cached or forced
+     * @param source       How the provider was chosen: {@code benchmark}, {@code cache} or {@code forced}
+     */
+    public record Choice(String algorithm, Provider provider, Map<String, Double> opsPerSecond, String source) {
+
+        @Override
+        public String toString() {
+            String scores = opsPerSecond.entrySet().stream()
+                    .map(entry -> String.format("%s %.0f ops/s", entry.getKey(), entry.getValue()))
+                    .collect(Collectors.joining(", "));
+            return algorithm + " -> " + provider.getName() + " " + provider.getVersionStr() + " (" + source
+                    + (scores.isEmpty() ? "" : ": " + scores) + ")";
+        }
+    }
+
+    /**
+     * Known-answer check and benchmark operation of one algorithm.
+     */
+    private enum Algorithm {
+        AES_CBC(CryptoConstants.AES_CBC_PKCS5.getStringValue()) {
+            // NIST SP 800-38A, F.2.5 CBC-AES256.Encrypt, first block
+            private final byte[] key = HEX.parseHex("603deb1015ca71be2b73aef0857d77811f352c073b6108d72d9810a30914dff4");
+            private final byte[] iv = HEX.parseHex("000102030405060708090a0b0c0d0e0f");
+            private final byte[] plainText = HEX.parseHex("6bc1bee22e409f96e93d7e117393172a");
+            private final byte[] cipherText = HEX.parseHex("f58c4c04d6e5f1ba779eabfb5f7bfbd6");
+
+            @Override
+            boolean isCompliant(Provider provider) throws GeneralSecurityException {
+                byte[] encrypted = run(provider, Cipher.ENCRYPT_MODE, plainText);
+                byte[] decrypted = run(provider, Cipher.DECRYPT_MODE, encrypted);
+                return Arrays.equals(Arrays.copyOf(encrypted, cipherText.length), cipherText)
+                        && Arrays.equals(decrypted, plainText);
+            }
+
+            @Override
+            byte[] run(Provider provider, byte[] payload) throws GeneralSecurityException {
+                return run(provider, Cipher.ENCRYPT_MODE, payload);
+            }
+
+            private byte[] run(Provider provider, int mode, byte[] input) throws GeneralSecurityException {
+                Cipher cipher = Cipher.getInstance(jcaName, provider);
+                cipher.init(mode, new SecretKeySpec(key, CryptoConstants.AES_ALGORITHM.getStringValue()),
+                        new IvParameterSpec(iv));
+                return cipher.doFinal(input);
+            }
+        },
+        AES_GCM(CryptoConstants.AES_GCM.getStringValue()) {
+            // McGrew and Viega, "The Galois/Counter Mode of Operation", test case 14
+            private final byte[] key = new byte[32];
+            private final byte[] nonce = new byte[CryptoConstants.GCM_NONCE_SIZE.getIntValue()];
+            private final byte[] plainText = new byte[16];
+            private final byte[] cipherTextAndTag =
+                    HEX.parseHex("cea7403d4d606b6e074ec5d3baf39d18d0d1c8a799996bf0265b98b5d48ab919");
+
+            @Override
+            boolean isCompliant(Provider provider) throws GeneralSecurityException {
+                byte[] encrypted = run(provider, Cipher.ENCRYPT_MODE, plainText);
+                return Arrays.equals(encrypted, cipherTextAndTag)
+                        && Arrays.equals(run(provider, Cipher.DECRYPT_MODE, encrypted), plainText);
+            }
+
+            @Override
+            byte[] run(Provider provider, byte[] payload) throws GeneralSecurityException {
+                return run(provider, Cipher.ENCRYPT_MODE, payload);
+            }
+
+            private byte[] run(Provider provider, int mode, byte[] input) throws GeneralSecurityException {
+                Cipher cipher = Cipher.getInstance(jcaName, provider);
+                cipher.init(mode, new SecretKeySpec(key, CryptoConstants.AES_ALGORITHM.getStringValue()),
+                        new GCMParameterSpec(CryptoConstants.GCM_TAG_BITS.getIntValue(), nonce));
+                return cipher.doFinal(input);
+            }
+        },
+        HMAC_SHA256(CryptoConstants.HMAC_SHA256.getStringValue()) {
+            // RFC 4231, test case 2
+            private final byte[] key = HEX.parseHex("4a656665");
+            private final byte[] data = HEX.parseHex("7768617420646f2079612077616e7420666f72206e6f7468696e673f");
+            private final byte[] mac = HEX.parseHex("5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843");
+
+            @Override
+            boolean isCompliant(Provider provider) throws GeneralSecurityException {
+                return Arrays.equals(run(provider, data), mac);
+            }
+
+            @Override
+            byte[] run(Provider provider, byte[] payload) throws GeneralSecurityException {
+                Mac instance = Mac.getInstance(jcaName, provider);
+                instance.init(new SecretKeySpec(key, jcaName));
+                return instance.doFinal(payload);
+            }
+        };
+
+        final String jcaName;
+
+        Algorithm(String jcaName) {
+            this.jcaName = jcaName;
+        }
+
+        abstract boolean isCompliant(Provider provider) throws GeneralSecurityException;
+
+        abstract byte[] run(Provider provider, byte[] payload) throws GeneralSecurityException;
+    }
+
+    private static final class SelectionHolder {
+        private static final Map<String, Choice> CHOICES = selectDefault();
+    }
+
+    private CryptoProviderSelector() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @param algorithm Cipher transformation or MAC algorithm, as used with {@code getInstance}
+     * @return The provider pinned for the algorithm in this JVM
+     * @throws IllegalArgumentException If the algorithm is not one the crypto services use
+     */
+    public static Provider providerFor(String algorithm) {
+        Choice choice = SelectionHolder.CHOICES.get(algorithm);
+        if (choice == null) {
+            throw new IllegalArgumentException("No provider selection for algorithm '" + algorithm + "'");
+        }
+        return choice.provider();
+    }
+
+    /**
+     * @return The choices made for this JVM, by algorithm
+     */
+    public static Map<String, Choice> selections() {
+        return SelectionHolder.CHOICES;
+    }
+
+    /**
+     * Selects a provider for every algorithm the crypto services use.
+     *
+     * @param cacheFile      File to read a previous result from and write this one to, or {@code null} for none
+     * @param forcedProvider Name of the provider to use for every algorithm, or {@code null} to select one
+     * @return The choices, by algorithm
+     */
+    public static Map<String, Choice> select(Path cacheFile, String forcedProvider) {
+        try {
+            List<Provider> candidates = candidates();
+            String fingerprint = fingerprint(candidates);
+            Map<String, String> cached = forcedProvider == null ? readCache(cacheFile, fingerprint) : Map.of();
+
+            Map<String, Choice> choices = new LinkedHashMap<>();
+            for (Algorithm algorithm : Algorithm.values()) {
+                List<Provider> compliant = compliantCandidates(algorithm, candidates);
+                if (compliant.isEmpty()) {
+                    throw new IllegalStateException("No compliant provider for " + algorithm.jcaName);
+                }
+                choices.put(algorithm.jcaName, choose(algorithm, compliant, cached.get(algorithm.jcaName), forcedProvider));
+            }
+            if (forcedProvider == null && cached.size() != choices.size()) {
+                writeCache(cacheFile, fingerprint, choices);
+            }
+            return Collections.unmodifiableMap(choices);
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "select", "Failed to select crypto providers");
+            throw CryptoFailure.wrap("Failed to select crypto providers", error);
+        }
+    }
+
+    private static Map<String, Choice> selectDefault() {
+        String cacheFile = System.getProperty(CACHE_FILE_PROPERTY);
+        Map<String, Choice> choices = select(cacheFile == null ? null : Path.of(cacheFile),
+                System.getProperty(PROVIDER_PROPERTY));
+        choices.values().forEach(choice -> logger.info("Crypto provider: {}", choice));
+        return choices;
+    }
+
+    private static Choice choose(Algorithm algorithm, List<Provider> compliant, String cachedName, String forcedName)
+            throws GeneralSecurityException {
+        if (forcedName != null) {
+            return new Choice(algorithm.jcaName, named(compliant, forcedName, algorithm), Map.of(), "forced");
+        }
+        for (Provider provider : compliant) {
+            if (provider.getName().equals(cachedName)) {
+                return new Choice(algorithm.jcaName, provider, Map.of(), "cache");
+            }
+        }
+        return benchmark(algorithm, compliant);
+    }
+
+    private static Provider named(List<Provider> compliant, String name, Algorithm algorithm) {
+        for (Provider provider : compliant) {
+            if (provider.getName().equals(name)) {
+                return provider;
+            }
+        }
+        throw new IllegalStateException("Provider '" + name + "' set by " + PROVIDER_PROPERTY
+                + " is not available or not compliant for " + algorithm.jcaName);
+    }
+
+    /**
+     * Times the candidates in interleaved rounds after unscored warm-up rounds, so JIT compilation and noise do not
+     * favor whichever runs last, and keeps each candidate's best round.
+     */
+    private static Choice benchmark(Algorithm algorithm, List<Provider> compliant) throws GeneralSecurityException {
+        byte[] payload = new byte[PAYLOAD_SIZE];
+        Map<String, Double> best = new LinkedHashMap<>();
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            for (Provider provider : compliant) {
+                long operations = 0;
+                long start = System.nanoTime();
+                long elapsed;
+                do {
+                    algorithm.run(provider, payload);
+                    operations++;
+                    elapsed = System.nanoTime() - start;
+                } while (elapsed < ROUND_NANOS);
+                if (round < WARMUP_ROUNDS) {
+                    continue;
+                }
+                double opsPerSecond = operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+                best.merge(provider.getName(), opsPerSecond, Math::max);
+            }
+        }
+        Provider fastest = compliant.get(0);
+        for (Provider provider : compliant) {
+            if (best.get(provider.getName()) > best.get(fastest.getName())) {
+                fastest = provider;
+            }
+        }
+        return new Choice(algorithm.jcaName, fastest, Collections.unmodifiableMap(best), "benchmark");
+    }
+
+    private static List<Provider> candidates() {
+        List<Provider> candidates = new ArrayList<>(Arrays.asList(Security.getProviders()));
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            candidates.add(new BouncyCastleProvider());
+        }
+        return candidates;
+    }
+
+    private static List<Provider> compliantCandidates(Algorithm algorithm, List<Provider> candidates) {
+        List<Provider> compliant = new ArrayList<>();
+        for (Provider provider : candidates) {
+            try {
+                if (algorithm.isCompliant(provider)) {
+                    compliant.add(provider);
+                } else {
+                    logger.warn("Provider {} failed the {} known-answer test", provider.getName(), algorithm.jcaName);
+                }
+            } catch (GeneralSecurityException | RuntimeException error) {
+                // Most installed providers do not implement every algorithm
+                logger.debug("Provider {} not usable for {}: {}", provider.getName(), algorithm.jcaName, error.toString());
+            }
+        }
+        return compliant;
+    }
+
+    private static String fingerprint(List<Provider> candidates) {
+        return System.getProperty("java.vm.vendor") + "|" + System.getProperty("java.vm.version")
+                + "|" + System.getProperty("os.arch") + "|" + candidates.stream()
+                .map(provider -> provider.getName() + ":" + provider.getVersionStr())
+                .collect(Collectors.joining(","));
+    }
+
+    private static Map<String, String> readCache(Path cacheFile, String fingerprint) {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return Map.of();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(cacheFile)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException error) {
+            logger.warn("Ignoring crypto provider cache '{}': {}", cacheFile, error.getMessage());
+            return Map.of();
+        }
+        if (!fingerprint.equals(properties.getProperty(FINGERPRINT_KEY))) {
+            return Map.of();
+        }
+        Map<String, String> names = new LinkedHashMap<>();
+        properties.stringPropertyNames().stream()
+                .filter(key -> !key.equals(FINGERPRINT_KEY))
+                .forEach(key -> names.put(key, properties.getProperty(key)));
+        return names;
+    }
+
+    private static void writeCache(Path cacheFile, String fingerprint, Map<String, Choice> choices) {
+        if (cacheFile == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(FINGERPRINT_KEY, fingerprint);
+        choices.forEach((algorithm, choice) -> properties.setProperty(algorithm, choice.provider().getName()));
+        try {
+            StringWriter writer = new StringWriter();
+            properties.store(writer, "Crypto provider selection; delete to benchmark again");
+            FileManager.writeAtomically(cacheFile, writer.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException error) {
+            logger.warn("Could not write crypto provider cache '{}': {}", cacheFile, error.getMessage());
+        }
+    }
+}
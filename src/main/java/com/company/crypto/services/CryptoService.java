@@ -1,9 +1,12 @@
 package com.company.crypto.services;
 
+import com.company.core.CryptoFailure;
 import com.company.core.ErrorHandler;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import com.company.core.events.CryptoEvent;
 import com.company.crypto.utils.CryptoConstants;
 import com.company.utils.Base64Utils;
-import org.bouncycastle.crypto.CryptoException;
 import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
 import org.bouncycastle.crypto.params.Argon2Parameters;
 
@@ -15,8 +18,10 @@ import javax.crypto.spec.SecretKeySpec;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.util.Arrays;
+import java.util.concurrent.Semaphore;
 
 import static com.company.crypto.services.SecureKeyGenerator.generateIv;
 import static com.company.crypto.services.SecureKeyGenerator.generateSalt;
@@ -28,11 +33,32 @@ public class CryptoService {
     private static final String DATA_INPUT_TYPE = "Data";
     private static final String ENCRYPTED_DATA_INPUT_TYPE = "Encrypted Data";
 
+    private static final LatencyHistogram DERIVE_KEY_TIMER = MetricsRegistry.timer("crypto.deriveKey");
+    private static final LatencyHistogram ENCRYPT_CIPHER_TIMER = MetricsRegistry.timer("crypto.cipher.encrypt");
+    private static final LatencyHistogram DECRYPT_CIPHER_TIMER = MetricsRegistry.timer("crypto.cipher.decrypt");
+
+    /**
+     * Heap filled by one Argon2 derivation.
+     * <p>
+     * Known defect: {@link #argon2Parameters} passes {@code ARGON2_MEMORY} as the lane count instead of
+     * {@code ARGON2_PARALLELISM}, so Argon2 runs 65536 lanes of at least 8 KB each and every derivation fills 512 MB
+     * instead of the configured 64 MB, which also makes it several times slower. Derived keys depend on the lane count,
+     * so correcting it needs every stored secret to be re-encrypted in the same change.
+     */
+    private static final long DERIVATION_MEMORY_BYTES = 8L * CryptoConstants.ARGON2_MEMORY.getIntValue() * 1024;
+
+    /**
+     * Caps concurrent derivations to half the heap, so parallel suites and worker pools queue for a derivation
+     * instead of failing with an {@link OutOfMemoryError}.
+     */
+    private static final Semaphore DERIVATION_PERMITS = new Semaphore(
+            (int) Math.max(1, Runtime.getRuntime().maxMemory() / 2 / DERIVATION_MEMORY_BYTES), true);
+
     private CryptoService() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
 
-    private record EncryptionComponents(byte[] salt, byte[] iv, byte[] cipherText, byte[] mac) {
+    record EncryptionComponents(byte[] salt, byte[] iv, byte[] cipherText, byte[] mac) {
         public byte[] combine() {
             return ByteBuffer.allocate(salt.length + iv.length + cipherText.length + mac.length)
                     .put(salt)
@@ -73,98 +99,156 @@ public class CryptoService {
     }
 
     // region Encryption/Decryption Methods
-    public static String encrypt(SecretKey key, String data) throws CryptoException {
+    public static String encrypt(SecretKey key, String data) {
         validateInput(key, SECRET_KEY_INPUT_TYPE);
         validateInput(data, DATA_INPUT_TYPE);
 
+        CryptoEvent event = new CryptoEvent("encrypt");
+        event.begin();
         try {
             byte[] salt = generateSalt();
             byte[] iv = generateIv();
             SecretKeySpec derivedKey = deriveKey(new String(key.getEncoded(), StandardCharsets.UTF_8), salt);
 
             Cipher cipher = initializeCipher(iv, derivedKey, Cipher.ENCRYPT_MODE);
-            byte[] cipherText = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            long cipherStart = System.nanoTime();
+            byte[] plainText = data.getBytes(StandardCharsets.UTF_8);
+            event.payloadSize = plainText.length;
+            byte[] cipherText = cipher.doFinal(plainText);
+            ENCRYPT_CIPHER_TIMER.recordSince(cipherStart);
             byte[] mac = generateMac(salt, iv, cipherText, derivedKey.getEncoded());
 
             EncryptionComponents components = new EncryptionComponents(salt, iv, cipherText, mac);
-            return Base64Utils.encodeArray(components.combine());
-        } catch (Exception error) {
+            String encrypted = Base64Utils.encodeArray(components.combine());
+            event.succeeded = true;
+            return encrypted;
+        } catch (GeneralSecurityException error) {
             ErrorHandler.logError(error, "encrypt", "Failed to encrypt data");
-            throw new CryptoException("Encryption failed", error);
+            throw new CryptoFailure("Encryption failed", error);
+        } catch (RuntimeException error) {
+            // Framework exceptions from the key derivation or the MAC already carry their type and trace
+            ErrorHandler.logError(error, "encrypt", "Failed to encrypt data");
+            throw error;
+        } finally {
+            event.commit();
         }
     }
 
-    public static String decrypt(SecretKey key, String encryptedData) throws CryptoException {
+    public static String decrypt(SecretKey key, String encryptedData) {
         validateInput(key, SECRET_KEY_INPUT_TYPE);
         validateInput(encryptedData, ENCRYPTED_DATA_INPUT_TYPE);
 
+        CryptoEvent event = new CryptoEvent("decrypt");
+        event.begin();
         try {
             byte[] combined = Base64Utils.decodeToArray(encryptedData);
             EncryptionComponents components = EncryptionComponents.extract(combined);
+            event.payloadSize = components.cipherText().length;
 
             SecretKeySpec derivedKey = deriveKey(new String(key.getEncoded(), StandardCharsets.UTF_8),
                     components.salt());
 
             verifyMac(components, derivedKey);
             Cipher cipher = initializeCipher(components.iv(), derivedKey, Cipher.DECRYPT_MODE);
+            long cipherStart = System.nanoTime();
             byte[] decryptedBytes = cipher.doFinal(components.cipherText());
+            DECRYPT_CIPHER_TIMER.recordSince(cipherStart);
 
+            event.succeeded = true;
             return new String(decryptedBytes, StandardCharsets.UTF_8);
-        } catch (Exception error) {
+        } catch (GeneralSecurityException error) {
+            ErrorHandler.logError(error, "decrypt", "Failed to decrypt data");
+            throw new CryptoFailure("Decryption failed", error);
+        } catch (RuntimeException error) {
             ErrorHandler.logError(error, "decrypt", "Failed to decrypt data");
-            throw new CryptoException("Decryption failed", error);
+            throw error;
+        } finally {
+            event.commit();
         }
     }
 
-    private static SecretKeySpec deriveKey(String secretKey, byte[] salt) {
-        try {
-            Argon2Parameters params = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
-                    .withSalt(salt)
-                    .withIterations(CryptoConstants.ARGON2_ITERATIONS.getIntValue())
-                    .withMemoryAsKB(CryptoConstants.ARGON2_MEMORY.getIntValue())
-                    .withParallelism(CryptoConstants.ARGON2_MEMORY.getIntValue())
-                    .build();
+    /**
+     * Describes the Argon2 parameters every key derivation uses, so measurements can be tied to the configuration they
+     * were taken with.
+     *
+     * @return The parameters as {@code argon2id,m=<memory KB>,t=<iterations>,p=<lanes>}
+     */
+    public static String keyDerivationParameters() {
+        Argon2Parameters params = argon2Parameters(new byte[0]);
+        return "argon2id,m=" + params.getMemory() + ",t=" + params.getIterations() + ",p=" + params.getLanes();
+    }
+
+    private static Argon2Parameters argon2Parameters(byte[] salt) {
+        return new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withSalt(salt)
+                .withIterations(CryptoConstants.ARGON2_ITERATIONS.getIntValue())
+                .withMemoryAsKB(CryptoConstants.ARGON2_MEMORY.getIntValue())
+                // Known defect, see DERIVATION_MEMORY_BYTES
+                .withParallelism(CryptoConstants.ARGON2_MEMORY.getIntValue())
+                .build();
+    }
 
-            Argon2BytesGenerator generator = new Argon2BytesGenerator();
-            generator.init(params);
+    static SecretKeySpec deriveKey(String secretKey, byte[] salt) {
+        long start = System.nanoTime();
+        CryptoEvent event = new CryptoEvent("deriveKey");
+        event.begin();
+        try {
+            Argon2Parameters params = argon2Parameters(salt);
 
             byte[] result = new byte[CryptoConstants.AES_SECRET_KEY_SIZE.getIntValue()];
-            generator.generateBytes(secretKey.getBytes(StandardCharsets.UTF_8), result);
+            // The generator allocates its memory blocks in init, so the permit covers it
+            DERIVATION_PERMITS.acquire();
+            try {
+                Argon2BytesGenerator generator = new Argon2BytesGenerator();
+                generator.init(params);
+                generator.generateBytes(secretKey.getBytes(StandardCharsets.UTF_8), result);
+            } finally {
+                DERIVATION_PERMITS.release();
+            }
 
+            event.payloadSize = result.length;
+            event.succeeded = true;
             return new SecretKeySpec(result, CryptoConstants.AES_ALGORITHM.getStringValue());
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            ErrorHandler.logError(error, "deriveKey", "Interrupted while waiting to derive key");
+            throw new CryptoFailure("Interrupted while waiting to derive key", error);
         } catch (Exception error) {
             ErrorHandler.logError(error, "deriveKey", "Failed to derive key");
-            throw new IllegalStateException("Failed to derive key", error);
+            throw new CryptoFailure("Failed to derive key", error);
         } finally {
+            DERIVE_KEY_TIMER.recordSince(start);
+            event.commit();
             Arrays.fill(secretKey.toCharArray(), '\0');
         }
     }
 
-    private static Cipher initializeCipher(byte[] iv, SecretKeySpec key, int mode) throws Exception {
+    private static Cipher initializeCipher(byte[] iv, SecretKeySpec key, int mode) {
         try{
-            Cipher cipher = Cipher.getInstance(CryptoConstants.AES_CBC_PKCS5.getStringValue());
+            String transformation = CryptoConstants.AES_CBC_PKCS5.getStringValue();
+            Cipher cipher = Cipher.getInstance(transformation, CryptoProviderSelector.providerFor(transformation));
             cipher.init(mode, key, new IvParameterSpec(iv));
             return cipher;
         } catch (Exception error) {
             ErrorHandler.logError(error, "initializeCipher", "Failed to initialize cipher");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to initialize cipher", error);
         }
     }
 
-    private static byte[] generateMac(byte[] salt, byte[] iv, byte[] cipherText, byte[] key) throws Exception {
+    private static byte[] generateMac(byte[] salt, byte[] iv, byte[] cipherText, byte[] key) {
         try{
             String macSha256= CryptoConstants.HMAC_SHA256.getStringValue();
-            Mac mac = Mac.getInstance(macSha256);
+            Mac mac = Mac.getInstance(macSha256, CryptoProviderSelector.providerFor(macSha256));
             mac.init(new SecretKeySpec(key, macSha256));
             return mac.doFinal(ByteBuffer.allocate(salt.length + iv.length + cipherText.length)
                     .put(salt).put(iv).put(cipherText).array());
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateMac", "Failed to generate MAC");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate MAC", error);
         }
     }
 
-    private static void verifyMac(EncryptionComponents components, SecretKeySpec key) throws Exception {
+    private static void verifyMac(EncryptionComponents components, SecretKeySpec key) {
         try {
             byte[] computedMac = generateMac(components.salt(), components.iv(),
                     components.cipherText(), key.getEncoded());
@@ -173,7 +257,7 @@ public class CryptoService {
             }
         } catch (Exception error) {
             ErrorHandler.logError(error, "verifyMac", "Failed to verify MAC");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to verify MAC", error);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.company.crypto.services;
 
+import com.company.core.CryptoFailure;
 import com.company.core.ErrorHandler;
 import com.company.crypto.utils.CryptoConstants;
 
@@ -12,7 +13,11 @@ import static com.company.crypto.utils.CryptoInputValidator.validateSize;
 
 public class SecureKeyGenerator {
 
-    private static final ThreadLocal<SecureRandom> SECURE_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+    /**
+     * One shared instance: the JDK's default SecureRandom implementations are thread-safe, and a per-thread instance
+     * would be created and seeded again for every virtual thread.
+     */
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     private static final String IV_PARAMETER = "IV";
     private static final String SALT_PARAMETER = "Salt";
 
@@ -28,7 +33,7 @@ public class SecureKeyGenerator {
             return generateIv(CryptoConstants.IV_KEY_SIZE.getIntValue());
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateIv", "Failed to generate IV");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate IV", error);
         }
     }
 
@@ -41,7 +46,7 @@ public class SecureKeyGenerator {
             return generateRandomBytes(size);
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateIv", "Failed to generate IV");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate IV", error);
         }
     }
 
@@ -53,7 +58,7 @@ public class SecureKeyGenerator {
             return generateSalt(CryptoConstants.SALT_KEY_SIZE.getIntValue());
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateSalt", "Failed to generate salt");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate salt", error);
         }
     }
 
@@ -66,7 +71,7 @@ public class SecureKeyGenerator {
             return generateRandomBytes(size);
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateSalt", "Failed to generate salt");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate salt", error);
         }
     }
 
@@ -78,7 +83,7 @@ public class SecureKeyGenerator {
             return generateSecretKey(CryptoConstants.AES_SECRET_KEY_SIZE.getIntValue());
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateSecretKey", "Failed to generate secret key");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate secret key", error);
         }
     }
 
@@ -92,7 +97,7 @@ public class SecureKeyGenerator {
             return new SecretKeySpec(keyBytes, CryptoConstants.AES_ALGORITHM.getStringValue());
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateSecretKey", "Failed to generate secret key");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate secret key", error);
         }
     }
 
@@ -103,11 +108,11 @@ public class SecureKeyGenerator {
             }
 
             byte[] bytes = new byte[size];
-            SECURE_RANDOM.get().nextBytes(bytes);
+            SECURE_RANDOM.nextBytes(bytes);
             return bytes;
         } catch (Exception error) {
             ErrorHandler.logError(error, "generateRandomBytes", "Failed to generate random bytes");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to generate random bytes", error);
         }
     }
 
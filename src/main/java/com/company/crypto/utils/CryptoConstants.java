@@ -4,6 +4,7 @@ public enum CryptoConstants {
 
     AES_ALGORITHM("AES"),
     AES_CBC_PKCS5("AES/CBC/PKCS5Padding"),
+    AES_GCM("AES/GCM/NoPadding"),
     PBKDF2("PBKDF2WithHmacSHA256"),
     HMAC_SHA256("HmacSHA256"),
     ARGON2_ITERATIONS(3),
@@ -12,7 +13,9 @@ public enum CryptoConstants {
     AES_SECRET_KEY_SIZE(32),
     IV_KEY_SIZE(16),
     SALT_KEY_SIZE(32),
-    HMAC_KEY_SIZE(32);
+    HMAC_KEY_SIZE(32),
+    GCM_NONCE_SIZE(12),
+    GCM_TAG_BITS(128);
 
     private final Object value;
 
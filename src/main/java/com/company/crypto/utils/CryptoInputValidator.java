@@ -1,6 +1,7 @@
 package com.company.crypto.utils;
 
 import com.company.core.ErrorHandler;
+import com.company.core.ValidationException;
 
 public class CryptoInputValidator {
 
@@ -13,39 +14,30 @@ public class CryptoInputValidator {
      *
      * @param input the input to validate
      * @param paramName the name of the parameter for error messages
-     * @throws IllegalArgumentException if the input is null or empty
+     * @throws ValidationException if the input is null or empty
      */
     public static void validateInput(Object input, String paramName) {
-        try {
-            if (input == null || (input instanceof String s && s.isEmpty()) ||
-                    (input instanceof byte[] b && b.length == 0)) {
-                throw new IllegalArgumentException(paramName + " cannot be null or empty");
-            }
-        } catch (Exception error) {
-            ErrorHandler.logError(error, "validateInput", "Failed to validate input");
-            throw new RuntimeException(error);
+        if (input == null || (input instanceof String s && s.isEmpty()) ||
+                (input instanceof byte[] b && b.length == 0)) {
+            throw reject(paramName + " cannot be null or empty", "validateInput", "Failed to validate input");
         }
     }
 
     public static void validateSize(int size, String parameter) {
-        try {
-            if (size <= 0) {
-                throw new IllegalArgumentException(parameter + " size must be positive");
-            }
-        } catch (Exception error) {
-            ErrorHandler.logError(error, "validateSize", "Failed to validate size");
-            throw new RuntimeException(error);
+        if (size <= 0) {
+            throw reject(parameter + " size must be positive", "validateSize", "Failed to validate size");
         }
     }
 
     public static void validateKeySize(int sizeInBytes) {
-        try {
-            if (sizeInBytes != 16 && sizeInBytes != 24 && sizeInBytes != 32) {
-                throw new IllegalArgumentException("AES key size must be 16, 24, or 32 bytes");
-            }
-        } catch (Exception error) {
-            ErrorHandler.logError(error, "validateKeySize", "Failed to validate key size");
-            throw new RuntimeException(error);
+        if (sizeInBytes != 16 && sizeInBytes != 24 && sizeInBytes != 32) {
+            throw reject("AES key size must be 16, 24, or 32 bytes", "validateKeySize", "Failed to validate key size");
         }
     }
+
+    private static ValidationException reject(String message, String methodName, String errorMessage) {
+        ValidationException error = new ValidationException(message);
+        ErrorHandler.logError(error, methodName, errorMessage);
+        return error;
+    }
 }
@@ -1,23 +1,31 @@
 package com.company.crypto.utils;
 
+import com.company.configurations.cache.SharedConfigCache;
 import com.company.configurations.environments.EnvironmentConfigManager;
+import com.company.configurations.environments.EnvironmentFile;
 import com.company.configurations.environments.EnvironmentFileAlias;
 import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.core.CryptoFailure;
 import com.company.core.ErrorHandler;
 import com.company.core.FileManager;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import com.company.core.events.CryptoEvent;
+import com.company.core.events.EnvironmentUpdateEvent;
 import com.company.crypto.services.CryptoService;
 import com.company.utils.LoggerUtils;
 import org.apache.logging.log4j.Logger;
-import org.bouncycastle.crypto.CryptoException;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 
@@ -25,6 +33,8 @@ public class CryptoServiceUtils {
 
     private static final Logger logger = LoggerUtils.getLogger(CryptoServiceUtils.class);
 
+    private static final LatencyHistogram UPDATE_ENVIRONMENT_TIMER = MetricsRegistry.timer("config.environment.update");
+
     private CryptoServiceUtils() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
@@ -36,11 +46,14 @@ public class CryptoServiceUtils {
             String... envVariables
     ) {
         try {
-
+            Map<String, String> encryptedValues = new LinkedHashMap<>();
             for (String envVariable : envVariables) {
-                encryptEnvironmentVariables(filePath, aliasName, environmentSecretKeyType, envVariable);
+                encryptedValues.put(envVariable, encryptValue(aliasName, envVariable, environmentSecretKeyType));
             }
 
+            // All variables are written back in a single pass over the file
+            updateEnvironmentVariables(filePath, encryptedValues);
+            logger.info("Variables {} encrypted successfully.", encryptedValues.keySet());
         } catch (Exception error) {
             ErrorHandler.logError(error, "encryptEnvironmentVariables", "Failed to encrypt multiple variables");
             throw error;
@@ -54,13 +67,13 @@ public class CryptoServiceUtils {
             String envVariable
     ) {
         try {
-            String encryptedValue = encryptValue(environmentSecretKeyType, getEnvironmentVariable(aliasName, envVariable));
+            String encryptedValue = encryptValue(aliasName, envVariable, environmentSecretKeyType);
             updateEnvironmentVariable(filePath, envVariable, encryptedValue);
             logger.info("Variable '{}' encrypted successfully.", envVariable);
 
         } catch (Exception error) {
             ErrorHandler.logError(error, "encryptEnvironmentVariables", "Failed to encrypt variable: " + envVariable);
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to encrypt variable: " + envVariable, error);
         }
     }
 
@@ -73,20 +86,28 @@ public class CryptoServiceUtils {
         return envValue;
         } catch (Exception error) {
             ErrorHandler.logError(error, "getEnvironmentVariable", "Failed to get environment variable: " + envVariable);
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to get environment variable: " + envVariable, error);
         }
     }
 
-    private static String encryptValue(String environmentSecretKeyType, String envValue) {
+    private static String encryptValue(String aliasName, String envVariable, String environmentSecretKeyType) {
+        CryptoEvent event = secretEvent("encryptKey", aliasName, envVariable);
+        event.begin();
         try {
+            String envValue = getEnvironmentVariable(aliasName, envVariable);
             String encryptedValue = CryptoService.encrypt(getSecretKey(EnvironmentFileAlias.BASE.getAlias(), environmentSecretKeyType), envValue);
             if (encryptedValue == null) {
-                throw new IllegalArgumentException("Failed to encrypt value for variable: " + envValue);
+                throw new IllegalArgumentException("Encryption returned no value");
             }
+            event.payloadSize = envValue.length();
+            event.succeeded = true;
             return encryptedValue;
         } catch (Exception error) {
-            ErrorHandler.logError(error, "encryptValue", "Failed to encrypt value for variable: " + envValue);
-            throw new RuntimeException(error);
+            // The value is a secret, so it is never included in the message
+            ErrorHandler.logError(error, "encryptValue", "Failed to encrypt value");
+            throw CryptoFailure.wrap("Failed to encrypt value", error);
+        } finally {
+            event.commit();
         }
     }
 
@@ -101,7 +122,7 @@ public class CryptoServiceUtils {
             logger.info("Secret key saved for variable '{}'", secretKeyVariable);
         } catch (Exception error) {
             ErrorHandler.logError(error, "saveSecretKeyInBaseEnvironment", "Failed to save secret key in base environment");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to save secret key in base environment", error);
         }
     }
 
@@ -114,49 +135,35 @@ public class CryptoServiceUtils {
             );
         } catch (IOException error) {
             ErrorHandler.logError(error, "ensureEnvironmentFileExists", "Failed to ensure environment file exists");
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to ensure environment file exists", error);
         }
     }
 
     private static void updateEnvironmentVariable(String filePath, String envVariable, String value) {
-        try {
-            Path path = Paths.get(filePath);
-            List<String> updatedLines = updateEnvironmentLines(Files.readAllLines(path), envVariable, value);
-
-            Files.write(path, updatedLines);
-            logger.info("Environment variable '{}' updated in {}", envVariable, filePath);
-        } catch (IOException error) {
-            ErrorHandler.logError(error, "updateEnvironmentVariable", "Failed to update environment variable: " + envVariable);
-            throw new RuntimeException(error);
-        }
+        updateEnvironmentVariables(filePath, Map.of(envVariable, value));
     }
 
-    private static List<String> updateEnvironmentLines(
-            List<String> existingLines,
-            String envVariable,
-            String value
-    ) {
+    private static void updateEnvironmentVariables(String filePath, Map<String, String> values) {
+        long start = System.nanoTime();
+        EnvironmentUpdateEvent event = new EnvironmentUpdateEvent(filePath);
+        event.begin();
         try {
-            boolean[] isUpdated = {false};
-
-            List<String> updatedLines = existingLines.stream()
-                    .map(line -> {
-                        if (line.startsWith(envVariable + "=")) {
-                            isUpdated[0] = true;
-                            return envVariable + "=" + value;
-                        }
-                        return line;
-                    })
-                    .collect(Collectors.toList());
-
-            if (!isUpdated[0]) {
-                updatedLines.add(envVariable + "=" + value);
+            Path envFile = Paths.get(filePath);
+            EnvironmentFile.update(envFile, values);
+            // Aliases already loaded from the file would otherwise keep serving the values it held before the write
+            EnvironmentConfigManager.reloadConfigurationsFor(envFile);
+            event.succeeded = true;
+            logger.info("Environment variables {} updated in {}", values.keySet(), filePath);
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "updateEnvironmentVariables", "Failed to update environment variables: " + values.keySet());
+            throw CryptoFailure.wrap("Failed to update environment variables: " + values.keySet(), error);
+        } finally {
+            UPDATE_ENVIRONMENT_TIMER.recordSince(start);
+            if (event.shouldCommit()) {
+                event.keyNames = String.join(",", values.keySet());
+                event.keyCount = values.size();
+                event.commit();
             }
-
-            return updatedLines;
-        } catch (Exception error) {
-            ErrorHandler.logError(error, "updateEnvironmentLines", "Failed to update environment lines");
-            throw new RuntimeException(error);
         }
     }
 
@@ -174,7 +181,7 @@ public class CryptoServiceUtils {
                     .map(key -> decryptSingleKey(aliasName, getSecretKey(EnvironmentFileAlias.BASE.getAlias(), environmentSecretKeyType), key))
                     .collect(Collectors.toList());
         } catch (Exception error) {
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to decrypt environment variables", error);
         }
     }
 
@@ -186,7 +193,7 @@ public class CryptoServiceUtils {
         try {
             return decryptSingleKey(aliasName, getSecretKey(EnvironmentFileAlias.BASE.getAlias(), environmentSecretKeyType), requiredKey);
         } catch (Exception error) {
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to decrypt environment variable: " + requiredKey, error);
         }
     }
 
@@ -194,17 +201,39 @@ public class CryptoServiceUtils {
         try {
             return EnvironmentConfigManager.getSecretKeyFromCache(aliasName, environmentSecretKeyType);
         } catch (Exception error) {
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to retrieve secret key: " + environmentSecretKeyType, error);
         }
     }
 
     private static String decryptSingleKey(String aliasName, SecretKey secretKey, String key) {
+        CryptoEvent event = secretEvent("decryptKey", aliasName, key);
+        event.begin();
         try {
             String encryptedValue = EnvironmentConfigManager.getEnvironmentKeyFromCache(aliasName, key);
-            return CryptoService.decrypt(secretKey, encryptedValue);
-        } catch (CryptoException error) {
+            event.payloadSize = encryptedValue.length();
+
+            // Skips the Argon2 derivation when another fork already decrypted this exact value
+            Optional<String> sharedValue = SharedConfigCache.lookupSecret(secretKey, aliasName, key, encryptedValue);
+            if (sharedValue.isPresent()) {
+                event.succeeded = true;
+                return sharedValue.get();
+            }
+            String decryptedValue = CryptoService.decrypt(secretKey, encryptedValue);
+            SharedConfigCache.publishSecret(secretKey, aliasName, key, encryptedValue, decryptedValue);
+            event.succeeded = true;
+            return decryptedValue;
+        } catch (RuntimeException error) {
             ErrorHandler.logError(error, "decryptKeys", "Failed to decrypt key: " + key);
-            throw new RuntimeException(error);
+            throw CryptoFailure.wrap("Failed to decrypt key: " + key, error);
+        } finally {
+            event.commit();
         }
     }
+
+    private static CryptoEvent secretEvent(String operation, String aliasName, String key) {
+        CryptoEvent event = new CryptoEvent(operation);
+        event.alias = aliasName;
+        event.keyName = key;
+        return event;
+    }
 }
@@ -0,0 +1,7 @@
+package com.company.drivers;
+
+public enum BrowserType {
+    CHROME,
+    FIREFOX,
+    EDGE
+}
@@ -0,0 +1,16 @@
+package com.company.drivers;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Starts browser sessions for a {@link DriverPool}. Tests of the pool supply a fake implementation.
+ */
+@FunctionalInterface
+public interface DriverFactory {
+
+    /**
+     * @param key The browser and capabilities of the session
+     * @return A new session
+     */
+    WebDriver create(DriverKey key);
+}
@@ -0,0 +1,31 @@
+package com.company.drivers;
+
+import org.openqa.selenium.Capabilities;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identifies the sessions a {@link DriverPool} may hand out for the same request: same browser, same capabilities.
+ *
+ * @param browser      The browser to run
+ * @param capabilities Capabilities on top of the browser defaults; stored sorted and unmodifiable
+ */
+public record DriverKey(BrowserType browser, Map<String, Object> capabilities) {
+
+    public DriverKey {
+        if (browser == null) {
+            throw new IllegalArgumentException("Browser cannot be null");
+        }
+        capabilities = Collections.unmodifiableMap(new TreeMap<>(capabilities == null ? Map.of() : capabilities));
+    }
+
+    public static DriverKey of(BrowserType browser) {
+        return new DriverKey(browser, Map.of());
+    }
+
+    public static DriverKey of(BrowserType browser, Capabilities capabilities) {
+        return new DriverKey(browser, capabilities.asMap());
+    }
+}
@@ -0,0 +1,461 @@
+package com.company.drivers;
+
+import com.company.core.DriverFailure;
+import com.company.core.ErrorHandler;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, thread-safe pool of browser sessions keyed by {@link DriverKey}.
+ * <p>
+ * {@link #borrow(DriverKey)} hands out an idle session of the same key after a health check, starts a new one while the
+ * pool is below {@code maxSessions}, replaces an idle session of another key when the pool is full, and otherwise
+ * waits up to {@code borrowTimeout}. {@link #release(WebDriver)} resets the session for the next test (extra windows
+ * closed, web storage and cookies of the current site cleared, {@code about:blank} loaded) and returns it, unless it
+ * has reached {@code maxUsesPerSession} or the reset fails, in which case it is quit. Browsers are started and quit
+ * outside the pool lock, so a slow browser never blocks other borrowers.
+ * <p>
+ * Each pool counts its own wait time and sessions created, reused, retired, found unhealthy and displaced by a session
+ * of another key, so {@link #statistics()} only ever describes this pool. A session leaves the pool through exactly one
+ * of the last three counts; retired sessions are those quit after their last use, a failed reset,
+ * {@link #invalidate(WebDriver)} or {@link #close()}. The counts are exported as {@link MetricsRegistry} gauges under
+ * {@code drivers.<pool name>.}; a pool built later under the same name takes the gauges over, and {@link #close()}
+ * removes those still pointing at this pool.
+ */
+public final class DriverPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerUtils.getLogger(DriverPool.class);
+
+    private static final String BLANK_PAGE = "about:blank";
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) { }";
+
+    /**
+     * Counts of a pool at one point in time.
+     */
+    public record Statistics(int liveSessions, int idleSessions, long created, long reused, long retired,
+                             long unhealthy, long displaced, long borrows, double meanWaitMillis) {
+    }
+
+    private static final class PooledSession {
+        private final DriverKey key;
+        private final WebDriver driver;
+        private final String primaryWindow;
+        private int uses;
+        private long idleSinceNanos;
+
+        private PooledSession(DriverKey key, WebDriver driver, String primaryWindow) {
+            this.key = key;
+            this.driver = driver;
+            this.primaryWindow = primaryWindow;
+        }
+    }
+
+    private final String name;
+    private final DriverFactory factory;
+    private final int maxSessions;
+    private final int maxUsesPerSession;
+    private final Duration borrowTimeout;
+    private final Predicate<WebDriver> healthCheck;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition sessionAvailable = lock.newCondition();
+    private final Map<DriverKey, Deque<PooledSession>> idleSessions = new HashMap<>();
+    private final Map<WebDriver, PooledSession> borrowedSessions = new IdentityHashMap<>();
+    private int liveSessions;
+    private int idleCount;
+    private boolean closed;
+
+    private final LatencyHistogram waitTimer;
+    private final LongAdder createdCounter = new LongAdder();
+    private final LongAdder reusedCounter = new LongAdder();
+    private final LongAdder retiredCounter = new LongAdder();
+    private final LongAdder unhealthyCounter = new LongAdder();
+    private final LongAdder displacedCounter = new LongAdder();
+    private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+
+    private DriverPool(Builder builder) {
+        this.name = builder.name;
+        this.factory = builder.factory;
+        this.maxSessions = builder.maxSessions;
+        this.maxUsesPerSession = builder.maxUsesPerSession;
+        this.borrowTimeout = builder.borrowTimeout;
+        this.healthCheck = builder.healthCheck;
+
+        String prefix = "drivers." + name + ".";
+        this.waitTimer = new LatencyHistogram(prefix + "wait");
+        gauges.put(prefix + "live", () -> statistics().liveSessions());
+        gauges.put(prefix + "idle", () -> statistics().idleSessions());
+        gauges.put(prefix + "created", createdCounter::sum);
+        gauges.put(prefix + "reused", reusedCounter::sum);
+        gauges.put(prefix + "retired", retiredCounter::sum);
+        gauges.put(prefix + "unhealthy", unhealthyCounter::sum);
+        gauges.put(prefix + "displaced", displacedCounter::sum);
+        gauges.put(prefix + "borrows", waitTimer::getCount);
+        gauges.put(prefix + "wait.p50Micros", () -> TimeUnit.NANOSECONDS.toMicros(waitTimer.getPercentileNanos(50)));
+        gauges.put(prefix + "wait.p99Micros", () -> TimeUnit.NANOSECONDS.toMicros(waitTimer.getPercentileNanos(99)));
+        gauges.forEach(MetricsRegistry::gauge);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Borrows a session for the key, waiting up to the pool's borrow timeout.
+     *
+     * @return A healthy session; return it with {@link #release(WebDriver)} or {@link #invalidate(WebDriver)}
+     * @throws DriverFailure If no session became available in time, the pool is closed or a browser failed to start
+     */
+    public WebDriver borrow(DriverKey key) {
+        long start = System.nanoTime();
+        PooledSession session = null;
+        PooledSession displaced = null;
+        lock.lock();
+        try {
+            long remainingNanos = borrowTimeout.toNanos();
+            while (true) {
+                ensureOpen();
+                session = pollIdle(key);
+                if (session != null) {
+                    break;
+                }
+                if (liveSessions < maxSessions) {
+                    liveSessions++;
+                    break;
+                }
+                displaced = pollIdleOfOtherKey(key);
+                if (displaced != null) {
+                    break;
+                }
+                if (remainingNanos <= 0) {
+                    throw new DriverFailure("No " + key.browser() + " session available in pool '" + name
+                            + "' within " + borrowTimeout.toMillis() + " ms (" + maxSessions + " sessions in use)");
+                }
+                remainingNanos = sessionAvailable.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new DriverFailure("Interrupted while waiting for a session of pool '" + name + "'", error);
+        } finally {
+            lock.unlock();
+            waitTimer.recordSince(start);
+        }
+
+        if (displaced != null) {
+            displacedCounter.increment();
+            quit(displaced);
+        }
+        if (session != null && !isHealthy(session)) {
+            unhealthyCounter.increment();
+            quit(session);
+            session = null;
+        }
+        if (session == null) {
+            session = start(key);
+        } else {
+            reusedCounter.increment();
+        }
+
+        lock.lock();
+        try {
+            borrowedSessions.put(session.driver, session);
+        } finally {
+            lock.unlock();
+        }
+        return session.driver;
+    }
+
+    /**
+     * Returns a borrowed session. It is reset for the next borrower, or quit if it is used up or cannot be reset.
+     */
+    public void release(WebDriver driver) {
+        PooledSession session = takeBorrowed(driver);
+        session.uses++;
+        if (session.uses >= maxUsesPerSession || isClosed() || !reset(session)) {
+            retire(session);
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                liveSessions--;
+            } else {
+                session.idleSinceNanos = System.nanoTime();
+                idleSessions.computeIfAbsent(session.key, ignored -> new ArrayDeque<>()).addFirst(session);
+                idleCount++;
+                session = null;
+            }
+            sessionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (session != null) {
+            quitRetired(session);
+        }
+    }
+
+    /**
+     * Quits a borrowed session instead of returning it, for example after a test left the browser in an unknown state.
+     */
+    public void invalidate(WebDriver driver) {
+        retire(takeBorrowed(driver));
+    }
+
+    public Statistics statistics() {
+        lock.lock();
+        try {
+            return new Statistics(liveSessions, idleCount, createdCounter.sum(), reusedCounter.sum(),
+                    retiredCounter.sum(), unhealthyCounter.sum(), displacedCounter.sum(), waitTimer.getCount(),
+                    waitTimer.getMeanNanos() / TimeUnit.MILLISECONDS.toNanos(1));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quits every idle session, rejects further borrows and removes the pool's gauges. Sessions still borrowed are quit
+     * when they are returned.
+     */
+    @Override
+    public void close() {
+        gauges.forEach(MetricsRegistry::removeGauge);
+        List<PooledSession> idle = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            idleSessions.values().forEach(idle::addAll);
+            idleSessions.clear();
+            liveSessions -= idle.size();
+            idleCount = 0;
+            sessionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        idle.forEach(this::quitRetired);
+        logger.info("Driver pool '{}' closed: {}", name, statistics());
+    }
+
+    private PooledSession start(DriverKey key) {
+        WebDriver driver = null;
+        try {
+            driver = factory.create(key);
+            PooledSession session = new PooledSession(key, driver, driver.getWindowHandle());
+            createdCounter.increment();
+            return session;
+        } catch (Exception error) {
+            if (driver != null) {
+                quit(new PooledSession(key, driver, null));
+            }
+            releaseSlot();
+            ErrorHandler.logError(error, "start", "Failed to start session for pool '" + name + "'");
+            throw DriverFailure.wrap("Failed to start session for pool '" + name + "'", error);
+        }
+    }
+
+    private boolean isHealthy(PooledSession session) {
+        try {
+            return healthCheck.test(session.driver);
+        } catch (RuntimeException error) {
+            logger.debug("Session of pool '{}' failed its health check: {}", name, error.toString());
+            return false;
+        }
+    }
+
+    private boolean reset(PooledSession session) {
+        WebDriver driver = session.driver;
+        try {
+            for (String handle : driver.getWindowHandles()) {
+                if (!handle.equals(session.primaryWindow)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(session.primaryWindow);
+            // Storage and cookies can only be cleared for the page that is loaded, so before leaving it
+            String currentUrl = driver.getCurrentUrl();
+            if (driver instanceof JavascriptExecutor executor && currentUrl != null && currentUrl.startsWith("http")) {
+                executor.executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+            driver.manage().deleteAllCookies();
+            driver.navigate().to(BLANK_PAGE);
+            return true;
+        } catch (RuntimeException error) {
+            logger.debug("Session of pool '{}' could not be reset: {}", name, error.toString());
+            return false;
+        }
+    }
+
+    private void retire(PooledSession session) {
+        quitRetired(session);
+        releaseSlot();
+    }
+
+    private void quitRetired(PooledSession session) {
+        retiredCounter.increment();
+        quit(session);
+    }
+
+    private void quit(PooledSession session) {
+        try {
+            session.driver.quit();
+        } catch (RuntimeException error) {
+            logger.debug("Session of pool '{}' failed to quit: {}", name, error.toString());
+        }
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            liveSessions--;
+            sessionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PooledSession takeBorrowed(WebDriver driver) {
+        lock.lock();
+        try {
+            PooledSession session = borrowedSessions.remove(driver);
+            if (session == null) {
+                throw new DriverFailure("Session was not borrowed from pool '" + name + "'");
+            }
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PooledSession pollIdle(DriverKey key) {
+        Deque<PooledSession> sessions = idleSessions.get(key);
+        PooledSession session = sessions == null ? null : sessions.pollFirst();
+        if (session != null) {
+            idleCount--;
+        }
+        return session;
+    }
+
+    /**
+     * Takes the least recently used idle session of any other key; its slot passes to the caller. Sessions are added at
+     * the head of their key's deque, so the candidates are the tails.
+     */
+    private PooledSession pollIdleOfOtherKey(DriverKey key) {
+        Deque<PooledSession> oldest = null;
+        for (Map.Entry<DriverKey, Deque<PooledSession>> entry : idleSessions.entrySet()) {
+            PooledSession candidate = entry.getValue().peekLast();
+            if (!entry.getKey().equals(key) && candidate != null
+                    && (oldest == null || candidate.idleSinceNanos - oldest.peekLast().idleSinceNanos < 0)) {
+                oldest = entry.getValue();
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        idleCount--;
+        return oldest.pollLast();
+    }
+
+    private boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new DriverFailure("Driver pool '" + name + "' is closed");
+        }
+    }
+
+    public static final class Builder {
+
+        private String name = "default";
+        private DriverFactory factory = new LocalDriverFactory();
+        private int maxSessions = Runtime.getRuntime().availableProcessors();
+        private int maxUsesPerSession = 50;
+        private Duration borrowTimeout = Duration.ofMinutes(2);
+        private Predicate<WebDriver> healthCheck = driver -> driver.getWindowHandle() != null;
+
+        private Builder() {
+        }
+
+        /**
+         * Name used in metric names and messages.
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder factory(DriverFactory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Maximum number of sessions alive at once, idle or borrowed, over all keys.
+         */
+        public Builder maxSessions(int maxSessions) {
+            this.maxSessions = maxSessions;
+            return this;
+        }
+
+        /**
+         * Number of borrows after which a session is quit instead of reset.
+         */
+        public Builder maxUsesPerSession(int maxUsesPerSession) {
+            this.maxUsesPerSession = maxUsesPerSession;
+            return this;
+        }
+
+        public Builder borrowTimeout(Duration borrowTimeout) {
+            this.borrowTimeout = borrowTimeout;
+            return this;
+        }
+
+        /**
+         * Check run on an idle session before it is handed out; a session that fails it or throws is replaced. The
+         * default asks the browser for its window handle.
+         */
+        public Builder healthCheck(Predicate<WebDriver> healthCheck) {
+            this.healthCheck = healthCheck;
+            return this;
+        }
+
+        public DriverPool build() {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Pool name cannot be null or empty");
+            }
+            if (factory == null || healthCheck == null || borrowTimeout == null || borrowTimeout.isNegative()) {
+                throw new IllegalArgumentException("Pool factory, health check and a non-negative borrow timeout are required");
+            }
+            if (maxSessions < 1 || maxUsesPerSession < 1) {
+                throw new IllegalArgumentException("Pool size and uses per session must be at least 1");
+            }
+            return new DriverPool(this);
+        }
+    }
+}
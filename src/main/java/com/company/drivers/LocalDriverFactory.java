@@ -0,0 +1,51 @@
+package com.company.drivers;
+
+import com.company.core.DriverFailure;
+import com.company.core.ErrorHandler;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Starts local browsers, resolving each browser's driver binary with WebDriverManager once per JVM.
+ */
+public final class LocalDriverFactory implements DriverFactory {
+
+    private static final Map<BrowserType, Boolean> resolvedDrivers = new ConcurrentHashMap<>();
+
+    @Override
+    public WebDriver create(DriverKey key) {
+        try {
+            resolvedDrivers.computeIfAbsent(key.browser(), browser -> {
+                manager(browser).setup();
+                return Boolean.TRUE;
+            });
+            MutableCapabilities capabilities = new MutableCapabilities(key.capabilities());
+            return switch (key.browser()) {
+                case CHROME -> new ChromeDriver(new ChromeOptions().merge(capabilities));
+                case FIREFOX -> new FirefoxDriver(new FirefoxOptions().merge(capabilities));
+                case EDGE -> new EdgeDriver(new EdgeOptions().merge(capabilities));
+            };
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "create", "Failed to start browser: " + key.browser());
+            throw DriverFailure.wrap("Failed to start browser: " + key.browser(), error);
+        }
+    }
+
+    private static WebDriverManager manager(BrowserType browser) {
+        return switch (browser) {
+            case CHROME -> WebDriverManager.chromedriver();
+            case FIREFOX -> WebDriverManager.firefoxdriver();
+            case EDGE -> WebDriverManager.edgedriver();
+        };
+    }
+}
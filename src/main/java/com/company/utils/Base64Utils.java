@@ -1,5 +1,6 @@
 package com.company.utils;
 
+import com.company.core.ValidationException;
 import com.company.core.ErrorHandler;
 import org.apache.logging.log4j.Logger;
 
@@ -38,7 +39,7 @@ public final class Base64Utils {
             return Base64.getEncoder().encodeToString(data);
         } catch (Exception error) {
            ErrorHandler.logError(error, "encodeArray", "Failed to encode byte array to base64");
-           throw new RuntimeException(error);
+           throw ValidationException.wrap("Failed to encode byte array to base64", error);
         }
     }
 
@@ -55,7 +56,7 @@ public final class Base64Utils {
             return Base64.getDecoder().decode(base64String);
         } catch (Exception error) {
             ErrorHandler.logError(error, "decodeToArray", "Failed to decode base64 to byte array");
-            throw new RuntimeException(error);
+            throw ValidationException.wrap("Failed to decode base64 to byte array", error);
         }
     }
 
@@ -72,7 +73,7 @@ public final class Base64Utils {
             return Base64.getEncoder().encodeToString(data.getBytes(StandardCharsets.UTF_8));
         } catch (Exception error) {
             ErrorHandler.logError(error, "encodeString", "Failed to encode string to base64");
-            throw new RuntimeException(error);
+            throw ValidationException.wrap("Failed to encode string to base64", error);
         }
     }
 
@@ -90,7 +91,7 @@ public final class Base64Utils {
             return new String(decodedBytes, StandardCharsets.UTF_8);
         } catch (Exception error) {
            ErrorHandler.logError(error, "decodeToString", "Failed to decode base64 to string");
-           throw new RuntimeException(error);
+           throw ValidationException.wrap("Failed to decode base64 to string", error);
         }
     }
 
@@ -107,7 +108,7 @@ public final class Base64Utils {
             return Base64.getEncoder().encodeToString(secretKey.getEncoded());
         } catch (Exception error) {
             ErrorHandler.logError(error, "encodeSecretKey", "Failed to encode secret key");
-            throw new RuntimeException(error);
+            throw ValidationException.wrap("Failed to encode secret key", error);
         }
     }
 
@@ -125,7 +126,7 @@ public final class Base64Utils {
             return new SecretKeySpec(decodedKey, "");
         } catch (Exception error) {
             ErrorHandler.logError(error, "decodeSecretKey", "Failed to decode secret key");
-            throw new RuntimeException(error);
+            throw ValidationException.wrap("Failed to decode secret key", error);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.company.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Minimal JSON rendering helpers for the framework's machine-readable reports.
+ * Supports strings, numbers, booleans, null, nested maps and iterables.
+ */
+public final class JsonUtils {
+
+    private JsonUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Renders a value as JSON.
+     *
+     * @param value A String, Number, Boolean, Map, Iterable or null
+     * @return The JSON text
+     * @throws IllegalArgumentException if the value, or a nested value, has an unsupported type
+     */
+    public static String toJson(Object value) {
+        StringBuilder builder = new StringBuilder();
+        append(builder, value, 0);
+        return builder.toString();
+    }
+
+    /**
+     * Escapes and quotes a string as a JSON string literal.
+     */
+    public static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2);
+        appendString(builder, value);
+        return builder.toString();
+    }
+
+    private static void append(StringBuilder builder, Object value, int indent) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof String string) {
+            appendString(builder, string);
+        } else if (value instanceof Double number && (number.isNaN() || number.isInfinite())) {
+            builder.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            appendMap(builder, map, indent);
+        } else if (value instanceof Iterable<?> iterable) {
+            appendIterable(builder, iterable, indent);
+        } else if (value instanceof Enum<?> constant) {
+            appendString(builder, constant.name());
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON value type: " + value.getClass().getName());
+        }
+    }
+
+    private static void appendMap(StringBuilder builder, Map<?, ?> map, int indent) {
+        if (map.isEmpty()) {
+            builder.append("{}");
+            return;
+        }
+        builder.append("{\n");
+        Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<?, ?> entry = entries.next();
+            indent(builder, indent + 1);
+            appendString(builder, String.valueOf(entry.getKey()));
+            builder.append(": ");
+            append(builder, entry.getValue(), indent + 1);
+            builder.append(entries.hasNext() ? ",\n" : "\n");
+        }
+        indent(builder, indent);
+        builder.append('}');
+    }
+
+    private static void appendIterable(StringBuilder builder, Iterable<?> iterable, int indent) {
+        Iterator<?> items = iterable.iterator();
+        if (!items.hasNext()) {
+            builder.append("[]");
+            return;
+        }
+        builder.append("[\n");
+        while (items.hasNext()) {
+            indent(builder, indent + 1);
+            append(builder, items.next(), indent + 1);
+            builder.append(items.hasNext() ? ",\n" : "\n");
+        }
+        indent(builder, indent);
+        builder.append(']');
+    }
+
+    private static void appendString(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            switch (character) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (character < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        builder.append(character);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    private static void indent(StringBuilder builder, int indent) {
+        builder.append("  ".repeat(indent));
+    }
+}
@@ -1,10 +1,40 @@
 package com.company.utils;
 
+import com.company.core.ErrorHandler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
 
+/**
+ * Logging facade of the framework.
+ * <p>
+ * Loggers are asynchronous and garbage free (see {@code log4j2.component.properties}). Events logged between
+ * {@link #beginTestContext(String)} and {@link #endTestContext(boolean)} are tagged with the test id and thread, kept
+ * per test by the {@code TestLogBuffer} appender and only written out when the test fails.
+ * <p>
+ * Log4j's own shutdown hook is disabled; the hook registered here emits the reports {@link ErrorHandler} still holds
+ * and only then stops logging, so an error logged just before the JVM exits is not lost.
+ */
 public class LoggerUtils {
 
+    public static final String TEST_ID_KEY = "testId";
+    public static final String TEST_THREAD_KEY = "testThread";
+
+    public static final Marker TEST_END_MARKER = MarkerManager.getMarker("TEST_END");
+    public static final Marker TEST_PASSED_MARKER = MarkerManager.getMarker("TEST_PASSED").addParents(TEST_END_MARKER);
+    public static final Marker TEST_FAILED_MARKER = MarkerManager.getMarker("TEST_FAILED").addParents(TEST_END_MARKER);
+
+    private static final Logger logger = getLogger(LoggerUtils.class);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ErrorHandler.flushAll();
+            LogManager.shutdown();
+        }, "logging-shutdown"));
+    }
+
     private LoggerUtils() {
         throw new IllegalStateException("Utility class - cannot be instantiated");
     }
@@ -12,4 +42,36 @@ public class LoggerUtils {
     public static Logger getLogger(Class<?> clazz) {
         return LogManager.getLogger(clazz);
     }
+
+    /**
+     * Tags every event logged by the current thread with the given test id until {@link #endTestContext(boolean)}.
+     */
+    public static void beginTestContext(String testId) {
+        ThreadContext.put(TEST_ID_KEY, testId);
+        ThreadContext.put(TEST_THREAD_KEY, Thread.currentThread().getName());
+    }
+
+    /**
+     * Ends the test context of the current thread. The buffered output of the test is written out if it failed and
+     * dropped otherwise.
+     */
+    public static void endTestContext(boolean failed) {
+        String testId = ThreadContext.get(TEST_ID_KEY);
+        if (testId == null) {
+            return;
+        }
+        // Errors the test reported are still waiting to see whether they propagate further; log them in this test
+        ErrorHandler.flush();
+        // Goes through the same queue as the test's events, so it reaches the buffer after all of them
+        logger.info(failed ? TEST_FAILED_MARKER : TEST_PASSED_MARKER, "Test {} {}", testId, failed ? "failed" : "passed");
+        ThreadContext.remove(TEST_ID_KEY);
+        ThreadContext.remove(TEST_THREAD_KEY);
+    }
+
+    /**
+     * @return The test id of the current thread, or {@code null} outside a test context
+     */
+    public static String currentTestId() {
+        return ThreadContext.get(TEST_ID_KEY);
+    }
 }
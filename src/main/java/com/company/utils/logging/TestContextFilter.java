@@ -0,0 +1,44 @@
+package com.company.utils.logging;
+
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+
+/**
+ * Matches events logged inside a test context (see {@link LoggerUtils#beginTestContext(String)}) that are less
+ * severe than the configured level.
+ * <p>
+ * Used with {@code onMatch="DENY"} on the file and console appenders, so routine output of a running test only
+ * reaches its {@link TestLogBufferAppender} buffer while warnings and errors are still written straight away.
+ */
+@Plugin(name = "TestContextFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class TestContextFilter extends AbstractFilter {
+
+    private final int thresholdLevel;
+
+    private TestContextFilter(Level level, Result onMatch, Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.thresholdLevel = level.intLevel();
+    }
+
+    @PluginFactory
+    public static TestContextFilter createFilter(
+            @PluginAttribute(value = "level", defaultString = "WARN") Level level,
+            @PluginAttribute(value = "onMatch", defaultString = "DENY") Result onMatch,
+            @PluginAttribute(value = "onMismatch", defaultString = "NEUTRAL") Result onMismatch) {
+        return new TestContextFilter(level, onMatch, onMismatch);
+    }
+
+    @Override
+    public Result filter(LogEvent event) {
+        boolean inTestContext = event.getContextData().containsKey(LoggerUtils.TEST_ID_KEY);
+        // Higher intLevel means less severe
+        return inTestContext && event.getLevel().intLevel() > thresholdLevel ? onMatch : onMismatch;
+    }
+}
@@ -0,0 +1,114 @@
+package com.company.utils.logging;
+
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the log events of each running test in memory until the test ends.
+ * <p>
+ * Events are grouped by the {@link LoggerUtils#TEST_ID_KEY} thread context value. When the test ends,
+ * {@link LoggerUtils#endTestContext(boolean)} logs an end marker through the same asynchronous queue, so it is handled
+ * here only after every earlier event of the test. A passing test's buffer is dropped. A failing test's buffer is
+ * written to {@code <directory>/<test id>.log}. Each buffer keeps at most {@code maxEvents} of the most recent events.
+ */
+@Plugin(name = "TestLogBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class TestLogBufferAppender extends AbstractAppender {
+
+    private static final int DEFAULT_MAX_EVENTS = 5_000;
+
+    private final Path directory;
+    private final int maxEvents;
+    private final Map<String, Deque<LogEvent>> buffers = new ConcurrentHashMap<>();
+
+    private TestLogBufferAppender(String name, Filter filter, Layout<?> layout, Path directory, int maxEvents) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        this.directory = directory;
+        this.maxEvents = maxEvents;
+    }
+
+    @PluginFactory
+    public static TestLogBufferAppender createAppender(
+            @PluginAttribute("name") String name,
+            @PluginAttribute("directory") String directory,
+            @PluginAttribute(value = "maxEvents", defaultInt = DEFAULT_MAX_EVENTS) int maxEvents,
+            @PluginElement("Layout") Layout<?> layout,
+            @PluginElement("Filter") Filter filter) {
+        if (name == null || directory == null) {
+            LOGGER.error("TestLogBuffer appender requires a name and a directory");
+            return null;
+        }
+        return new TestLogBufferAppender(name, filter, layout != null ? layout : PatternLayout.createDefaultLayout(),
+                Path.of(directory), maxEvents);
+    }
+
+    /**
+     * @return The file name a failed test's buffered output is written to
+     */
+    public static String fileNameFor(String testId) {
+        return testId.replaceAll("[^A-Za-z0-9._-]", "_") + ".log";
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        String testId = event.getContextData().getValue(LoggerUtils.TEST_ID_KEY);
+        if (testId == null) {
+            return;
+        }
+        if (event.getMarker() != null && event.getMarker().isInstanceOf(LoggerUtils.TEST_END_MARKER)) {
+            complete(testId, event);
+            return;
+        }
+
+        Deque<LogEvent> buffer = buffers.computeIfAbsent(testId, ignored -> new ArrayDeque<>());
+        synchronized (buffer) {
+            if (buffer.size() >= maxEvents) {
+                buffer.pollFirst();
+            }
+            // Events are reused by the async logger ring buffer, so keep an immutable copy
+            buffer.addLast(event.toImmutable());
+        }
+    }
+
+    private void complete(String testId, LogEvent endEvent) {
+        Deque<LogEvent> buffer = buffers.remove(testId);
+        if (!endEvent.getMarker().isInstanceOf(LoggerUtils.TEST_FAILED_MARKER)) {
+            return;
+        }
+        Path logFile = directory.resolve(fileNameFor(testId));
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream output = Files.newOutputStream(logFile)) {
+                if (buffer != null) {
+                    synchronized (buffer) {
+                        for (LogEvent bufferedEvent : buffer) {
+                            output.write(getLayout().toByteArray(bufferedEvent));
+                        }
+                    }
+                }
+                output.write(getLayout().toByteArray(endEvent));
+            }
+        } catch (IOException error) {
+            error("Failed to write buffered log of failed test " + testId + " to " + logFile, error);
+        }
+    }
+}
@@ -19,7 +19,7 @@ public class DecryptTests {
     private static final String USERNAME = "PORTAL_USERNAME";
     private static final String PASSWORD = "PORTAL_PASSWORD";
 
-    @Test(groups = {"cryptoConfig"}, priority = 3)
+    @Test(groups = {"cryptoConfig"}, dependsOnMethods = "com.company.tests.encryption.EncryptionTests.testEncryptionProcess")
     public void testDecryptProcess() {
         try {
             loadEnvironments();
@@ -13,7 +13,7 @@ public class EncryptionTests {
     private static final String USERNAME = "PORTAL_USERNAME";
     private static final String PASSWORD = "PORTAL_PASSWORD";
 
-    @Test(groups = {"cryptoConfig"}, priority = 2)
+    @Test(groups = {"cryptoConfig"}, dependsOnMethods = "com.company.tests.encryption.SecretKeyGeneratorTest.testSecretKeyGenerator")
     public void testEncryptionProcess() {
         try {
             loadEnvironments();
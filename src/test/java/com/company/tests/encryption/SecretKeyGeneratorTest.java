@@ -14,7 +14,7 @@ import javax.crypto.SecretKey;
 
 public class SecretKeyGeneratorTest {
 
-    @Test(groups = {"cryptoConfig"}, priority = 1)
+    @Test(groups = {"cryptoConfig"})
     public void testSecretKeyGenerator() {
         try {
             // Load the base environment
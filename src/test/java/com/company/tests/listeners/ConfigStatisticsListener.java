@@ -0,0 +1,26 @@
+package com.company.tests.listeners;
+
+import com.company.configurations.statistics.ConfigLookupStatistics;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.nio.file.Path;
+
+/**
+ * Dumps configuration lookup statistics to {@code target/config-statistics/<suite file>-<suite>.json} when a suite
+ * finishes. The suite file name is part of the report name because several suite files share one suite name.
+ */
+public class ConfigStatisticsListener implements ISuiteListener {
+
+    private static final String REPORT_DIRECTORY = "target/config-statistics";
+
+    @Override
+    public void onFinish(ISuite suite) {
+        String suiteFile = suite.getXmlSuite().getFileName();
+        String reportName = suiteFile == null
+                ? suite.getName()
+                : Path.of(suiteFile).getFileName().toString().replaceFirst("\\.xml$", "") + "-" + suite.getName();
+        String fileName = reportName.replaceAll("[^A-Za-z0-9._-]", "_") + ".json";
+        ConfigLookupStatistics.writeJsonReport(Path.of(REPORT_DIRECTORY, fileName));
+    }
+}
@@ -0,0 +1,175 @@
+package com.company.tests.listeners;
+
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runs only the methods of one shard when {@code tests.shard} is set to {@code <index>/<count>}, counting from 1,
+ * e.g. {@code mvn test -Dtests.shard=2/4} on the second of four CI nodes.
+ * <p>
+ * Methods are distributed by {@link ShardPlanner} on their durations in the {@link TestDurationHistory}, so shards
+ * take about the same time rather than holding the same number of classes. Methods that have never run are predicted
+ * at the median of the known ones. Methods linked by {@code dependsOnMethods} or {@code dependsOnGroups} form one unit
+ * and always land on the same shard. Every node must use the same history file to compute the same plan.
+ * <p>
+ * Sharding splits the suite across CI nodes only, one {@code tests.shard} per Maven run. Surefire passes the same
+ * value to every fork of a run, so forks within one node would all run the same shard, not different ones.
+ * <p>
+ * Registered for every suite through {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class DurationShardingInterceptor implements IMethodInterceptor {
+
+    private static final Logger logger = LoggerUtils.getLogger(DurationShardingInterceptor.class);
+
+    private static final String SHARD_PROPERTY = "tests.shard";
+    private static final double DEFAULT_DURATION_MILLIS = 1_000;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        String shardSpec = System.getProperty(SHARD_PROPERTY, "").trim();
+        if (shardSpec.isEmpty() || methods.isEmpty()) {
+            return methods;
+        }
+        String[] parts = shardSpec.split("/");
+        int shardIndex;
+        int shardCount;
+        try {
+            shardIndex = Integer.parseInt(parts[0].trim()) - 1;
+            shardCount = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 0;
+        } catch (NumberFormatException error) {
+            throw new IllegalArgumentException("Invalid " + SHARD_PROPERTY + " value, expected <index>/<count>: " + shardSpec, error);
+        }
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid " + SHARD_PROPERTY + " value, expected <index>/<count>: " + shardSpec);
+        }
+
+        TestDurationHistory history = TestDurationHistory.load(TestDurationHistory.file());
+        Map<String, List<IMethodInstance>> units = groupDependentMethods(methods);
+        double unknownDuration = medianDuration(methods, history);
+
+        Map<String, Double> classSetupMillis = new HashMap<>();
+        List<ShardPlanner.Unit> plannedUnits = new ArrayList<>();
+        for (Map.Entry<String, List<IMethodInstance>> unit : units.entrySet()) {
+            double duration = 0;
+            Set<String> classNames = new TreeSet<>();
+            for (String qualifiedName : distinctNames(unit.getValue())) {
+                Double known = history.durationOf(qualifiedName);
+                duration += known != null ? known : unknownDuration;
+            }
+            for (IMethodInstance instance : unit.getValue()) {
+                String className = instance.getMethod().getRealClass().getName();
+                classNames.add(className);
+                Double setup = history.durationOf(TestDurationHistory.setupKey(className));
+                if (setup != null) {
+                    classSetupMillis.put(className, setup);
+                }
+            }
+            plannedUnits.add(new ShardPlanner.Unit(unit.getKey(), duration, classNames));
+        }
+
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(plannedUnits, classSetupMillis, shardCount);
+        Set<IMethodInstance> shardMethods = new HashSet<>();
+        shards.get(shardIndex).units().forEach(unit -> shardMethods.addAll(units.get(unit.name())));
+
+        // Keeps the order TestNG chose for the methods that stay
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            if (shardMethods.contains(instance)) {
+                selected.add(instance);
+            }
+        }
+
+        double slowest = shards.stream().mapToDouble(ShardPlanner.Shard::predictedMillis).max().orElse(0);
+        double fastest = shards.stream().mapToDouble(ShardPlanner.Shard::predictedMillis).min().orElse(0);
+        logger.info("Shard {}/{} of '{}' runs {} of {} methods, predicted {} ms (shards between {} and {} ms)",
+                shardIndex + 1, shardCount, context.getName(), selected.size(), methods.size(),
+                Math.round(shards.get(shardIndex).predictedMillis()), Math.round(fastest), Math.round(slowest));
+        return selected;
+    }
+
+    /**
+     * Groups methods that depend on each other, by method or by group, under the smallest name in the group.
+     */
+    private static Map<String, List<IMethodInstance>> groupDependentMethods(List<IMethodInstance> methods) {
+        Map<String, String> parents = new HashMap<>();
+        Map<String, List<String>> methodsByGroup = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            parents.putIfAbsent(method.getQualifiedName(), method.getQualifiedName());
+            for (String group : method.getGroups()) {
+                methodsByGroup.computeIfAbsent(group, ignored -> new ArrayList<>()).add(method.getQualifiedName());
+            }
+        }
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            for (String dependency : method.getMethodsDependedUpon()) {
+                if (parents.containsKey(dependency)) {
+                    union(parents, method.getQualifiedName(), dependency);
+                }
+            }
+            for (String group : method.getGroupsDependedUpon()) {
+                for (String member : methodsByGroup.getOrDefault(group, List.of())) {
+                    union(parents, method.getQualifiedName(), member);
+                }
+            }
+        }
+
+        Map<String, List<IMethodInstance>> units = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            units.computeIfAbsent(find(parents, instance.getMethod().getQualifiedName()), ignored -> new ArrayList<>()).add(instance);
+        }
+        return units;
+    }
+
+    private static double medianDuration(List<IMethodInstance> methods, TestDurationHistory history) {
+        double[] known = distinctNames(methods).stream()
+                .map(history::durationOf)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sorted()
+                .toArray();
+        return known.length == 0 ? DEFAULT_DURATION_MILLIS : known[known.length / 2];
+    }
+
+    private static Set<String> distinctNames(List<IMethodInstance> methods) {
+        Set<String> names = new TreeSet<>();
+        methods.forEach(instance -> names.add(instance.getMethod().getQualifiedName()));
+        return names;
+    }
+
+    private static String find(Map<String, String> parents, String name) {
+        String root = name;
+        while (!parents.get(root).equals(root)) {
+            root = parents.get(root);
+        }
+        parents.put(name, root);
+        return root;
+    }
+
+    private static void union(Map<String, String> parents, String first, String second) {
+        String firstRoot = find(parents, first);
+        String secondRoot = find(parents, second);
+        if (!firstRoot.equals(secondRoot)) {
+            // The smaller name becomes the root, so the grouping does not depend on method order
+            if (firstRoot.compareTo(secondRoot) < 0) {
+                parents.put(secondRoot, firstRoot);
+            } else {
+                parents.put(firstRoot, secondRoot);
+            }
+        }
+    }
+}
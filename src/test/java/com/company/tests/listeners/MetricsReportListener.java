@@ -0,0 +1,21 @@
+package com.company.tests.listeners;
+
+import com.company.core.MetricsRegistry;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.nio.file.Path;
+
+/**
+ * Writes the framework metrics to {@code target/metrics/<suite>-<pid>.json} and {@code .txt} when a suite finishes,
+ * one pair per surefire fork.
+ */
+public class MetricsReportListener implements ISuiteListener {
+
+    private static final String REPORT_DIRECTORY = "target/metrics";
+
+    @Override
+    public void onFinish(ISuite suite) {
+        MetricsRegistry.writeReport(Path.of(REPORT_DIRECTORY), suite.getName() + "-" + ProcessHandle.current().pid());
+    }
+}
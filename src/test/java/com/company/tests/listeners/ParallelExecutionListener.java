@@ -0,0 +1,88 @@
+package com.company.tests.listeners;
+
+import com.company.configurations.ConfigurationOverlay;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the suites in parallel when {@code tests.parallel} is set, so the same suite files run sequentially by
+ * default and in parallel under the {@code parallel} Maven profile.
+ * <ul>
+ *     <li>{@code tests.parallel}: {@code methods}, {@code classes}, {@code instances} or {@code tests};
+ *     unset or {@code none} keeps the suites as declared</li>
+ *     <li>{@code tests.threadCount}: worker threads, defaults to the number of cores</li>
+ *     <li>{@code tests.dataProviderThreadCount}: threads for {@code parallel = true} data providers,
+ *     defaults to the worker thread count</li>
+ * </ul>
+ * Methods chained with {@code dependsOnMethods} keep their order in every mode, and classes annotated with
+ * {@code @Test(singleThreaded = true)} run their methods on one thread. Workers are reused across tests, so a test
+ * that leaves a {@link ConfigurationOverlay} open fails instead of leaking its overrides into the next test on the
+ * thread.
+ * <p>
+ * Workers are platform threads unless TestNG itself is started with {@link VirtualThreadExecutorServiceFactory}, see
+ * the {@code virtual-threads} Maven profile. Registered for every suite through
+ * {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener, IInvokedMethodListener {
+
+    private static final Logger logger = LoggerUtils.getLogger(ParallelExecutionListener.class);
+
+    private static final String PARALLEL_PROPERTY = "tests.parallel";
+    private static final String THREAD_COUNT_PROPERTY = "tests.threadCount";
+    private static final String DATA_PROVIDER_THREAD_COUNT_PROPERTY = "tests.dataProviderThreadCount";
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String mode = System.getProperty(PARALLEL_PROPERTY, "").trim();
+        if (mode.isEmpty() || mode.equalsIgnoreCase(XmlSuite.ParallelMode.NONE.toString())) {
+            return;
+        }
+        XmlSuite.ParallelMode parallelMode = XmlSuite.ParallelMode.getValidParallel(mode);
+        if (parallelMode == XmlSuite.ParallelMode.NONE) {
+            throw new IllegalArgumentException("Unsupported " + PARALLEL_PROPERTY + " value: " + mode);
+        }
+        int threadCount = positiveInteger(THREAD_COUNT_PROPERTY, Runtime.getRuntime().availableProcessors());
+        int dataProviderThreadCount = positiveInteger(DATA_PROVIDER_THREAD_COUNT_PROPERTY, threadCount);
+
+        for (XmlSuite suite : suites) {
+            suite.setParallel(parallelMode);
+            suite.setThreadCount(threadCount);
+            suite.setDataProviderThreadCount(dataProviderThreadCount);
+            for (XmlTest test : suite.getTests()) {
+                // preserve-order chains every class after the previous one, which would serialize the whole test
+                test.setPreserveOrder(false);
+                test.setParallel(parallelMode);
+                test.setThreadCount(threadCount);
+            }
+        }
+        logger.info("Running {} suite(s) with parallel={} threads={} dataProviderThreads={}",
+                suites.size(), parallelMode, threadCount, dataProviderThreadCount);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        Map<String, String> leakedOverrides = ConfigurationOverlay.discardCurrent();
+        if (!leakedOverrides.isEmpty() && testResult.getStatus() == ITestResult.SUCCESS) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new IllegalStateException(
+                    "Test left a configuration overlay open for keys " + leakedOverrides.keySet()));
+        }
+    }
+
+    private static int positiveInteger(String property, int defaultValue) {
+        Integer value = Integer.getInteger(property);
+        return value != null && value > 0 ? value : defaultValue;
+    }
+}
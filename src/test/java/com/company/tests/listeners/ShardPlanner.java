@@ -0,0 +1,93 @@
+package com.company.tests.listeners;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits units of work into shards of near-equal predicted duration.
+ * <p>
+ * Units are placed longest first, each on the shard where it finishes earliest (greedy longest-processing-time
+ * packing). A shard pays the setup time of a class once, when it receives the first unit of that class, so the
+ * prediction accounts for setup repeated on several shards and a unit prefers a shard that already runs its class.
+ * Ties are broken by unit name and shard index, so every CI node computes the same plan from the same history.
+ */
+public final class ShardPlanner {
+
+    /**
+     * @param name           Stable name, used to break ties
+     * @param durationMillis Predicted duration
+     * @param classNames     Test classes the unit runs methods of
+     */
+    public record Unit(String name, double durationMillis, Set<String> classNames) {
+    }
+
+    /**
+     * @param index           Zero-based shard index
+     * @param units           Units assigned to the shard, longest first
+     * @param predictedMillis Predicted duration including class setup
+     */
+    public record Shard(int index, List<Unit> units, double predictedMillis) {
+    }
+
+    private ShardPlanner() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @param units            Units to distribute
+     * @param classSetupMillis Setup time per class; classes without an entry cost nothing
+     * @param shardCount       Number of shards
+     * @return One shard per index, empty shards included
+     */
+    public static List<Shard> plan(Collection<Unit> units, Map<String, Double> classSetupMillis, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        List<Unit> ordered = new ArrayList<>(units);
+        ordered.sort(Comparator.comparingDouble(Unit::durationMillis).reversed().thenComparing(Unit::name));
+
+        List<List<Unit>> assigned = new ArrayList<>();
+        List<Set<String>> classesByShard = new ArrayList<>();
+        double[] loads = new double[shardCount];
+        for (int index = 0; index < shardCount; index++) {
+            assigned.add(new ArrayList<>());
+            classesByShard.add(new HashSet<>());
+        }
+
+        for (Unit unit : ordered) {
+            int bestShard = 0;
+            double bestFinish = Double.MAX_VALUE;
+            for (int index = 0; index < shardCount; index++) {
+                double finish = loads[index] + unit.durationMillis() + setupCost(unit, classesByShard.get(index), classSetupMillis);
+                if (finish < bestFinish) {
+                    bestFinish = finish;
+                    bestShard = index;
+                }
+            }
+            loads[bestShard] = bestFinish;
+            assigned.get(bestShard).add(unit);
+            classesByShard.get(bestShard).addAll(unit.classNames());
+        }
+
+        List<Shard> shards = new ArrayList<>(shardCount);
+        for (int index = 0; index < shardCount; index++) {
+            shards.add(new Shard(index, List.copyOf(assigned.get(index)), loads[index]));
+        }
+        return shards;
+    }
+
+    private static double setupCost(Unit unit, Set<String> shardClasses, Map<String, Double> classSetupMillis) {
+        double cost = 0;
+        for (String className : unit.classNames()) {
+            if (!shardClasses.contains(className)) {
+                cost += classSetupMillis.getOrDefault(className, 0.0);
+            }
+        }
+        return cost;
+    }
+}
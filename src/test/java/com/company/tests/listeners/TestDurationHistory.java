@@ -0,0 +1,117 @@
+package com.company.tests.listeners;
+
+import com.company.core.FileManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Smoothed test durations of earlier runs, kept in a properties file so sharded runs can balance on them.
+ * <p>
+ * Keys are qualified test method names, plus {@code <class>#setup} for the class-level configuration methods of a
+ * class. Every run moves the stored value {@value #SMOOTHING} of the way towards the newly measured duration, so one
+ * slow run on a busy machine does not reshuffle every shard. Surefire forks and parallel suites merge into the file
+ * under {@link FileManager#withLock}, so no measurement is lost.
+ * <p>
+ * The file defaults to {@code target/test-durations.properties} and is set with {@code tests.durationHistory}. CI nodes
+ * should restore it before the run and keep it afterwards; every node starts from the same history and only updates
+ * the methods it ran, so the file of any node is a complete history.
+ */
+public final class TestDurationHistory {
+
+    private static final String FILE_PROPERTY = "tests.durationHistory";
+    private static final String DEFAULT_FILE = "target/test-durations.properties";
+    private static final String SETUP_SUFFIX = "#setup";
+    private static final double SMOOTHING = 0.3;
+
+    private final Map<String, Double> durations;
+
+    private TestDurationHistory(Map<String, Double> durations) {
+        this.durations = Collections.unmodifiableMap(durations);
+    }
+
+    /**
+     * @return The history file of this run
+     */
+    public static Path file() {
+        String configured = System.getProperty(FILE_PROPERTY, "").trim();
+        return Path.of(configured.isEmpty() ? DEFAULT_FILE : configured);
+    }
+
+    /**
+     * @return The key the class-level setup and teardown time of the class is stored under
+     */
+    public static String setupKey(String className) {
+        return className + SETUP_SUFFIX;
+    }
+
+    /**
+     * Reads the history. A missing or unreadable file is an empty history, so a first run simply is not balanced.
+     *
+     * @param file History file
+     * @return The stored durations
+     */
+    public static TestDurationHistory load(Path file) {
+        try {
+            return new TestDurationHistory(Files.exists(file) ? parse(Files.readString(file, StandardCharsets.UTF_8)) : new TreeMap<>());
+        } catch (IOException | IllegalArgumentException error) {
+            return new TestDurationHistory(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Merges the durations measured by a run into the history file.
+     *
+     * @param file     History file
+     * @param measured Milliseconds per key measured by this run
+     * @throws IOException If the file cannot be written
+     */
+    public static void record(Path file, Map<String, Double> measured) throws IOException {
+        if (measured.isEmpty()) {
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        FileManager.withLock(file, () -> {
+            Map<String, Double> merged = Files.exists(file) ? parse(Files.readString(file, StandardCharsets.UTF_8)) : new TreeMap<>();
+            measured.forEach((key, millis) -> merged.merge(key, millis, (previous, latest) -> previous + SMOOTHING * (latest - previous)));
+
+            StringBuilder content = new StringBuilder("# Smoothed test durations in milliseconds\n");
+            merged.forEach((key, millis) -> content.append(key).append('=').append(String.format(Locale.ROOT, "%.1f", millis)).append('\n'));
+            FileManager.writeAtomically(file, content.toString().getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+    }
+
+    /**
+     * @return The stored duration of the key in milliseconds, or null when it has never run
+     */
+    public Double durationOf(String key) {
+        return durations.get(key);
+    }
+
+    /**
+     * @return Every stored duration, sorted by key
+     */
+    public Map<String, Double> durations() {
+        return durations;
+    }
+
+    private static Map<String, Double> parse(String content) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        Map<String, Double> durations = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            durations.put(key, Double.parseDouble(properties.getProperty(key)));
+        }
+        return durations;
+    }
+}
@@ -0,0 +1,57 @@
+package com.company.tests.listeners;
+
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures every test method and every class-level configuration method, and merges the durations into the
+ * {@link TestDurationHistory} when the suite finishes. A data-driven method is measured as the sum of its rows,
+ * because all rows run on the shard the method is assigned to.
+ * <p>
+ * Registered for every suite through {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class TestDurationListener implements IInvokedMethodListener, ISuiteListener {
+
+    private static final Logger logger = LoggerUtils.getLogger(TestDurationListener.class);
+
+    private final Map<String, Double> measured = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        ITestNGMethod testMethod = method.getTestMethod();
+        String key;
+        if (method.isTestMethod()) {
+            key = testMethod.getQualifiedName();
+        } else if (testMethod.isBeforeClassConfiguration() || testMethod.isAfterClassConfiguration()) {
+            key = TestDurationHistory.setupKey(testMethod.getRealClass().getName());
+        } else {
+            return;
+        }
+        measured.merge(key, (double) (testResult.getEndMillis() - testResult.getStartMillis()), Double::sum);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Path file = TestDurationHistory.file();
+        try {
+            TestDurationHistory.record(file, Map.copyOf(measured));
+            logger.info("Recorded {} test durations of suite '{}' in {}", measured.size(), suite.getName(), file);
+        } catch (IOException error) {
+            // Losing one run of history only makes the next split less even, so the suite result stands
+            logger.warn("Could not record test durations in {}: {}", file, error.getMessage());
+        } finally {
+            measured.clear();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.company.tests.listeners;
+
+import com.company.utils.LoggerUtils;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens a logging test context around every test method, so its output is buffered and only written to
+ * {@code logs/failed-tests} when the test fails.
+ */
+public class TestLogContextListener implements ITestListener {
+
+    private static final AtomicLong invocationCounter = new AtomicLong();
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        String testId = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName()
+                + "-" + invocationCounter.incrementAndGet();
+        LoggerUtils.beginTestContext(testId);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        LoggerUtils.endTestContext(false);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        LoggerUtils.endTestContext(true);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        LoggerUtils.endTestContext(false);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        LoggerUtils.endTestContext(false);
+    }
+}
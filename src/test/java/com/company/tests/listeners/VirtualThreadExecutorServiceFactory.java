@@ -0,0 +1,31 @@
+package com.company.tests.listeners;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs TestNG test methods and parallel data provider rows on virtual threads.
+ * <p>
+ * The pool keeps the sizes and queue TestNG asks for, so the number of tests running at once still follows the
+ * configured thread count; only the threads underneath are virtual. Thread names keep TestNG's {@code TestNG} prefix,
+ * which TestNG uses to recognise its own workers when enforcing timeouts.
+ * <p>
+ * TestNG only accepts the factory on its command line ({@code -threadpoolfactoryclass}); surefire has no setting that
+ * reaches it, so the {@code virtual-threads} Maven profile starts TestNG directly instead of through surefire.
+ */
+public class VirtualThreadExecutorServiceFactory implements IExecutorServiceFactory {
+
+    private static final String THREAD_NAME_PREFIX = "TestNG-virtual-";
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue,
+                Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory());
+    }
+}
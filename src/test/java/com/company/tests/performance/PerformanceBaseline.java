@@ -0,0 +1,167 @@
+package com.company.tests.performance;
+
+import com.company.core.LatencyHistogram;
+import com.company.utils.JsonUtils;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares measured median latencies against {@code performance-baseline.properties}.
+ * <p>
+ * Medians are absolute, so they are only comparable between similar machines. Baseline entries are therefore keyed by
+ * runner class, {@code -Dperformance.runnerClass} ({@code cpu<available processors>} by default). CI runs with
+ * {@code -Dperformance.runnerClass=ci}, whose entries are recorded on the CI runner. A metric without an entry for the
+ * current runner class fails, so a run on an unknown machine cannot pass unchecked. A metric regresses when its median
+ * exceeds the baseline of its runner class by more than {@code -Dperformance.tolerance} (0.5, i.e. 50%, by default)
+ * and by more than {@code -Dperformance.minimumRegressionMs} (0.0002, i.e. 200 ns, by default); the absolute floor
+ * keeps lookups of a few dozen nanoseconds from failing on a timer tick or a different inlining decision.
+ * <p>
+ * Parameters that decide what a metric measures, such as the Argon2 configuration behind the crypto metrics, are pinned
+ * in the baseline as well; {@link #checkParameters} fails when the code no longer uses them, since the medians recorded
+ * under the old parameters say nothing about the new ones.
+ * <p>
+ * Every run writes {@code target/performance/results.json} for trend tracking. Running with
+ * {@code -Dperformance.updateBaseline=true} rewrites the entries of the current runner class and the pinned parameters
+ * from the current run instead of failing.
+ */
+final class PerformanceBaseline {
+
+    private static final Logger logger = LoggerUtils.getLogger(PerformanceBaseline.class);
+
+    private static final Path BASELINE_FILE = Path.of("performance-baseline.properties");
+    private static final Path REPORT_FILE = Path.of("target", "performance", "results.json");
+    private static final String MEDIAN_SUFFIX = ".p50Ms";
+    private static final String PARAMETERS_PREFIX = "parameters.";
+    private static final String UPDATE_HINT = "-Dperformance.updateBaseline=true";
+
+    private final double tolerance = Double.parseDouble(System.getProperty("performance.tolerance", "0.5"));
+    private final double minimumRegressionMillis =
+            Double.parseDouble(System.getProperty("performance.minimumRegressionMs", "0.0002"));
+    private final boolean updateBaseline = Boolean.getBoolean("performance.updateBaseline");
+    private final String runnerClass = System.getProperty("performance.runnerClass",
+            "cpu" + Runtime.getRuntime().availableProcessors());
+    private final Properties baseline = new Properties();
+    private final Map<String, Object> results = new TreeMap<>();
+    private final Map<String, String> parameters = new TreeMap<>();
+    private final List<String> regressions = new ArrayList<>();
+
+    PerformanceBaseline() throws IOException {
+        if (Files.exists(BASELINE_FILE)) {
+            try (Reader reader = Files.newBufferedReader(BASELINE_FILE)) {
+                baseline.load(reader);
+            }
+        }
+    }
+
+    /**
+     * Records the parameters a group of metrics is measured with and compares them against the pinned ones.
+     *
+     * @return A description of the mismatch, or {@code null} when the parameters match
+     */
+    String checkParameters(String group, String actual) {
+        parameters.put(group, actual);
+        String pinned = baseline.getProperty(PARAMETERS_PREFIX + group);
+        if (updateBaseline || actual.equals(pinned)) {
+            return null;
+        }
+        String mismatch = pinned == null
+                ? String.format(Locale.ROOT, "%s parameters are not pinned in the baseline; record them with %s",
+                        group, UPDATE_HINT)
+                : String.format(Locale.ROOT, "%s metrics are baselined with '%s' but the code uses '%s'; "
+                        + "regenerate the baseline if the change is intended", group, pinned, actual);
+        regressions.add(mismatch);
+        return mismatch;
+    }
+
+    /**
+     * Records a metric and compares its median against the baseline.
+     *
+     * @return A description of the regression or of the missing baseline, or {@code null} when the metric is within
+     * tolerance
+     */
+    String check(String metric, LatencyHistogram histogram, long operations, long elapsedNanos) {
+        double medianMillis = toMillis(histogram.getPercentileNanos(50));
+        String baselineValue = baseline.getProperty(runnerClass + "." + metric + MEDIAN_SUFFIX);
+        Double baselineMillis = baselineValue == null ? null : Double.valueOf(baselineValue);
+
+        String status = "ok";
+        String regression = null;
+        if (baselineMillis == null) {
+            status = "missing";
+            regression = String.format(Locale.ROOT, "%s has no baseline for runner class '%s'; record one with %s",
+                    metric, runnerClass, UPDATE_HINT);
+        } else if (medianMillis > baselineMillis * (1 + tolerance)
+                && medianMillis - baselineMillis > minimumRegressionMillis) {
+            status = "regressed";
+            regression = String.format(Locale.ROOT, "%s median %.4f ms exceeds baseline %.4f ms by more than %.0f%%",
+                    metric, medianMillis, baselineMillis, tolerance * 100);
+        }
+        if (regression != null) {
+            regressions.add(regression);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", status);
+        result.put("operations", operations);
+        result.put("throughputPerSecond", operations / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        result.put("p50Ms", medianMillis);
+        result.put("p99Ms", toMillis(histogram.getPercentileNanos(99)));
+        result.put("maxMs", toMillis(histogram.getMaxNanos()));
+        result.put("baselineP50Ms", baselineMillis);
+        results.put(metric, result);
+        logger.info("Performance {}: {}", metric, result);
+
+        return updateBaseline ? null : regression;
+    }
+
+    void writeReport() throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("runnerClass", runnerClass);
+        report.put("parameters", parameters);
+        report.put("tolerance", tolerance);
+        report.put("minimumRegressionMs", minimumRegressionMillis);
+        report.put("regressions", regressions);
+        report.put("metrics", results);
+        Files.createDirectories(REPORT_FILE.getParent());
+        Files.writeString(REPORT_FILE, JsonUtils.toJson(report));
+        logger.info("Performance results written to '{}'", REPORT_FILE);
+
+        if (updateBaseline) {
+            // Entries of other runner classes are kept; only this runner's medians and the parameters are replaced
+            Map<String, String> entries = new TreeMap<>();
+            baseline.stringPropertyNames().forEach(name -> entries.put(name, baseline.getProperty(name)));
+            parameters.forEach((group, value) -> entries.put(PARAMETERS_PREFIX + group, value));
+            results.forEach((metric, result) -> entries.put(runnerClass + "." + metric + MEDIAN_SUFFIX,
+                    String.format(Locale.ROOT, "%.6f", ((Map<?, ?>) result).get("p50Ms"))));
+
+            StringBuilder content = new StringBuilder()
+                    .append("# Median latency baseline of performance.xml in milliseconds, keyed by runner class\n")
+                    .append("# Regenerate with: mvn -Pperformance test -Dperformance.updateBaseline=true"
+                            + " [-Dperformance.runnerClass=<class>]\n");
+            entries.forEach((name, value) -> content.append(name).append('=').append(value).append('\n'));
+            Files.writeString(BASELINE_FILE, content);
+            logger.info("Performance baseline of runner class '{}' updated in '{}'", runnerClass, BASELINE_FILE);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,208 @@
+package com.company.tests.performance;
+
+import com.company.configurations.environments.EnvironmentConfigManager;
+import com.company.configurations.environments.EnvironmentFile;
+import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.configurations.properties.PropertyKeys;
+import com.company.core.ConfigException;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import com.company.crypto.services.CryptoService;
+import com.company.crypto.services.SecureKeyGenerator;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Warm-path latency of crypto, configuration lookups and environment file updates, checked against
+ * {@link PerformanceBaseline}.
+ */
+public class PerformanceTests {
+
+    private static final String ENVIRONMENT_ALIAS = "performance";
+    private static final String ENVIRONMENT_FILE = ".env.performance";
+    private static final String ENVIRONMENT_KEY = "PERFORMANCE_KEY";
+    private static final int ENVIRONMENT_FILE_LINES = 1_000;
+
+    // Each crypto operation derives an Argon2 key, so a handful of samples is enough
+    private static final int CRYPTO_WARMUP = 1;
+    private static final int CRYPTO_SAMPLES = 3;
+    // Rounds of the cheap measurements; the fastest one is checked against the baseline
+    private static final int ROUNDS = 5;
+    private static final int LOOKUP_WARMUP = 200_000;
+    private static final int LOOKUP_SAMPLES = 200;
+    private static final int LOOKUP_BATCH = 1_000;
+    private static final int UPDATE_WARMUP = 50;
+    private static final int UPDATE_SAMPLES = 100;
+    private static final int MISS_WARMUP = 200_000;
+    private static final int MISS_SAMPLES = 200;
+    private static final int MISS_BATCH = 100;
+    private static final String MISSING_KEY = "PERFORMANCE_MISSING_KEY";
+
+    private PerformanceBaseline baseline;
+    private SecretKey secretKey;
+    private String encryptedValue;
+    private Path environmentFile;
+    private Path largeEnvironmentFile;
+
+    /**
+     * Keeps measured results reachable so the JIT cannot drop the measured calls.
+     */
+    private volatile int sink;
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run() throws Exception;
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void setUp() throws Exception {
+        baseline = new PerformanceBaseline();
+        secretKey = SecureKeyGenerator.generateSecretKey();
+        encryptedValue = CryptoService.encrypt(secretKey, "performance-secret");
+
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.GLOBAL.getAlias(), ConfigFilePath.GLOBAL.getFilePath());
+
+        environmentFile = Path.of(EnvironmentFilePaths.getDirectoryPath(), ENVIRONMENT_FILE);
+        Files.createDirectories(environmentFile.getParent());
+        Files.writeString(environmentFile, ENVIRONMENT_KEY + "=value\n");
+        EnvironmentConfigManager.loadConfiguration(ENVIRONMENT_ALIAS, ENVIRONMENT_FILE);
+
+        largeEnvironmentFile = Files.createTempFile("performance", ".env");
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < ENVIRONMENT_FILE_LINES; line++) {
+            content.append("KEY_").append(line).append("=value-").append(line).append('\n');
+        }
+        Files.writeString(largeEnvironmentFile, content);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws Exception {
+        if (environmentFile != null) {
+            Files.deleteIfExists(environmentFile);
+        }
+        if (largeEnvironmentFile != null) {
+            Files.deleteIfExists(largeEnvironmentFile);
+        }
+        if (baseline != null) {
+            baseline.writeReport();
+        }
+    }
+
+    /**
+     * Crypto latency is dominated by the Argon2 derivation, so its baseline only holds for the parameters it was
+     * recorded with.
+     */
+    @Test(groups = {"performance"})
+    public void testKeyDerivationParametersMatchBaseline() {
+        String mismatch = baseline.checkParameters("crypto", CryptoService.keyDerivationParameters());
+        Assert.assertNull(mismatch, mismatch);
+    }
+
+    @Test(groups = {"performance"}, dependsOnMethods = "testKeyDerivationParametersMatchBaseline")
+    public void testEncryptLatency() throws Exception {
+        measure("crypto.encrypt", 1, CRYPTO_WARMUP, CRYPTO_SAMPLES, 1,
+                () -> CryptoService.encrypt(secretKey, "performance-secret"));
+    }
+
+    @Test(groups = {"performance"}, dependsOnMethods = "testKeyDerivationParametersMatchBaseline")
+    public void testDecryptLatency() throws Exception {
+        measure("crypto.decrypt", 1, CRYPTO_WARMUP, CRYPTO_SAMPLES, 1,
+                () -> CryptoService.decrypt(secretKey, encryptedValue));
+    }
+
+    @Test(groups = {"performance"})
+    public void testPropertyLookupLatency() throws Exception {
+        PropertiesConfigManager properties = PropertiesConfigManager.getConfiguration(ConfigFileAlias.GLOBAL);
+        measure("config.getProperty", ROUNDS, LOOKUP_WARMUP, LOOKUP_SAMPLES, LOOKUP_BATCH,
+                () -> properties.getProperty("PROJECT_NAME"));
+        measure("config.getTypedProperty", ROUNDS, LOOKUP_WARMUP, LOOKUP_SAMPLES, LOOKUP_BATCH,
+                () -> PropertiesConfigManager.get(ConfigFileAlias.GLOBAL, PropertyKeys.PROJECT_NAME));
+    }
+
+    @Test(groups = {"performance"})
+    public void testEnvironmentLookupLatency() throws Exception {
+        EnvironmentConfigManager environment = EnvironmentConfigManager.getConfiguration(ENVIRONMENT_ALIAS);
+        measure("config.getEnvironmentKey", ROUNDS, LOOKUP_WARMUP, LOOKUP_SAMPLES, LOOKUP_BATCH,
+                () -> environment.getEnvironmentKey(ENVIRONMENT_KEY));
+    }
+
+    @Test(groups = {"performance"})
+    public void testEnvironmentFileUpdateLatency() throws Exception {
+        Map<String, String> updates = Map.of("KEY_" + ENVIRONMENT_FILE_LINES / 2, "updated", "NEW_KEY", "appended");
+        measure("config.updateEnvironmentFile", ROUNDS, UPDATE_WARMUP, UPDATE_SAMPLES, 1, () -> {
+            EnvironmentFile.update(largeEnvironmentFile, updates);
+            return updates;
+        });
+    }
+
+    /**
+     * Cost of a missing key as callers see it: raised by the manager and rethrown by its static accessor, reported
+     * through {@link com.company.core.ErrorHandler} on the way.
+     */
+    @Test(groups = {"performance"})
+    public void testConfigurationMissLatency() throws Exception {
+        measure("config.propertyMiss", ROUNDS, MISS_WARMUP, MISS_SAMPLES, MISS_BATCH,
+                () -> expectMiss(() -> PropertiesConfigManager.getPropertyKeyFromCache(
+                        ConfigFileAlias.GLOBAL.getAlias(), MISSING_KEY)));
+        measure("config.environmentKeyMiss", ROUNDS, MISS_WARMUP, MISS_SAMPLES, MISS_BATCH,
+                () -> expectMiss(() -> EnvironmentConfigManager.getEnvironmentKeyFromCache(ENVIRONMENT_ALIAS, MISSING_KEY)));
+    }
+
+    private static ConfigException expectMiss(Operation lookup) throws Exception {
+        try {
+            lookup.run();
+        } catch (ConfigException error) {
+            return error;
+        }
+        throw new AssertionError("The miss must reach the caller");
+    }
+
+    /**
+     * Runs the operation {@code warmup} times, then records {@code samples} batches of {@code batchSize} calls in each of
+     * {@code rounds} rounds. Each sample is the mean latency of one call in its batch, so sub-microsecond calls are not
+     * swamped by the cost of reading the clock. The round with the lowest median is checked, since interference from
+     * the rest of the machine only ever makes a round slower.
+     */
+    private void measure(String metric, int rounds, int warmup, int samples, int batchSize, Operation operation)
+            throws Exception {
+        for (int iteration = 0; iteration < warmup; iteration++) {
+            sink += operation.run().hashCode();
+        }
+
+        LatencyHistogram allRounds = MetricsRegistry.timer("performance." + metric);
+        allRounds.reset();
+        LatencyHistogram histogram = null;
+        long elapsed = 0;
+        for (int round = 0; round < rounds; round++) {
+            LatencyHistogram roundHistogram = new LatencyHistogram("performance." + metric);
+            long measureStart = System.nanoTime();
+            for (int sample = 0; sample < samples; sample++) {
+                long batchStart = System.nanoTime();
+                for (int call = 0; call < batchSize; call++) {
+                    sink += operation.run().hashCode();
+                }
+                long latency = (System.nanoTime() - batchStart) / batchSize;
+                roundHistogram.record(latency);
+                allRounds.record(latency);
+            }
+            long roundElapsed = System.nanoTime() - measureStart;
+            if (histogram == null || roundHistogram.getPercentileNanos(50) < histogram.getPercentileNanos(50)) {
+                histogram = roundHistogram;
+                elapsed = roundElapsed;
+            }
+        }
+
+        String regression = baseline.check(metric, histogram, (long) samples * batchSize, elapsed);
+        Assert.assertNull(regression, regression);
+    }
+}
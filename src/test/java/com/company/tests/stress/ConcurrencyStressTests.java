@@ -0,0 +1,151 @@
+package com.company.tests.stress;
+
+import com.company.configurations.environments.EnvironmentConfigManager;
+import com.company.configurations.environments.EnvironmentFile;
+import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.configurations.properties.PropertyKeys;
+import com.company.crypto.services.CryptoService;
+import com.company.crypto.services.SecureKeyGenerator;
+import com.company.tests.stress.StressHarness.Result;
+import com.company.tests.stress.StressHarness.ThreadKind;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hammers the configuration caches, environment file writes and crypto services from many threads and checks that
+ * no alias disappears during a reload, no file update is lost and every encrypted value decrypts back.
+ * <p>
+ * Sizes are tuned with {@code -Dstress.threads}, {@code -Dstress.durationMillis} and {@code -Dstress.cryptoOperations}.
+ */
+public class ConcurrencyStressTests {
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 8);
+    private static final long DURATION_MILLIS = Long.getLong("stress.durationMillis", 2_000);
+    // Every round trip runs two Argon2 derivations, each several seconds and hundreds of MB
+    private static final long CRYPTO_OPERATIONS = Long.getLong("stress.cryptoOperations", 1);
+    private static final long UNBOUNDED_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String ENVIRONMENT_ALIAS = "stress";
+    private static final String ENVIRONMENT_FILE = ".env.stress";
+    private static final String ENVIRONMENT_KEY = "STRESS_KEY";
+
+    private Path environmentFile;
+
+    @BeforeClass(alwaysRun = true)
+    public void setUp() throws Exception {
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.GLOBAL.getAlias(), ConfigFilePath.GLOBAL.getFilePath());
+        environmentFile = Path.of(EnvironmentFilePaths.getDirectoryPath(), ENVIRONMENT_FILE);
+        Files.createDirectories(environmentFile.getParent());
+        Files.writeString(environmentFile, ENVIRONMENT_KEY + "=value\n");
+        EnvironmentConfigManager.loadConfiguration(ENVIRONMENT_ALIAS, ENVIRONMENT_FILE);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws Exception {
+        if (environmentFile != null) {
+            Files.deleteIfExists(environmentFile);
+        }
+        StressHarness.writeReport();
+    }
+
+    @DataProvider
+    public Object[][] threadKinds() {
+        return new Object[][]{{ThreadKind.PLATFORM}, {ThreadKind.VIRTUAL}};
+    }
+
+    @Test(groups = {"stress"}, dataProvider = "threadKinds")
+    public void testLookupsNeverMissDuringReload(ThreadKind kind) throws Exception {
+        AtomicBoolean readersDone = new AtomicBoolean();
+        AtomicReference<Throwable> reloadFailure = new AtomicReference<>();
+        Result result;
+        Thread reloader = Thread.ofPlatform().name("stress-reloader").start(() -> {
+            try {
+                while (!readersDone.get()) {
+                    PropertiesConfigManager.reloadConfiguration(ConfigFileAlias.GLOBAL.getAlias());
+                    EnvironmentConfigManager.reloadConfiguration(ENVIRONMENT_ALIAS);
+                }
+            } catch (Throwable failure) {
+                reloadFailure.set(failure);
+            }
+        });
+        try {
+            result = StressHarness.run("lookupDuringReload", kind, THREADS, DURATION_MILLIS, Long.MAX_VALUE,
+                    (worker, iteration) -> {
+                        Assert.assertNotNull(PropertiesConfigManager.getConfiguration(ConfigFileAlias.GLOBAL.getAlias())
+                                .getProperty("PROJECT_NAME"));
+                        Assert.assertNotNull(PropertiesConfigManager.get(ConfigFileAlias.GLOBAL, PropertyKeys.PROJECT_NAME));
+                        Assert.assertEquals(EnvironmentConfigManager.getEnvironmentKeyFromCache(ENVIRONMENT_ALIAS, ENVIRONMENT_KEY), "value");
+                    });
+        } finally {
+            readersDone.set(true);
+            reloader.join();
+        }
+        Assert.assertNull(reloadFailure.get(), "Reload failed: " + reloadFailure.get());
+        assertNoFailures(result);
+    }
+
+    @Test(groups = {"stress"}, dataProvider = "threadKinds")
+    public void testConcurrentEnvironmentFileUpdatesAreNotLost(ThreadKind kind) throws Exception {
+        Path file = Files.createTempFile("stress", ".env");
+        Map<Integer, Long> lastWritten = new ConcurrentHashMap<>();
+        try {
+            Result result = StressHarness.run("environmentFileUpdate", kind, THREADS, DURATION_MILLIS, Long.MAX_VALUE,
+                    (worker, iteration) -> {
+                        EnvironmentFile.update(file, Map.of("WORKER_" + worker, Long.toString(iteration)));
+                        lastWritten.put(worker, iteration);
+                    });
+            assertNoFailures(result);
+
+            // Every worker's last write must survive the other workers' read-modify-write cycles
+            EnvironmentFile finalFile = EnvironmentFile.parse(file);
+            lastWritten.forEach((worker, iteration) -> Assert.assertEquals(finalFile.get("WORKER_" + worker),
+                    Long.toString(iteration), "Lost update of worker " + worker));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(groups = {"stress"}, dataProvider = "threadKinds")
+    public void testRandomGenerationIsUniqueAcrossThreads(ThreadKind kind) throws Exception {
+        Set<ByteBuffer> generated = ConcurrentHashMap.newKeySet();
+        Result result = StressHarness.run("secureRandom", kind, THREADS * 8, DURATION_MILLIS, 10_000,
+                (worker, iteration) -> Assert.assertTrue(generated.add(ByteBuffer.wrap(SecureKeyGenerator.generateIv())),
+                        "Duplicate IV generated"));
+        assertNoFailures(result);
+    }
+
+    @Test(groups = {"stress"}, dataProvider = "threadKinds")
+    public void testEncryptDecryptRoundTrip(ThreadKind kind) throws Exception {
+        SecretKey secretKey = SecureKeyGenerator.generateSecretKey();
+        Result result = StressHarness.run("cryptoRoundTrip", kind, 2, UNBOUNDED_MILLIS, CRYPTO_OPERATIONS,
+                (worker, iteration) -> {
+                    String value = "secret-" + worker + "-" + iteration;
+                    Assert.assertEquals(CryptoService.decrypt(secretKey, CryptoService.encrypt(secretKey, value)), value);
+                });
+        assertNoFailures(result);
+        Assert.assertEquals(result.operations(), 2 * CRYPTO_OPERATIONS);
+    }
+
+    private static void assertNoFailures(Result result) {
+        Assert.assertTrue(result.failures().isEmpty(),
+                result.name() + " failed on " + result.kind() + " threads: " + result.failures());
+        Assert.assertTrue(result.operations() > 0, result.name() + " made no progress");
+    }
+}
@@ -0,0 +1,141 @@
+package com.company.tests.stress;
+
+import com.company.utils.JsonUtils;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a task from many platform or virtual threads at once and collects failures, throughput and lock contention.
+ * <p>
+ * All workers are released together. Each one repeats the task until the duration has passed or it has run
+ * {@code maxIterations} times. Contention figures come from {@link ThreadMXBean} and are only available for platform
+ * threads. Results of every run are collected and written to {@code target/stress/results.json}.
+ */
+final class StressHarness {
+
+    private static final Logger logger = LoggerUtils.getLogger(StressHarness.class);
+
+    private static final Path REPORT_FILE = Path.of("target", "stress", "results.json");
+    private static final int MAX_RECORDED_FAILURES = 20;
+    private static final List<Map<String, Object>> reportedRuns = Collections.synchronizedList(new ArrayList<>());
+
+    enum ThreadKind {
+        PLATFORM, VIRTUAL
+    }
+
+    @FunctionalInterface
+    interface Task {
+        void run(int worker, long iteration) throws Exception;
+    }
+
+    record Result(String name, ThreadKind kind, int threads, long operations, long elapsedNanos,
+                  long blockedCount, long blockedMillis, List<Throwable> failures) {
+
+        double throughputPerSecond() {
+            return operations / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private StressHarness() {
+    }
+
+    static Result run(String name, ThreadKind kind, int threads, long durationMillis, long maxIterations, Task task)
+            throws InterruptedException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean.isThreadContentionMonitoringSupported()) {
+            threadBean.setThreadContentionMonitoringEnabled(true);
+        }
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder operations = new LongAdder();
+        LongAdder blockedCount = new LongAdder();
+        LongAdder blockedMillis = new LongAdder();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        long[] deadline = new long[1];
+
+        Thread.Builder builder = kind == ThreadKind.VIRTUAL
+                ? Thread.ofVirtual().name(name + "-virtual-", 0)
+                : Thread.ofPlatform().name(name + "-platform-", 0);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int worker = 0; worker < threads; worker++) {
+            int workerId = worker;
+            workers.add(builder.start(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    for (long iteration = 0; iteration < maxIterations && System.nanoTime() < deadline[0]; iteration++) {
+                        task.run(workerId, iteration);
+                        operations.increment();
+                    }
+                } catch (Throwable failure) {
+                    if (failures.size() < MAX_RECORDED_FAILURES) {
+                        failures.add(failure);
+                    }
+                } finally {
+                    ThreadInfo info = kind == ThreadKind.PLATFORM ? threadBean.getThreadInfo(Thread.currentThread().threadId()) : null;
+                    if (info != null) {
+                        blockedCount.add(info.getBlockedCount());
+                        blockedMillis.add(Math.max(0, info.getBlockedTime()));
+                    }
+                }
+            }));
+        }
+
+        ready.await();
+        long startNanos = System.nanoTime();
+        deadline[0] = startNanos + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - startNanos;
+
+        boolean contentionKnown = kind == ThreadKind.PLATFORM && threadBean.isThreadContentionMonitoringEnabled();
+        Result result = new Result(name, kind, threads, operations.sum(), elapsed,
+                contentionKnown ? blockedCount.sum() : -1, contentionKnown ? blockedMillis.sum() : -1,
+                List.copyOf(failures));
+        record(result);
+        return result;
+    }
+
+    static void writeReport() throws IOException {
+        Files.createDirectories(REPORT_FILE.getParent());
+        Files.writeString(REPORT_FILE, JsonUtils.toJson(Map.of("runs", new ArrayList<>(reportedRuns))));
+        logger.info("Stress results written to '{}'", REPORT_FILE);
+    }
+
+    private static void record(Result result) {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("name", result.name());
+        run.put("threadKind", result.kind());
+        run.put("threads", result.threads());
+        run.put("operations", result.operations());
+        run.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(result.elapsedNanos()));
+        run.put("throughputPerSecond", result.throughputPerSecond());
+        run.put("blockedCount", result.blockedCount());
+        run.put("blockedMs", result.blockedMillis());
+        run.put("failures", result.failures().stream().map(String::valueOf).toList());
+        reportedRuns.add(run);
+        logger.info("Stress {} [{} x {}]: {} ops, {} ops/s, blocked {} times for {} ms, {} failures",
+                result.name(), result.threads(), result.kind(), result.operations(),
+                String.format("%.0f", result.throughputPerSecond()), result.blockedCount(), result.blockedMillis(),
+                result.failures().size());
+    }
+}
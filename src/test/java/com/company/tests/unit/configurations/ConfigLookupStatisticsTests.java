@@ -0,0 +1,131 @@
+package com.company.tests.unit.configurations;
+
+import com.company.configurations.ConfigurationOverlay;
+import com.company.configurations.keys.ConfigKey;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.configurations.statistics.ConfigLookupStatistics;
+import com.company.utils.JsonUtils;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ConfigLookupStatisticsTests {
+
+    private static final String OBJECT_NAME = "com.company.configurations:type=ConfigLookupStatistics";
+    private static final String PROJECT_NAME = "PROJECT_NAME";
+    private static final String REPORT_NAME = "REPORT_NAME";
+    private static final String MISSING_KEY = "LOOKUP_STATISTICS_MISSING_KEY";
+    private static final ConfigKey<Integer> PROJECT_NAME_AS_NUMBER = ConfigKey.ofInteger(PROJECT_NAME);
+
+    // Counters are process-wide, so every test reads its own alias and compares totals as deltas
+    private final String alias = "LookupStatistics-" + System.nanoTime();
+
+    @BeforeClass(alwaysRun = true)
+    public void loadConfiguration() {
+        PropertiesConfigManager.loadConfiguration(alias, ConfigFilePath.GLOBAL.getFilePath());
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testLookupsAreCountedPerOutcome() {
+        ConfigLookupStatistics statistics = ConfigLookupStatistics.getInstance();
+        long hitsBefore = statistics.getHits();
+        long missesBefore = statistics.getMisses();
+        long defaultsBefore = statistics.getDefaults();
+        long overridesBefore = statistics.getOverrides();
+        long conversionFailuresBefore = statistics.getConversionFailures();
+        long lookupsBefore = statistics.getTotalLookups();
+
+        performLookups();
+
+        Assert.assertTrue(statistics.getHits() >= hitsBefore + 2);
+        Assert.assertTrue(statistics.getMisses() >= missesBefore + 1);
+        Assert.assertTrue(statistics.getDefaults() >= defaultsBefore + 1);
+        Assert.assertTrue(statistics.getOverrides() >= overridesBefore + 1);
+        Assert.assertTrue(statistics.getConversionFailures() >= conversionFailuresBefore + 2);
+        Assert.assertTrue(statistics.getTotalLookups() >= lookupsBefore + 7);
+
+        Assert.assertTrue(compact(statistics.toJson()).contains(expectedAliasJson()), statistics.toJson());
+    }
+
+    @Test(groups = {"configSetup"}, dependsOnMethods = "testLookupsAreCountedPerOutcome")
+    public void testCountersAreExportedOverJmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        Assert.assertTrue(server.isRegistered(name));
+
+        long hits = (Long) server.getAttribute(name, "Hits");
+        Assert.assertTrue(hits >= 2, "Hits over JMX: " + hits);
+        String[] hotKeys = (String[]) server.getAttribute(name, "HotKeys");
+        Assert.assertTrue(hotKeys.length > 0);
+
+        String json = (String) server.invoke(name, "toJson", new Object[0], new String[0]);
+        Assert.assertTrue(compact(json).contains(expectedAliasJson()), json);
+    }
+
+    @Test(groups = {"configSetup"}, dependsOnMethods = "testLookupsAreCountedPerOutcome")
+    public void testJsonReportIsWritten() throws Exception {
+        Path reportFile = Files.createTempDirectory("lookup-statistics").resolve("nested").resolve("statistics.json");
+
+        ConfigLookupStatistics.writeJsonReport(reportFile);
+
+        String json = Files.readString(reportFile);
+        Assert.assertTrue(json.startsWith("{\n  \"totals\": {\n    \"lookups\": "), json);
+        Assert.assertTrue(compact(json).contains(expectedAliasJson()), json);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testJsonEscapesStrings() {
+        Assert.assertEquals(JsonUtils.quote("a \"b\"\\\n\u0001"), "\"a \\\"b\\\"\\\\\\n\\u0001\"");
+        Assert.assertEquals(JsonUtils.toJson(Map.of("key", List.of(1, true))), "{\n  \"key\": [\n    1,\n    true\n  ]\n}");
+    }
+
+    private void performLookups() {
+        PropertiesConfigManager configuration = PropertiesConfigManager.getConfiguration(alias);
+        configuration.getProperty(PROJECT_NAME);
+        configuration.getProperty(PROJECT_NAME);
+        configuration.getProperty(MISSING_KEY, "fallback");
+        Assert.assertTrue(configuration.getProperty(MISSING_KEY, String.class).isEmpty());
+        // The value is found but fails to convert, which counts as a conversion failure and not as a hit
+        Assert.assertTrue(configuration.getProperty(PROJECT_NAME, Integer.class).isEmpty());
+        Assert.assertThrows(IllegalArgumentException.class, () -> configuration.get(PROJECT_NAME_AS_NUMBER));
+        try (ConfigurationOverlay.Scope ignored = ConfigurationOverlay.with(REPORT_NAME, "Overlay Report")) {
+            Assert.assertEquals(configuration.getProperty(REPORT_NAME), "Overlay Report");
+        }
+    }
+
+    private String expectedAliasJson() {
+        Map<String, Object> keys = new TreeMap<>();
+        keys.put(MISSING_KEY, keyStatistics(0, 1, 1, 0, 0));
+        keys.put(PROJECT_NAME, keyStatistics(2, 0, 0, 0, 2));
+        keys.put(REPORT_NAME, keyStatistics(0, 0, 0, 1, 0));
+        String json = compact(JsonUtils.toJson(Map.of(alias, keys)));
+        // Strip the enclosing braces so the alias can be found inside the full report
+        return json.substring(1, json.length() - 1);
+    }
+
+    private static Map<String, Object> keyStatistics(long hit, long miss, long defaulted, long override, long conversionFailure) {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("lookups", hit + miss + defaulted + override + conversionFailure);
+        statistics.put("hit", hit);
+        statistics.put("miss", miss);
+        statistics.put("default", defaulted);
+        statistics.put("override", override);
+        statistics.put("conversion_failure", conversionFailure);
+        return statistics;
+    }
+
+    private static String compact(String json) {
+        return json.replaceAll("\\s+", "");
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.tests.unit.configurations;
+
+import com.company.configurations.environments.EnvironmentType;
+import com.company.configurations.validation.ConfigSchema;
+import com.company.configurations.validation.ConfigValidationException;
+import com.company.configurations.validation.ConfigViolation;
+import com.company.configurations.validation.ConfigSchemaRegistry;
+import com.company.configurations.validation.ValueType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ConfigSchemaTests {
+
+    private static final ConfigSchema SCHEMA = ConfigSchema.builder()
+            .required("PORTAL_BASE_URL", ValueType.URL)
+            .required("RETRY_COUNT", ValueType.INTEGER, rule -> rule.range(0, 5))
+            .optional("BROWSER", ValueType.STRING, rule -> rule.matching("chrome|firefox|edge"))
+            .requiredFor(EnvironmentType.UAT, "UAT_SECRET_KEY", ValueType.BASE64)
+            .build();
+
+    @Test(groups = {"configSetup"})
+    public void testValidConfigurationHasNoViolations() {
+        Map<String, String> values = Map.of(
+                "PORTAL_BASE_URL", "https://opensource-demo.orangehrmlive.com",
+                "RETRY_COUNT", "3",
+                "UAT_SECRET_KEY", "c2VjcmV0");
+
+        Assert.assertTrue(SCHEMA.validate("Valid", EnvironmentType.UAT, values::get).isEmpty());
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testEveryViolationIsReported() {
+        Map<String, String> values = Map.of(
+                "PORTAL_BASE_URL", "not a url",
+                "RETRY_COUNT", "9",
+                "BROWSER", "netscape");
+
+        List<ConfigViolation> violations = SCHEMA.validate("Invalid", EnvironmentType.UAT, values::get);
+
+        Assert.assertEquals(violations.stream().map(ConfigViolation::key).toList(),
+                List.of("PORTAL_BASE_URL", "RETRY_COUNT", "BROWSER", "UAT_SECRET_KEY"));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testEnvironmentSpecificKeysOnlyApplyToTheirEnvironment() {
+        Map<String, String> values = Map.of("PORTAL_BASE_URL", "https://example.com", "RETRY_COUNT", "1");
+
+        Assert.assertTrue(SCHEMA.validate("Development", EnvironmentType.DEVELOPMENT, values::get).isEmpty());
+        Assert.assertTrue(SCHEMA.validate("Unknown", null, values::get).isEmpty());
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testRegistryRaisesAllViolationsTogether() {
+        String alias = "SchemaTestConfig";
+        ConfigSchemaRegistry.register(alias, SCHEMA);
+        try {
+            // Scoped rather than set globally, so suites loading other files in parallel keep their rules
+            ConfigSchemaRegistry.withActiveEnvironment(EnvironmentType.DEVELOPMENT, () -> {
+                ConfigSchemaRegistry.validate(alias, Map.<String, String>of()::get);
+                return null;
+            });
+            Assert.fail("Expected schema validation to fail");
+        } catch (ConfigValidationException error) {
+            Assert.assertEquals(error.getViolations().size(), 2);
+        } finally {
+            ConfigSchemaRegistry.unregister(alias);
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testScopedEnvironmentIsOnlySeenByItsThreads() throws Exception {
+        try (ExecutorService otherThread = Executors.newSingleThreadExecutor()) {
+            // Start the other thread before the scope opens so it cannot inherit the environment
+            otherThread.submit(() -> { }).get();
+
+            ConfigSchemaRegistry.withActiveEnvironment(EnvironmentType.PRODUCTION, () -> {
+                Assert.assertEquals(ConfigSchemaRegistry.getActiveEnvironment(), EnvironmentType.PRODUCTION);
+                try (ExecutorService childThread = Executors.newVirtualThreadPerTaskExecutor()) {
+                    Assert.assertEquals(childThread.submit(ConfigSchemaRegistry::getActiveEnvironment).get(), EnvironmentType.PRODUCTION);
+                    Assert.assertNotEquals(otherThread.submit(ConfigSchemaRegistry::getActiveEnvironment).get(), EnvironmentType.PRODUCTION);
+                } catch (Exception error) {
+                    throw new IllegalStateException(error);
+                }
+                return null;
+            });
+        }
+        Assert.assertNotEquals(ConfigSchemaRegistry.getActiveEnvironment(), EnvironmentType.PRODUCTION);
+    }
+}
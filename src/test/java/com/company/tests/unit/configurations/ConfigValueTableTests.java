@@ -0,0 +1,92 @@
+package com.company.tests.unit.configurations;
+
+import com.company.configurations.store.ConfigKeyDictionary;
+import com.company.configurations.store.ConfigValueTable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ConfigValueTableTests {
+
+    @Test(groups = {"configSetup"})
+    public void testEnvironmentsShareKeysAndIdenticalValues() {
+        Map<String, String> uatValues = new LinkedHashMap<>();
+        uatValues.put("MATRIX_BASE_URL", "https://uat.example.com");
+        uatValues.put("MATRIX_BROWSER", new String("chrome"));
+
+        Map<String, String> prodValues = new LinkedHashMap<>();
+        prodValues.put("MATRIX_BROWSER", new String("chrome"));
+        prodValues.put("MATRIX_BASE_URL", "https://example.com");
+
+        ConfigValueTable<String> uat = ConfigValueTable.of(uatValues);
+        ConfigValueTable<String> prod = ConfigValueTable.of(prodValues);
+
+        Assert.assertEquals(uat.get("MATRIX_BASE_URL"), "https://uat.example.com");
+        Assert.assertEquals(prod.get("MATRIX_BASE_URL"), "https://example.com");
+        Assert.assertSame(uat.get("MATRIX_BROWSER"), prod.get("MATRIX_BROWSER"), "Identical values should be stored once");
+
+        int keyId = ConfigKeyDictionary.lookupId("MATRIX_BROWSER");
+        Assert.assertEquals(ConfigKeyDictionary.keyOf(keyId), "MATRIX_BROWSER");
+        Assert.assertSame(uat.get(keyId), prod.get(keyId));
+        Assert.assertEquals(prod.keys(), List.of("MATRIX_BROWSER", "MATRIX_BASE_URL"));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testKeysDefinedElsewhereResolveToNull() {
+        ConfigValueTable<String> first = ConfigValueTable.of(Map.of("MATRIX_ONLY_IN_FIRST", "1"));
+        ConfigValueTable<String> second = ConfigValueTable.of(Map.of("MATRIX_ONLY_IN_SECOND", "2"));
+
+        Assert.assertNull(first.get("MATRIX_ONLY_IN_SECOND"));
+        Assert.assertNull(second.get("MATRIX_ONLY_IN_FIRST"));
+        Assert.assertNull(first.get("MATRIX_NEVER_DEFINED"));
+        Assert.assertEquals(ConfigKeyDictionary.lookupId("MATRIX_NEVER_DEFINED"), ConfigKeyDictionary.UNKNOWN_KEY);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testUnpooledTablesKeepTheirOwnValues() {
+        ConfigValueTable<String> first = ConfigValueTable.ofUnpooled(Map.of("MATRIX_SECRET", new String("secret-value")));
+        ConfigValueTable<String> second = ConfigValueTable.ofUnpooled(Map.of("MATRIX_SECRET", new String("secret-value")));
+        ConfigValueTable<String> pooled = ConfigValueTable.of(Map.of("MATRIX_SECRET", new String("secret-value")));
+
+        Assert.assertEquals(first.get("MATRIX_SECRET"), second.get("MATRIX_SECRET"));
+        Assert.assertNotSame(first.get("MATRIX_SECRET"), second.get("MATRIX_SECRET"));
+        Assert.assertNotSame(pooled.get("MATRIX_SECRET"), first.get("MATRIX_SECRET"), "Unpooled values must not enter the pool");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testPooledValuesAreReleasedWithTheirTables() throws InterruptedException {
+        ConfigValueTable<String> table = ConfigValueTable.of(Map.of("MATRIX_RELEASED", new String("released-" + System.nanoTime())));
+        WeakReference<String> value = new WeakReference<>(table.get("MATRIX_RELEASED"));
+        table = null;
+
+        for (int attempt = 0; attempt < 50 && value.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(value.get(), "The pool must not keep values of unloaded tables alive");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testTablesOnlyHoldTheirOwnKeys() {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int key = 0; key < 200; key++) {
+            values.put("MATRIX_WIDE_" + key, "value-" + key);
+        }
+        ConfigValueTable.of(values);
+
+        Map<String, String> small = new LinkedHashMap<>();
+        small.put("MATRIX_WIDE_150", "late");
+        small.put("MATRIX_WIDE_3", "early");
+        ConfigValueTable<String> table = ConfigValueTable.of(small);
+
+        Assert.assertEquals(table.size(), 2);
+        Assert.assertEquals(table.get("MATRIX_WIDE_150"), "late");
+        Assert.assertEquals(table.get("MATRIX_WIDE_3"), "early");
+        Assert.assertNull(table.get("MATRIX_WIDE_4"));
+        Assert.assertEquals(table.keys(), List.of("MATRIX_WIDE_150", "MATRIX_WIDE_3"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.company.tests.unit.configurations;
+
+import com.company.configurations.BootstrapReport;
+import com.company.configurations.ConfigurationBootstrap;
+import com.company.configurations.environments.EnvironmentConfigManager;
+import com.company.configurations.environments.EnvironmentFileAlias;
+import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.configurations.environments.EnvironmentSecretKeyVariables;
+import com.company.configurations.environments.EnvironmentType;
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class ConfigurationBootstrapTests {
+
+    private static final Logger logger = LoggerUtils.getLogger(ConfigurationBootstrapTests.class);
+
+    private static final String FIXTURE_USERNAME = "bootstrap-fixture";
+
+    // The fixtures hold a secret key, so nothing is left behind in the temp directory
+    private final List<Path> envDirectories = new ArrayList<>();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws IOException {
+        for (Path envDirectory : envDirectories) {
+            try (Stream<Path> files = Files.walk(envDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testLoadAllForUat() throws IOException {
+        Path envDirectory = createEnvDirectory();
+        byte[] secretKey = new byte[32];
+        new SecureRandom().nextBytes(secretKey);
+        Files.writeString(envDirectory.resolve(EnvironmentFilePaths.BASE.getFilename()),
+                EnvironmentSecretKeyVariables.UAT.getSecretKeyVariable() + "=" + Base64.getEncoder().encodeToString(secretKey) + "\n");
+        Files.writeString(envDirectory.resolve(EnvironmentFilePaths.UAT.getFilename()),
+                "PORTAL_USERNAME=" + FIXTURE_USERNAME + "\nPORTAL_PASSWORD=fixture-password\n");
+
+        // Aliases loaded by other tests stay as they are; the ones loaded from the fixture are dropped afterwards
+        Set<String> loadedBefore = Set.copyOf(EnvironmentConfigManager.getLoadedConfigurationAliases());
+        try {
+            BootstrapReport report = ConfigurationBootstrap.loadAll(EnvironmentType.UAT, envDirectory);
+
+            Assert.assertEquals(report.fileTimings().size(), 4, "Expected global, UAT, base and UAT env files");
+            Assert.assertTrue(report.failures().isEmpty(), "Bootstrap reported failures");
+            Assert.assertTrue(PropertiesConfigManager.isConfigurationLoaded(ConfigFileAlias.GLOBAL.getAlias()));
+            Assert.assertTrue(PropertiesConfigManager.isConfigurationLoaded(ConfigFileAlias.UAT.getAlias()));
+            Assert.assertTrue(EnvironmentConfigManager.isConfigurationLoaded(EnvironmentFileAlias.BASE.getAlias()));
+            Assert.assertTrue(EnvironmentConfigManager.isConfigurationLoaded(EnvironmentFileAlias.UAT.getAlias()));
+            if (!loadedBefore.contains(EnvironmentFileAlias.UAT.getAlias())) {
+                Assert.assertEquals(EnvironmentConfigManager.getEnvironmentKeyFromCache(EnvironmentFileAlias.UAT.getAlias(), "PORTAL_USERNAME"),
+                        FIXTURE_USERNAME);
+            }
+
+            logger.info("Bootstrap wall clock {} ns against sequential sum {} ns",
+                    report.wallClockNanos(), report.totalFileNanos());
+        } finally {
+            for (EnvironmentFileAlias alias : List.of(EnvironmentFileAlias.BASE, EnvironmentFileAlias.UAT)) {
+                if (!loadedBefore.contains(alias.getAlias())) {
+                    EnvironmentConfigManager.unloadConfiguration(alias.getAlias());
+                }
+            }
+        }
+    }
+
+    @Test(groups = {"configSetup"}, expectedExceptions = IllegalStateException.class)
+    public void testLoadAllReportsMissingFiles() throws IOException {
+        // No development properties are committed and the directory is empty, so the bootstrap must fail as a whole
+        ConfigurationBootstrap.loadAll(EnvironmentType.DEVELOPMENT, createEnvDirectory());
+    }
+
+    private Path createEnvDirectory() throws IOException {
+        Path envDirectory = Files.createTempDirectory("bootstrap-envs");
+        envDirectories.add(envDirectory);
+        return envDirectory;
+    }
+}
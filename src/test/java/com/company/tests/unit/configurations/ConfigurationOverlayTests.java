@@ -0,0 +1,100 @@
+package com.company.tests.unit.configurations;
+
+import com.company.configurations.ConfigurationOverlay;
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+public class ConfigurationOverlayTests {
+
+    private static final String PROJECT_NAME = "PROJECT_NAME";
+    private static final String REPORT_NAME = "REPORT_NAME";
+
+    @BeforeClass(alwaysRun = true)
+    public void loadGlobalConfiguration() {
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.GLOBAL.getAlias(), ConfigFilePath.GLOBAL.getFilePath());
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testOverlayShadowsFileValueOnOwningThreadOnly() throws Exception {
+        String fileValue = PropertiesConfigManager.getPropertyKeyFromCache(ConfigFileAlias.GLOBAL.getAlias(), PROJECT_NAME);
+
+        try (ExecutorService otherThread = Executors.newSingleThreadExecutor()) {
+            try (ConfigurationOverlay.Scope ignored = ConfigurationOverlay.with(PROJECT_NAME, "Overlay Project")) {
+                Assert.assertEquals(PropertiesConfigManager.getPropertyKeyFromCache(ConfigFileAlias.GLOBAL.getAlias(), PROJECT_NAME),
+                        "Overlay Project");
+                Assert.assertEquals(otherThread.submit(() -> PropertiesConfigManager.getPropertyKeyFromCache(
+                        ConfigFileAlias.GLOBAL.getAlias(), PROJECT_NAME)).get(), fileValue);
+            }
+        }
+
+        Assert.assertEquals(PropertiesConfigManager.getPropertyKeyFromCache(ConfigFileAlias.GLOBAL.getAlias(), PROJECT_NAME), fileValue);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testNestedOverlaysRestoreOnClose() {
+        try (ConfigurationOverlay.Scope ignored = ConfigurationOverlay.with(Map.of(PROJECT_NAME, "Outer", REPORT_NAME, "Outer Report"))) {
+            try (ConfigurationOverlay.Scope ignoredInner = ConfigurationOverlay.with(PROJECT_NAME, "Inner")) {
+                Assert.assertEquals(ConfigurationOverlay.lookup(PROJECT_NAME), "Inner");
+                Assert.assertEquals(ConfigurationOverlay.lookup(REPORT_NAME), "Outer Report");
+            }
+            Assert.assertEquals(ConfigurationOverlay.lookup(PROJECT_NAME), "Outer");
+        }
+        Assert.assertNull(ConfigurationOverlay.lookup(PROJECT_NAME));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testOverlayPropagatesToChildTasks() throws Exception {
+        try (ConfigurationOverlay.Scope ignored = ConfigurationOverlay.with(PROJECT_NAME, "Child Visible");
+             ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Assert.assertEquals(virtualThreads.submit(ConfigurationOverlay.wrap(() -> ConfigurationOverlay.lookup(PROJECT_NAME))).get(),
+                    "Child Visible");
+        }
+
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            try (ConfigurationOverlay.Scope ignored = ConfigurationOverlay.with(PROJECT_NAME, "Wrapped")) {
+                // The pool thread is created inside the scope, and still only wrapped tasks see the overlay
+                Assert.assertNull(pool.submit(() -> ConfigurationOverlay.lookup(PROJECT_NAME)).get());
+                Assert.assertEquals(pool.submit(ConfigurationOverlay.wrap(() -> ConfigurationOverlay.lookup(PROJECT_NAME))).get(), "Wrapped");
+                Assert.assertNull(pool.submit(() -> ConfigurationOverlay.lookup(PROJECT_NAME)).get());
+            }
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testDiscardDetachesLeakedOverlay() throws Exception {
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            // A task that never closes its scope leaves the overlay on the pooled thread
+            pool.submit(() -> ConfigurationOverlay.with(PROJECT_NAME, "Leaked")).get();
+            Assert.assertEquals(pool.submit(() -> ConfigurationOverlay.lookup(PROJECT_NAME)).get(), "Leaked");
+
+            Assert.assertEquals(pool.submit(ConfigurationOverlay::discardCurrent).get(), Map.of(PROJECT_NAME, "Leaked"));
+            Assert.assertNull(pool.submit(() -> ConfigurationOverlay.lookup(PROJECT_NAME)).get());
+            Assert.assertEquals(pool.submit(ConfigurationOverlay::discardCurrent).get(), Map.of());
+        }
+    }
+
+    @Test(groups = {"configSetup"}, dataProvider = "overlayValues")
+    public void testParallelRowsSeeOnlyTheirOwnOverlay(String value) throws Exception {
+        try (ConfigurationOverlay.Scope ignored = ConfigurationOverlay.with(PROJECT_NAME, value)) {
+            Thread.sleep(5);
+            Assert.assertEquals(ConfigurationOverlay.lookup(PROJECT_NAME), value);
+        }
+        Assert.assertNull(ConfigurationOverlay.lookup(PROJECT_NAME));
+    }
+
+    @DataProvider(name = "overlayValues", parallel = true)
+    private Object[][] overlayValues() {
+        return IntStream.range(0, 16).mapToObj(row -> new Object[]{"Row " + row}).toArray(Object[][]::new);
+    }
+}
@@ -0,0 +1,133 @@
+package com.company.tests.unit.configurations;
+
+import com.company.configurations.cache.SharedConfigCache;
+import com.company.configurations.environments.EnvironmentSecretKeyVariables;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Optional;
+
+public class SharedConfigCacheTests {
+
+    private static final int WRITE_OFFSET = 8;
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    @BeforeClass(alwaysRun = true)
+    public void requireSharedCache() {
+        if (!SharedConfigCache.isEnabled()) {
+            throw new SkipException("Shared configuration cache is not configured for this run");
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testPublishedFileIsAttachedUntilSourceChanges() throws IOException {
+        Path sourceFile = Files.writeString(Files.createTempFile("shared-cache", ".properties"), "A=1\n");
+        byte[] content = Files.readAllBytes(sourceFile);
+        Map<String, String> values = Map.of("A", "1");
+
+        SharedConfigCache.publishFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile, content, values);
+        Assert.assertEquals(SharedConfigCache.lookupFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile, content),
+                Optional.of(values));
+        Assert.assertTrue(SharedConfigCache.lookupFile(SharedConfigCache.Kind.ENVIRONMENT_FILE, sourceFile, content).isEmpty(),
+                "Records of another kind must not match");
+
+        // Same size and same modification time, as a quick re-encryption on a coarse-grained filesystem would leave it
+        FileTime modified = Files.getLastModifiedTime(sourceFile);
+        Files.writeString(sourceFile, "A=2\n");
+        Files.setLastModifiedTime(sourceFile, modified);
+        Assert.assertTrue(SharedConfigCache.lookupFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile,
+                Files.readAllBytes(sourceFile)).isEmpty(), "A changed source must not be served from the cache");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testUncommittedSlotDoesNotHideLaterRecords() throws IOException {
+        Path cacheFile = Path.of(System.getProperty(SharedConfigCache.CACHE_FILE_PROPERTY));
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            // Reserve a slot the way a writer does and never commit it, as if the writer had died
+            long offset;
+            do {
+                offset = (long) LONG_VIEW.getVolatile(buffer, WRITE_OFFSET);
+            } while ((int) INT_VIEW.compareAndExchange(buffer, (int) offset + 4, 0, 64) != 0);
+            LONG_VIEW.compareAndSet(buffer, WRITE_OFFSET, offset, offset + 64);
+        }
+
+        Path sourceFile = Files.writeString(Files.createTempFile("shared-cache", ".properties"), "B=1\n");
+        byte[] content = Files.readAllBytes(sourceFile);
+        SharedConfigCache.publishFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile, content, Map.of("B", "1"));
+
+        Assert.assertEquals(SharedConfigCache.lookupFile(SharedConfigCache.Kind.PROPERTIES_FILE, sourceFile, content),
+                Optional.of(Map.of("B", "1")));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testSecretsAreOnlyReadableWithTheirKey() {
+        SecretKey secretKey = randomKey();
+        String encryptedValue = "encrypted-" + System.nanoTime();
+
+        SharedConfigCache.publishSecret(secretKey, "uat", "PORTAL_PASSWORD", encryptedValue, "admin123");
+
+        Assert.assertEquals(SharedConfigCache.lookupSecret(secretKey, "uat", "PORTAL_PASSWORD", encryptedValue), Optional.of("admin123"));
+        Assert.assertTrue(SharedConfigCache.lookupSecret(randomKey(), "uat", "PORTAL_PASSWORD", encryptedValue).isEmpty(),
+                "Another key must not open the sealed secret");
+        Assert.assertTrue(SharedConfigCache.lookupSecret(secretKey, "uat", "PORTAL_PASSWORD", encryptedValue + "x").isEmpty(),
+                "A re-encrypted value must miss");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testCacheFileHoldsNoPlainTextAndIsOwnerOnly() throws IOException {
+        String marker = "plain-text-marker-" + System.nanoTime();
+        Path sourceFile = Files.writeString(Files.createTempFile("shared-cache", ".env"), "PORTAL_PASSWORD=" + marker + "\n");
+        byte[] content = Files.readAllBytes(sourceFile);
+        Map<String, String> values = Map.of("PORTAL_PASSWORD", marker);
+
+        SharedConfigCache.publishFile(SharedConfigCache.Kind.ENVIRONMENT_FILE, sourceFile, content, values);
+        SharedConfigCache.publishSecret(randomKey(), "uat", "PORTAL_PASSWORD", "encrypted-" + marker, marker);
+        Assert.assertEquals(SharedConfigCache.lookupFile(SharedConfigCache.Kind.ENVIRONMENT_FILE, sourceFile, content),
+                Optional.of(values));
+
+        Path cacheFile = Path.of(System.getProperty(SharedConfigCache.CACHE_FILE_PROPERTY));
+        String cacheContent = new String(Files.readAllBytes(cacheFile), StandardCharsets.ISO_8859_1);
+        Assert.assertFalse(cacheContent.contains(marker), "Cached values must be sealed");
+        if (Files.getFileStore(cacheFile).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Assert.assertEquals(PosixFilePermissions.toString(Files.getPosixFilePermissions(cacheFile)), "rw-------");
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testEnvironmentFilesHoldingSecretKeysAreNotShared() throws IOException {
+        Path sourceFile = Files.writeString(Files.createTempFile("shared-cache", ".env"), "UAT_SECRET_KEY=a2V5\n");
+        byte[] content = Files.readAllBytes(sourceFile);
+
+        SharedConfigCache.publishFile(SharedConfigCache.Kind.ENVIRONMENT_FILE, sourceFile, content,
+                Map.of(EnvironmentSecretKeyVariables.UAT.getSecretKeyVariable(), "a2V5"));
+
+        Assert.assertTrue(SharedConfigCache.lookupFile(SharedConfigCache.Kind.ENVIRONMENT_FILE, sourceFile, content).isEmpty());
+    }
+
+    private static SecretKey randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, "AES");
+    }
+}
@@ -0,0 +1,157 @@
+package com.company.tests.unit.core;
+
+import com.company.core.ErrorHandler;
+import com.company.utils.LoggerUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ErrorHandlerTests {
+
+    private static final long EMIT_TIMEOUT_MILLIS = 10_000;
+
+    private final CapturingAppender appender = new CapturingAppender();
+
+    /**
+     * Keeps the errors ErrorHandler logs; events of async loggers are reused, so only copies are kept.
+     */
+    private static final class CapturingAppender extends AbstractAppender {
+
+        private final List<LogEvent> events = new CopyOnWriteArrayList<>();
+
+        private CapturingAppender() {
+            super("ErrorHandlerTestsCapture", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public void append(LogEvent event) {
+            if (event.getLoggerName().equals(ErrorHandler.class.getName())) {
+                events.add(event.toImmutable());
+            }
+        }
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void captureErrorHandlerOutput() {
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        appender.start();
+        context.getConfiguration().getLoggerConfig(ErrorHandler.class.getName()).addAppender(appender, Level.WARN, null);
+        context.updateLoggers();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopCapturing() {
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        context.getConfiguration().getLoggerConfig(ErrorHandler.class.getName()).removeAppender(appender.getName());
+        context.updateLoggers();
+        appender.stop();
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testWrappedErrorIsLoggedOnceWithItsPath() throws InterruptedException {
+        SecurityException macFailure = new SecurityException("MAC verification failed " + System.nanoTime());
+        ErrorHandler.logError(macFailure, "verifyMac", "Failed to verify MAC");
+
+        RuntimeException decryptFailure = new RuntimeException(macFailure);
+        ErrorHandler.logError(decryptFailure, "decrypt", "Failed to decrypt data");
+
+        RuntimeException callerFailure = new RuntimeException(decryptFailure);
+        ErrorHandler.logError(callerFailure, "decryptSingleKey", "Failed to decrypt key");
+
+        Assert.assertEquals(ErrorHandler.getContextPath(callerFailure), Optional.of("verifyMac <- decrypt <- decryptSingleKey"));
+        Assert.assertEquals(ErrorHandler.getContextPath(macFailure), ErrorHandler.getContextPath(callerFailure));
+        Assert.assertTrue(ErrorHandler.getContextPath(new RuntimeException("never reported")).isEmpty());
+
+        Assert.assertEquals(ErrorHandler.flush(), 1);
+        Assert.assertEquals(ErrorHandler.flush(), 0, "A report is only emitted once");
+        List<LogEvent> events = awaitEvents(macFailure.getMessage(), 1);
+        Assert.assertEquals(events.size(), 1);
+        LogEvent event = events.get(0);
+        Assert.assertEquals(event.getLevel(), Level.ERROR);
+        Assert.assertTrue(event.getMessage().getFormattedMessage().startsWith("Error in method 'verifyMac': Failed to verify MAC."),
+                event.getMessage().getFormattedMessage());
+        Assert.assertTrue(event.getMessage().getFormattedMessage().endsWith("Propagated through: verifyMac <- decrypt <- decryptSingleKey"),
+                event.getMessage().getFormattedMessage());
+        Assert.assertSame(event.getThrown(), callerFailure, "The outermost error carries the whole cause chain");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testReportIsEmittedOnceTheErrorStopsPropagating() throws InterruptedException {
+        String message = "Session lost " + System.nanoTime();
+        ErrorHandler.logError(new IllegalStateException(message), "readSession", "Failed to read session");
+
+        List<LogEvent> events = awaitEvents(message, 1);
+        Assert.assertEquals(events.size(), 1, "The report should be emitted without a flush");
+        // Emitted by the background thread, but still attributed to this test
+        Assert.assertEquals(events.get(0).getContextData().getValue(LoggerUtils.TEST_ID_KEY), LoggerUtils.currentTestId());
+        Assert.assertEquals(ErrorHandler.flush(), 0);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testIdenticalErrorsAreRateLimited() throws InterruptedException {
+        String message = "Connection refused " + System.nanoTime();
+        long suppressedBefore = ErrorHandler.getSuppressedErrorCount();
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            ErrorHandler.logError(new IllegalStateException(message), "openSession", "Failed to open session");
+        }
+
+        Assert.assertEquals(ErrorHandler.getSuppressedErrorCount() - suppressedBefore, 4,
+                "Only the first of the identical errors should be logged");
+        ErrorHandler.flush();
+        Assert.assertEquals(awaitEvents(message, 1).size(), 1);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testIdenticalErrorsOfDifferentTestsAreEachLogged() throws InterruptedException {
+        String message = "Portal unavailable " + System.nanoTime();
+        String testId = LoggerUtils.currentTestId();
+        try {
+            for (String parallelTest : List.of("ParallelTestA", "ParallelTestB")) {
+                ThreadContext.put(LoggerUtils.TEST_ID_KEY, parallelTest + "-" + message);
+                ErrorHandler.logError(new IllegalStateException(message), "openPortal", "Failed to open portal");
+                ErrorHandler.flush();
+            }
+        } finally {
+            if (testId != null) {
+                ThreadContext.put(LoggerUtils.TEST_ID_KEY, testId);
+            } else {
+                ThreadContext.remove(LoggerUtils.TEST_ID_KEY);
+            }
+        }
+
+        Assert.assertEquals(awaitEvents(message, 2).size(), 2,
+                "An error of one test must not suppress the same error of another");
+    }
+
+    private List<LogEvent> awaitEvents(String messageFragment, int expectedCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + EMIT_TIMEOUT_MILLIS;
+        List<LogEvent> matching = List.of();
+        while (System.currentTimeMillis() < deadline) {
+            matching = appender.events.stream()
+                    .filter(event -> event.getMessage().getFormattedMessage().contains(messageFragment))
+                    .toList();
+            if (matching.size() >= expectedCount) {
+                // Give a duplicate that should not exist the chance to show up
+                Thread.sleep(200);
+                return appender.events.stream()
+                        .filter(event -> event.getMessage().getFormattedMessage().contains(messageFragment))
+                        .toList();
+            }
+            Thread.sleep(20);
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,30 @@
+package com.company.tests.unit.core;
+
+import com.company.core.FileManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Child process of {@link FileManagerTests}: increments the counter held in a file the given number of times.
+ */
+public final class FileCounterWorker {
+
+    private FileCounterWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path counterFile = Path.of(args[0]);
+        int increments = Integer.parseInt(args[1]);
+        for (int index = 0; index < increments; index++) {
+            increment(counterFile);
+        }
+    }
+
+    static void increment(Path counterFile) throws Exception {
+        FileManager.updateAtomically(counterFile, content -> {
+            long value = Long.parseLong(new String(content, StandardCharsets.UTF_8).trim());
+            return Long.toString(value + 1).getBytes(StandardCharsets.UTF_8);
+        });
+    }
+}
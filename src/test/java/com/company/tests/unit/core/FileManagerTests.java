@@ -0,0 +1,96 @@
+package com.company.tests.unit.core;
+
+import com.company.core.FileManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class FileManagerTests {
+
+    private static final int INCREMENTS = 200;
+
+    @Test(groups = {"configSetup"})
+    public void testWriteAtomicallyReplacesContentAndKeepsPermissions() throws Exception {
+        Path directory = Files.createTempDirectory("file-manager");
+        Path file = Files.writeString(directory.resolve(".env"), "OLD=1\n");
+        boolean posix = file.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (posix) {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        }
+
+        FileManager.writeAtomically(file, "NEW=2\n".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(Files.readString(file), "NEW=2\n");
+        if (posix) {
+            Assert.assertEquals(PosixFilePermissions.toString(Files.getPosixFilePermissions(file)), "rw-------");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Assert.assertEquals(files.map(path -> path.getFileName().toString()).toList(), List.of(".env"),
+                    "Temporary file left behind");
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testCompareAndSwap() throws Exception {
+        Path file = Files.createTempDirectory("file-manager").resolve("state");
+
+        Assert.assertNull(FileManager.contentHash(file));
+        Assert.assertTrue(FileManager.compareAndSwap(file, null, bytes("first")));
+        Assert.assertFalse(FileManager.compareAndSwap(file, null, bytes("second")), "File already exists");
+
+        byte[] firstHash = FileManager.contentHash(file);
+        Assert.assertTrue(FileManager.compareAndSwap(file, firstHash, bytes("second")));
+        Assert.assertFalse(FileManager.compareAndSwap(file, firstHash, bytes("third")), "Stale hash must not win");
+        Assert.assertEquals(Files.readString(file), "second");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testConcurrentUpdatesAcrossThreadsAndProcessesAreNotLost() throws Exception {
+        Path counterFile = Files.createTempDirectory("file-manager").resolve("counter");
+        Files.writeString(counterFile, "0");
+
+        Process child = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                FileCounterWorker.class.getName(), counterFile.toString(), Integer.toString(INCREMENTS))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 4; worker++) {
+                workers.add(executor.submit(() -> {
+                    for (int index = 0; index < INCREMENTS; index++) {
+                        FileCounterWorker.increment(counterFile);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertTrue(child.waitFor(2, TimeUnit.MINUTES), "Child process did not finish");
+        Assert.assertEquals(child.exitValue(), 0);
+
+        Assert.assertEquals(Files.readString(counterFile), Long.toString(5L * INCREMENTS));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.tests.unit.core;
+
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.core.events.ConfigLoadEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class FrameworkEventsTests {
+
+    @Test(groups = {"configSetup"})
+    public void testConfigLoadIsRecorded() throws Exception {
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.GLOBAL.getAlias(), ConfigFilePath.GLOBAL.getFilePath());
+
+        Path recordingFile = Files.createTempFile("framework-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ConfigLoadEvent.class);
+            recording.start();
+            PropertiesConfigManager.reloadConfiguration(ConfigFileAlias.GLOBAL.getAlias());
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals("com.company.ConfigLoad"))
+                .filter(event -> ConfigFileAlias.GLOBAL.getAlias().equals(event.getString("alias")))
+                .toList();
+        Files.deleteIfExists(recordingFile);
+
+        Assert.assertEquals(events.size(), 1);
+        RecordedEvent event = events.get(0);
+        Assert.assertEquals(event.getString("kind"), ConfigLoadEvent.PROPERTIES);
+        Assert.assertEquals(event.getString("file"), ConfigFilePath.GLOBAL.getFilePath());
+        Assert.assertTrue(event.getBoolean("succeeded"));
+        Assert.assertTrue(event.getInt("keyCount") > 0);
+    }
+}
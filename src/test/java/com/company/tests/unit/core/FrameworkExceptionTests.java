@@ -0,0 +1,65 @@
+package com.company.tests.unit.core;
+
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.core.ConfigException;
+import com.company.core.CryptoFailure;
+import com.company.core.FrameworkException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class FrameworkExceptionTests {
+
+    private static final int LAYERS = 4;
+
+    @Test(groups = {"configSetup"})
+    public void testWrapPreservesFrameworkExceptions() {
+        ConfigException miss = ConfigException.stackless("Property 'RETRY_COUNT' not found");
+
+        Assert.assertSame(CryptoFailure.wrap("Failed to decrypt key", miss), miss);
+        Assert.assertSame(ConfigException.wrap("Failed to retrieve property", miss), miss);
+        Assert.assertTrue(miss.isStackless());
+        Assert.assertEquals(miss.getStackTrace().length, 0);
+
+        IllegalStateException foreign = new IllegalStateException("Cipher unavailable");
+        RuntimeException wrapped = CryptoFailure.wrap("Failed to initialize cipher", foreign);
+        Assert.assertTrue(wrapped instanceof CryptoFailure && wrapped instanceof FrameworkException);
+        Assert.assertSame(wrapped.getCause(), foreign);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testConfigurationMissIsStackless() {
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.GLOBAL.getAlias(), ConfigFilePath.GLOBAL.getFilePath());
+        try {
+            PropertiesConfigManager.getConfiguration(ConfigFileAlias.GLOBAL).getProperty("MISSING_" + System.nanoTime());
+            Assert.fail("A missing required key must throw");
+        } catch (ConfigException error) {
+            Assert.assertTrue(error.isStackless());
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testMissPropagatesUnchangedThroughLayers() {
+        try {
+            layer(LAYERS);
+            Assert.fail("The miss must reach the caller");
+        } catch (ConfigException error) {
+            Assert.assertEquals(error.getMessage(), "Property 'RETRY_COUNT' not found");
+            Assert.assertTrue(error.isStackless());
+            Assert.assertEquals(error.getStackTrace().length, 0);
+            Assert.assertNull(error.getCause(), "No layer should have wrapped the miss");
+        }
+    }
+
+    private static void layer(int depth) {
+        try {
+            if (depth == 0) {
+                throw ConfigException.stackless("Property 'RETRY_COUNT' not found");
+            }
+            layer(depth - 1);
+        } catch (RuntimeException error) {
+            throw ConfigException.wrap("Failed to retrieve property", error);
+        }
+    }
+}
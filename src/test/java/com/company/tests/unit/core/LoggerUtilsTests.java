@@ -0,0 +1,95 @@
+package com.company.tests.unit.core;
+
+import com.company.utils.LoggerUtils;
+import com.company.utils.logging.TestLogBufferAppender;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LoggerUtilsTests {
+
+    private static final Logger logger = LoggerUtils.getLogger(LoggerUtilsTests.class);
+
+    private static final Path FAILED_TESTS_DIRECTORY = Path.of("logs", "failed-tests");
+    // Generous because parallel suites can starve the async logging thread; the wait ends as soon as the file appears
+    private static final long FLUSH_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * Suspends the context the listener opened for the running test method, and on close restores it and deletes the
+     * log files the test expected.
+     */
+    private static final class SuspendedContext implements AutoCloseable {
+        private final String listenerTestId = LoggerUtils.currentTestId();
+        private final List<Path> logFiles = new ArrayList<>();
+
+        /**
+         * Resolves the file the appender writes for a failed test.
+         */
+        private Path logFileOf(String testId) {
+            Path logFile = FAILED_TESTS_DIRECTORY.resolve(TestLogBufferAppender.fileNameFor(testId));
+            logFiles.add(logFile);
+            return logFile;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (listenerTestId != null) {
+                LoggerUtils.beginTestContext(listenerTestId);
+            }
+            for (Path logFile : logFiles) {
+                Files.deleteIfExists(logFile);
+            }
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testFailedTestOutputIsFlushed() throws Exception {
+        try (SuspendedContext context = new SuspendedContext()) {
+            String testId = "LoggerUtilsTests.failed-" + System.nanoTime();
+            LoggerUtils.beginTestContext(testId);
+            Assert.assertEquals(LoggerUtils.currentTestId(), testId);
+            logger.info("Buffered line of {}", testId);
+            LoggerUtils.endTestContext(true);
+
+            Assert.assertNull(LoggerUtils.currentTestId());
+            Path logFile = context.logFileOf(testId);
+            Assert.assertTrue(awaitFile(logFile), "Output of a failed test should be written to " + logFile);
+            Assert.assertTrue(Files.readString(logFile).contains("Buffered line of " + testId));
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testPassedTestOutputIsDiscarded() throws Exception {
+        try (SuspendedContext context = new SuspendedContext()) {
+            String testId = "LoggerUtilsTests.passed-" + System.nanoTime();
+            LoggerUtils.beginTestContext(testId);
+            logger.info("Buffered line of {}", testId);
+            LoggerUtils.endTestContext(false);
+
+            // A failed test ended afterwards is flushed only once the passed test's end marker has been handled
+            String followingTestId = "LoggerUtilsTests.following-" + System.nanoTime();
+            LoggerUtils.beginTestContext(followingTestId);
+            LoggerUtils.endTestContext(true);
+            Assert.assertTrue(awaitFile(context.logFileOf(followingTestId)));
+
+            Assert.assertFalse(Files.exists(context.logFileOf(testId)), "Output of a passed test should be discarded");
+        }
+    }
+
+    private static boolean awaitFile(Path file) throws InterruptedException, IOException {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (Files.exists(file) && Files.size(file) > 0) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package com.company.tests.unit.core;
+
+import com.company.configurations.properties.ConfigFileAlias;
+import com.company.configurations.properties.ConfigFilePath;
+import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.core.LatencyHistogram;
+import com.company.core.MetricsRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsRegistryTests {
+
+    @Test(groups = {"configSetup"})
+    public void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = MetricsRegistry.timer("test.histogram." + System.nanoTime());
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(value));
+        }
+
+        Assert.assertEquals(histogram.getCount(), 1000);
+        Assert.assertEquals(histogram.getMaxNanos(), TimeUnit.MICROSECONDS.toNanos(1000));
+        assertWithinPrecision(histogram.getPercentileNanos(50), TimeUnit.MICROSECONDS.toNanos(500));
+        assertWithinPrecision(histogram.getPercentileNanos(99), TimeUnit.MICROSECONDS.toNanos(990));
+        Assert.assertEquals(histogram.getPercentileNanos(100), histogram.getMaxNanos(), 0.04 * histogram.getMaxNanos());
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testLoadIsTimedAndReported() throws Exception {
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.GLOBAL.getAlias(), ConfigFilePath.GLOBAL.getFilePath());
+        PropertiesConfigManager.reloadConfiguration(ConfigFileAlias.GLOBAL.getAlias());
+        MetricsRegistry.counter("test.counter").increment();
+
+        Assert.assertTrue(MetricsRegistry.timer("config.properties.load").getCount() > 0);
+
+        Path reportDirectory = Files.createTempDirectory("metrics");
+        MetricsRegistry.writeReport(reportDirectory, "Unit Suite");
+        String json = Files.readString(reportDirectory.resolve("Unit_Suite.json"));
+        Assert.assertTrue(json.contains("\"config.properties.load\""));
+        Assert.assertTrue(json.contains("\"test.counter\": 1"));
+        Assert.assertTrue(json.contains("\"errors.suppressed\""));
+        Assert.assertTrue(Files.readString(reportDirectory.resolve("Unit_Suite.txt")).contains("config.properties.load"));
+    }
+
+    @Test(groups = {"configSetup"}, expectedExceptions = UncheckedIOException.class)
+    public void testReportWriteFailureIsAnIoError() throws Exception {
+        // A regular file where the report directory should be makes creating the directory fail
+        Path blockingFile = Files.createTempFile("metrics", ".txt");
+        MetricsRegistry.writeReport(blockingFile.resolve("reports"), "Unit Suite");
+    }
+
+    private static void assertWithinPrecision(long actual, long expected) {
+        Assert.assertEquals(actual, expected, expected * 0.04, "Percentile outside bucket precision");
+    }
+}
@@ -0,0 +1,61 @@
+package com.company.tests.unit.crypto;
+
+import com.company.core.CryptoFailure;
+import com.company.crypto.services.BatchCryptoService;
+import com.company.crypto.services.SecureKeyGenerator;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class BatchCryptoServiceTests {
+
+    private static final int RECORD_COUNT = 2_000;
+
+    private SecretKey secretKey;
+    private List<String> records;
+    private byte[] batch;
+
+    @BeforeClass(alwaysRun = true)
+    public void encryptBatch() {
+        secretKey = SecureKeyGenerator.generateSecretKey();
+        records = IntStream.range(0, RECORD_COUNT)
+                .mapToObj(index -> index % 100 == 0 ? "" : "user-" + index + "@example.com|päss" + index)
+                .toList();
+        batch = BatchCryptoService.encryptBatch(secretKey, records);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testRoundTripKeepsOrder() {
+        Assert.assertEquals(BatchCryptoService.decryptBatch(secretKey, batch), records);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testModifiedRecordIsRejected() {
+        byte[] tampered = batch.clone();
+        tampered[tampered.length - 1] ^= 1;
+        Assert.assertThrows(CryptoFailure.class, () -> BatchCryptoService.decryptBatch(secretKey, tampered));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testMalformedBatchesAreRejectedBeforeKeyDerivation() {
+        Assert.assertThrows(CryptoFailure.class, () -> BatchCryptoService.decryptBatch(secretKey, new byte[]{1, 2, 3}));
+        Assert.assertThrows(CryptoFailure.class,
+                () -> BatchCryptoService.decryptBatch(secretKey, Arrays.copyOf(batch, batch.length - 1)));
+
+        byte[] shortCount = batch.clone();
+        ByteBuffer.wrap(shortCount).putInt(5 + 32, RECORD_COUNT - 1);
+        Assert.assertThrows(CryptoFailure.class, () -> BatchCryptoService.decryptBatch(secretKey, shortCount));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testEmptyBatch() {
+        byte[] empty = BatchCryptoService.encryptBatch(secretKey, List.of());
+        Assert.assertEquals(BatchCryptoService.decryptBatch(secretKey, empty), List.of());
+    }
+}
@@ -0,0 +1,70 @@
+package com.company.tests.unit.crypto;
+
+import com.company.core.CryptoFailure;
+import com.company.crypto.services.CryptoProviderSelector;
+import com.company.crypto.services.CryptoProviderSelector.Choice;
+import com.company.crypto.utils.CryptoConstants;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+public class CryptoProviderSelectorTests {
+
+    private static final String AES_CBC = CryptoConstants.AES_CBC_PKCS5.getStringValue();
+    private static final String AES_GCM = CryptoConstants.AES_GCM.getStringValue();
+    private static final String HMAC_SHA256 = CryptoConstants.HMAC_SHA256.getStringValue();
+
+    @Test(groups = {"configSetup"})
+    public void testEveryAlgorithmHasUsableProvider() throws Exception {
+        Map<String, Choice> selections = CryptoProviderSelector.selections();
+
+        Assert.assertEquals(selections.keySet(), Set.of(AES_CBC, AES_GCM, HMAC_SHA256));
+        Assert.assertNotNull(Cipher.getInstance(AES_CBC, CryptoProviderSelector.providerFor(AES_CBC)));
+        Assert.assertNotNull(Cipher.getInstance(AES_GCM, CryptoProviderSelector.providerFor(AES_GCM)));
+        Assert.assertNotNull(Mac.getInstance(HMAC_SHA256, CryptoProviderSelector.providerFor(HMAC_SHA256)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CryptoProviderSelector.providerFor("DES"));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testBenchmarkResultIsCachedAndReused() throws Exception {
+        Path cacheFile = Files.createTempDirectory("crypto-providers").resolve("providers.properties");
+
+        Map<String, Choice> benchmarked = CryptoProviderSelector.select(cacheFile, null);
+        Assert.assertTrue(Files.exists(cacheFile));
+        benchmarked.values().forEach(choice -> {
+            Assert.assertEquals(choice.source(), "benchmark");
+            Assert.assertTrue(choice.opsPerSecond().get(choice.provider().getName()) > 0);
+        });
+
+        Map<String, Choice> cached = CryptoProviderSelector.select(cacheFile, null);
+        cached.forEach((algorithm, choice) -> {
+            Assert.assertEquals(choice.source(), "cache");
+            Assert.assertEquals(choice.provider().getName(), benchmarked.get(algorithm).provider().getName());
+        });
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testCacheFromOtherRuntimeIsIgnored() throws Exception {
+        Path cacheFile = Files.createTempFile("crypto-providers", ".properties");
+        Files.writeString(cacheFile, "fingerprint=other-runtime\n" + "HmacSHA256=BC\n");
+
+        CryptoProviderSelector.select(cacheFile, null).values()
+                .forEach(choice -> Assert.assertEquals(choice.source(), "benchmark"));
+        Assert.assertFalse(Files.readString(cacheFile).contains("other-runtime"));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testForcedProvider() {
+        CryptoProviderSelector.select(null, "BC").values().forEach(choice -> {
+            Assert.assertEquals(choice.provider().getName(), "BC");
+            Assert.assertEquals(choice.source(), "forced");
+        });
+        Assert.assertThrows(CryptoFailure.class, () -> CryptoProviderSelector.select(null, "NoSuchProvider"));
+    }
+}
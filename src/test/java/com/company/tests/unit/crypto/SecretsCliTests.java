@@ -0,0 +1,152 @@
+package com.company.tests.unit.crypto;
+
+import com.company.configurations.environments.EnvironmentFile;
+import com.company.crypto.cli.SecretsCli;
+import com.company.crypto.services.CryptoService;
+import com.company.crypto.services.SecureKeyGenerator;
+import com.company.utils.Base64Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SecretsCliTests {
+
+    private static final String KEY_VARIABLE = "CLI_SECRET_KEY";
+    private static final String STAGED_KEY_VARIABLE = KEY_VARIABLE + "_NEXT";
+
+    /**
+     * Directory and captured output of one test, so tests can run in parallel.
+     */
+    private static final class Workspace {
+        private final Path directory;
+        private final Path baseFile;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        private Workspace() throws IOException {
+            directory = Files.createTempDirectory("secrets-cli");
+            baseFile = directory.resolve(".env");
+        }
+
+        /**
+         * Runs the command with the test's key variable and base file.
+         */
+        private int command(String command, String... args) {
+            List<String> arguments = new ArrayList<>(
+                    List.of(command, "--key", KEY_VARIABLE, "--base", baseFile.toString()));
+            arguments.addAll(List.of(args));
+            return run(arguments.toArray(String[]::new));
+        }
+
+        private int run(String... args) {
+            return SecretsCli.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                    new PrintStream(err, true, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testUsageErrors() throws Exception {
+        Workspace workspace = new Workspace();
+        Assert.assertEquals(workspace.run(), SecretsCli.EXIT_USAGE);
+        Assert.assertEquals(workspace.run("unknown", "--key", KEY_VARIABLE), SecretsCli.EXIT_USAGE);
+        Assert.assertEquals(workspace.run("verify"), SecretsCli.EXIT_USAGE, "--key is required");
+        Assert.assertEquals(workspace.run("verify", "--key", KEY_VARIABLE, "--threads", "0"), SecretsCli.EXIT_USAGE);
+        Assert.assertTrue(workspace.err.toString(StandardCharsets.UTF_8).contains("Usage: secrets"));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testGenerateKeyDoesNotReplaceExistingKey() throws Exception {
+        Workspace workspace = new Workspace();
+        Assert.assertEquals(workspace.command("generate-key"), SecretsCli.EXIT_OK);
+        String key = EnvironmentFile.parse(workspace.baseFile).get(KEY_VARIABLE);
+        Assert.assertNotNull(key);
+
+        Assert.assertEquals(workspace.command("generate-key"), SecretsCli.EXIT_FAILED);
+        Assert.assertEquals(EnvironmentFile.parse(workspace.baseFile).get(KEY_VARIABLE), key);
+
+        Assert.assertEquals(workspace.command("generate-key", "--force"), SecretsCli.EXIT_OK);
+        Assert.assertNotEquals(EnvironmentFile.parse(workspace.baseFile).get(KEY_VARIABLE), key);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testFailedTaskLeavesFilesUnchanged() throws Exception {
+        Workspace workspace = new Workspace();
+        workspace.command("generate-key");
+        Path envFile = Files.writeString(workspace.directory.resolve(".env.cli"), "PRESENT=value\n");
+
+        Assert.assertEquals(workspace.command("encrypt", "--file", envFile.toString(), "PRESENT", "MISSING"),
+                SecretsCli.EXIT_FAILED);
+        Assert.assertEquals(Files.readString(envFile), "PRESENT=value\n");
+        Assert.assertTrue(workspace.err.toString(StandardCharsets.UTF_8)
+                .contains("MISSING FAILED: variable not defined"));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testEncryptThenDecrypt() throws Exception {
+        Workspace workspace = new Workspace();
+        workspace.command("generate-key");
+        Path envFile = Files.writeString(workspace.directory.resolve(".env.cli"), "# credentials\nPASSWORD=s3cret\n");
+
+        Assert.assertEquals(workspace.command("encrypt", "--file", envFile.toString(), "PASSWORD"), SecretsCli.EXIT_OK);
+        String encrypted = EnvironmentFile.parse(envFile).get("PASSWORD");
+        Assert.assertNotEquals(encrypted, "s3cret");
+        Assert.assertTrue(Files.readString(envFile).startsWith("# credentials\n"));
+
+        Assert.assertEquals(workspace.command("decrypt", "--file", envFile.toString(), "PASSWORD"), SecretsCli.EXIT_OK);
+        Assert.assertEquals(workspace.out.toString(StandardCharsets.UTF_8).trim(), envFile + ": PASSWORD=s3cret");
+        Assert.assertTrue(workspace.err.toString(StandardCharsets.UTF_8).contains("[1/1]"));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testRotateRefusesWhileUnnamedVariablesUseTheKey() throws Exception {
+        Workspace workspace = new Workspace();
+        workspace.command("generate-key");
+        SecretKey key = Base64Utils.decodeSecretKey(EnvironmentFile.parse(workspace.baseFile).get(KEY_VARIABLE));
+        String content = "NAMED=" + CryptoService.encrypt(key, "named") + "\n"
+                + "UNNAMED=" + CryptoService.encrypt(key, "unnamed") + "\n"
+                + "PLAIN=value\n";
+        Path envFile = Files.writeString(workspace.directory.resolve(".env.cli"), content);
+        String baseContent = Files.readString(workspace.baseFile);
+
+        Assert.assertEquals(workspace.command("rotate", "--file", envFile.toString(), "NAMED"), SecretsCli.EXIT_FAILED);
+        Assert.assertTrue(workspace.err.toString(StandardCharsets.UTF_8).contains(envFile + ":UNNAMED"));
+        Assert.assertFalse(workspace.err.toString(StandardCharsets.UTF_8).contains(envFile + ":PLAIN"));
+        Assert.assertEquals(Files.readString(envFile), content);
+        Assert.assertEquals(Files.readString(workspace.baseFile), baseContent,
+                "Neither the key nor a staged key may be written");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testRotateResumesFromStagedKey() throws Exception {
+        Workspace workspace = new Workspace();
+        workspace.command("generate-key");
+        SecretKey oldKey = Base64Utils.decodeSecretKey(EnvironmentFile.parse(workspace.baseFile).get(KEY_VARIABLE));
+        // State of a rotation that stopped after staging its key and rewriting one of two variables
+        SecretKey stagedKey = SecureKeyGenerator.generateSecretKey();
+        String encodedStagedKey = Base64Utils.encodeSecretKey(stagedKey);
+        EnvironmentFile.update(workspace.baseFile, Map.of(STAGED_KEY_VARIABLE, encodedStagedKey));
+        String rewritten = CryptoService.encrypt(stagedKey, "rewritten");
+        Path envFile = Files.writeString(workspace.directory.resolve(".env.cli"),
+                "REWRITTEN=" + rewritten + "\nPENDING=" + CryptoService.encrypt(oldKey, "pending") + "\n");
+
+        Assert.assertEquals(workspace.command("rotate", "--file", envFile.toString(), "REWRITTEN", "PENDING"),
+                SecretsCli.EXIT_OK);
+
+        EnvironmentFile base = EnvironmentFile.parse(workspace.baseFile);
+        Assert.assertEquals(base.get(KEY_VARIABLE), encodedStagedKey, "The staged key should be promoted");
+        Assert.assertFalse(base.containsKey(STAGED_KEY_VARIABLE));
+        EnvironmentFile rotated = EnvironmentFile.parse(envFile);
+        Assert.assertEquals(rotated.get("REWRITTEN"), rewritten);
+        Assert.assertEquals(CryptoService.decrypt(stagedKey, rotated.get("PENDING")), "pending");
+    }
+}
@@ -0,0 +1,235 @@
+package com.company.tests.unit.drivers;
+
+import com.company.core.DriverFailure;
+import com.company.core.MetricsRegistry;
+import com.company.drivers.BrowserType;
+import com.company.drivers.DriverKey;
+import com.company.drivers.DriverPool;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DriverPoolTests {
+
+    private static final DriverKey CHROME = DriverKey.of(BrowserType.CHROME);
+    private static final DriverKey FIREFOX = DriverKey.of(BrowserType.FIREFOX);
+
+    @Test(groups = {"configSetup"})
+    public void testSessionIsResetAndReused() {
+        try (DriverPool pool = pool("reuse", 2, 10)) {
+            FakeWebDriver driver = (FakeWebDriver) pool.borrow(CHROME);
+            driver.get("https://portal.example.com/dashboard");
+            driver.addCookie();
+            driver.switchTo().window(driver.openWindow());
+
+            pool.release(driver);
+
+            Assert.assertSame(pool.borrow(CHROME), driver);
+            Assert.assertEquals(driver.getCurrentUrl(), "about:blank");
+            Assert.assertEquals(driver.getCookieCount(), 0);
+            Assert.assertEquals(driver.getWindowHandles().size(), 1, "Extra windows must be closed");
+            Assert.assertEquals(driver.getScripts().size(), 1, "Web storage must be cleared");
+
+            DriverPool.Statistics statistics = pool.statistics();
+            Assert.assertEquals(statistics.created(), 1);
+            Assert.assertEquals(statistics.reused(), 1);
+            Assert.assertEquals(statistics.liveSessions(), 1);
+            Assert.assertEquals(MetricsRegistry.gaugeValue("drivers.reuse.reused"), OptionalLong.of(1));
+        }
+        Assert.assertTrue(MetricsRegistry.gaugeValue("drivers.reuse.reused").isEmpty(), "Closing must remove the gauges");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testPoolsWithTheSameNameKeepSeparateStatistics() {
+        try (DriverPool first = pool("shared-name", 2, 10); DriverPool second = pool("shared-name", 2, 10)) {
+            first.release(first.borrow(CHROME));
+            first.borrow(CHROME);
+
+            Assert.assertEquals(first.statistics().borrows(), 2);
+            Assert.assertEquals(first.statistics().reused(), 1);
+            Assert.assertEquals(second.statistics().borrows(), 0);
+            Assert.assertEquals(second.statistics().created(), 0);
+            // The pool built last owns the gauges
+            Assert.assertEquals(MetricsRegistry.gaugeValue("drivers.shared-name.created"), OptionalLong.of(0));
+
+            first.close();
+            Assert.assertEquals(MetricsRegistry.gaugeValue("drivers.shared-name.created"), OptionalLong.of(0),
+                    "Closing a pool must leave the gauges of a newer pool of the same name in place");
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testSessionIsRetiredAfterMaxUses() {
+        try (DriverPool pool = pool("retire", 1, 2)) {
+            WebDriver first = pool.borrow(CHROME);
+            pool.release(first);
+            pool.release(pool.borrow(CHROME));
+
+            WebDriver next = pool.borrow(CHROME);
+            Assert.assertNotSame(next, first);
+            Assert.assertEquals(((FakeWebDriver) first).getQuitCount(), 1);
+            Assert.assertEquals(pool.statistics().retired(), 1);
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testUnhealthySessionIsReplacedOnBorrow() {
+        try (DriverPool pool = pool("health", 1, 10)) {
+            FakeWebDriver first = (FakeWebDriver) pool.borrow(CHROME);
+            pool.release(first);
+            first.kill();
+
+            WebDriver replacement = pool.borrow(CHROME);
+            Assert.assertNotSame(replacement, first);
+            Assert.assertEquals(pool.statistics().unhealthy(), 1);
+            Assert.assertEquals(pool.statistics().retired(), 0, "An unhealthy session is not a normal retirement");
+            Assert.assertEquals(pool.statistics().liveSessions(), 1);
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testIdleSessionOfOtherKeyIsReplacedWhenFull() {
+        try (DriverPool pool = pool("displace", 1, 10)) {
+            FakeWebDriver chrome = (FakeWebDriver) pool.borrow(CHROME);
+            pool.release(chrome);
+
+            pool.borrow(FIREFOX);
+            Assert.assertEquals(chrome.getQuitCount(), 1);
+            Assert.assertEquals(pool.statistics().displaced(), 1);
+            Assert.assertEquals(pool.statistics().retired(), 0, "A displaced session is not a normal retirement");
+            Assert.assertEquals(pool.statistics().liveSessions(), 1);
+        }
+
+        try (DriverPool pool = pool("displace-oldest", 2, 10)) {
+            FakeWebDriver chrome = (FakeWebDriver) pool.borrow(CHROME);
+            FakeWebDriver firefox = (FakeWebDriver) pool.borrow(FIREFOX);
+            pool.release(chrome);
+            pool.release(firefox);
+
+            pool.borrow(new DriverKey(BrowserType.CHROME, Map.of("headless", true)));
+            Assert.assertEquals(chrome.getQuitCount(), 1, "The least recently used session should be replaced");
+            Assert.assertEquals(firefox.getQuitCount(), 0);
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testBorrowWaitsForReleaseAndTimesOut() throws Exception {
+        try (DriverPool pool = DriverPool.builder().name("bounded-timeout").factory(DriverPoolTests::create).maxSessions(1)
+                .borrowTimeout(Duration.ofMillis(100)).build()) {
+            pool.borrow(CHROME);
+            Assert.assertThrows(DriverFailure.class, () -> pool.borrow(CHROME));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (DriverPool pool = pool("bounded", 1, 10)) {
+            WebDriver held = pool.borrow(CHROME);
+            AtomicReference<Thread> borrower = new AtomicReference<>();
+            Future<WebDriver> waiting = executor.submit(() -> {
+                borrower.set(Thread.currentThread());
+                return pool.borrow(CHROME);
+            });
+            // Released only once the borrower is parked, so the wait is observed however loaded the machine is
+            while (borrower.get() == null || borrower.get().getState() != Thread.State.TIMED_WAITING) {
+                Thread.onSpinWait();
+            }
+            pool.release(held);
+            Assert.assertSame(waiting.get(30, TimeUnit.SECONDS), held);
+            Assert.assertTrue(pool.statistics().meanWaitMillis() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testConcurrentBorrowersStayWithinBound() throws Exception {
+        AtomicInteger borrowed = new AtomicInteger();
+        AtomicInteger maxBorrowed = new AtomicInteger();
+        List<FakeWebDriver> created = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (DriverPool pool = DriverPool.builder().name("concurrent").maxSessions(3).maxUsesPerSession(5)
+                .factory(key -> {
+                    FakeWebDriver driver = (FakeWebDriver) create(key);
+                    created.add(driver);
+                    return driver;
+                })
+                .borrowTimeout(Duration.ofSeconds(30))
+                .build()) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 8; worker++) {
+                DriverKey key = worker % 2 == 0 ? CHROME : FIREFOX;
+                workers.add(executor.submit(() -> {
+                    for (int iteration = 0; iteration < 50; iteration++) {
+                        WebDriver driver = pool.borrow(key);
+                        maxBorrowed.accumulateAndGet(borrowed.incrementAndGet(), Math::max);
+                        borrowed.decrementAndGet();
+                        pool.release(driver);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+            Assert.assertTrue(maxBorrowed.get() <= 3, "Borrowed sessions exceeded the pool size");
+            Assert.assertTrue(pool.statistics().liveSessions() <= 3);
+            DriverPool.Statistics statistics = pool.statistics();
+            Assert.assertEquals(statistics.created() - statistics.retired() - statistics.unhealthy() - statistics.displaced(),
+                    statistics.liveSessions());
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertTrue(created.stream().allMatch(driver -> driver.getQuitCount() == 1), "Every session must be quit once");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testCloseQuitsIdleSessionsAndRejectsBorrows() {
+        DriverPool pool = pool("close", 2, 10);
+        FakeWebDriver idle = (FakeWebDriver) pool.borrow(CHROME);
+        FakeWebDriver borrowed = (FakeWebDriver) pool.borrow(CHROME);
+        pool.release(idle);
+
+        pool.close();
+        Assert.assertEquals(idle.getQuitCount(), 1);
+        Assert.assertThrows(DriverFailure.class, () -> pool.borrow(CHROME));
+
+        pool.release(borrowed);
+        Assert.assertEquals(borrowed.getQuitCount(), 1);
+        Assert.assertEquals(pool.statistics().liveSessions(), 0);
+        Assert.assertEquals(pool.statistics().retired(), 2);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testKeyNormalizesCapabilities() {
+        Assert.assertEquals(new DriverKey(BrowserType.CHROME, Map.of("b", 2, "a", 1)),
+                new DriverKey(BrowserType.CHROME, new LinkedHashMap<>(Map.of("a", 1, "b", 2))));
+        Assert.assertNotEquals(DriverKey.of(BrowserType.CHROME), new DriverKey(BrowserType.CHROME, Map.of("a", 1)));
+    }
+
+    private static DriverPool pool(String name, int maxSessions, int maxUses) {
+        return DriverPool.builder()
+                .name(name)
+                .factory(DriverPoolTests::create)
+                .maxSessions(maxSessions)
+                .maxUsesPerSession(maxUses)
+                .borrowTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private static WebDriver create(DriverKey key) {
+        return new FakeWebDriver();
+    }
+}
@@ -0,0 +1,188 @@
+package com.company.tests.unit.drivers;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory {@link WebDriver} that records what the pool does to it. Only the calls the pool makes are supported.
+ */
+public class FakeWebDriver implements WebDriver, JavascriptExecutor {
+
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    private final int id = ids.incrementAndGet();
+    private final Set<String> windows = new LinkedHashSet<>();
+    private final List<String> scripts = new ArrayList<>();
+    private String currentWindow;
+    private String currentUrl = "about:blank";
+    private int cookies;
+    private boolean alive = true;
+    private int quitCount;
+
+    public FakeWebDriver() {
+        currentWindow = openWindow();
+    }
+
+    public synchronized String openWindow() {
+        String handle = "window-" + id + "-" + windows.size();
+        windows.add(handle);
+        return handle;
+    }
+
+    public synchronized void addCookie() {
+        cookies++;
+    }
+
+    public synchronized int getCookieCount() {
+        return cookies;
+    }
+
+    public synchronized List<String> getScripts() {
+        return List.copyOf(scripts);
+    }
+
+    public synchronized int getQuitCount() {
+        return quitCount;
+    }
+
+    /**
+     * Simulates a crashed browser: every later call fails as it would for a lost session.
+     */
+    public synchronized void kill() {
+        alive = false;
+    }
+
+    @Override
+    public synchronized void get(String url) {
+        checkAlive();
+        currentUrl = url;
+    }
+
+    @Override
+    public synchronized String getCurrentUrl() {
+        checkAlive();
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getPageSource() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized void close() {
+        checkAlive();
+        windows.remove(currentWindow);
+    }
+
+    @Override
+    public synchronized void quit() {
+        quitCount++;
+        alive = false;
+    }
+
+    @Override
+    public synchronized Set<String> getWindowHandles() {
+        checkAlive();
+        return new LinkedHashSet<>(windows);
+    }
+
+    @Override
+    public synchronized String getWindowHandle() {
+        checkAlive();
+        return currentWindow;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return proxy(TargetLocator.class, (method, args) -> {
+            if (method.equals("window")) {
+                synchronized (this) {
+                    checkAlive();
+                    currentWindow = (String) args[0];
+                }
+                return this;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    @Override
+    public Navigation navigate() {
+        return proxy(Navigation.class, (method, args) -> {
+            if (method.equals("to")) {
+                get(args[0] instanceof URL url ? url.toString() : (String) args[0]);
+                return null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    @Override
+    public Options manage() {
+        return proxy(Options.class, (method, args) -> {
+            if (method.equals("deleteAllCookies")) {
+                synchronized (this) {
+                    checkAlive();
+                    cookies = 0;
+                }
+                return null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    @Override
+    public synchronized Object executeScript(String script, Object... args) {
+        checkAlive();
+        scripts.add(script);
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        throw new UnsupportedOperationException();
+    }
+
+    private void checkAlive() {
+        if (!alive) {
+            throw new NoSuchSessionException("Session " + id + " is gone");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(FakeWebDriver.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
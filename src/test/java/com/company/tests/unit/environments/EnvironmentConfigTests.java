@@ -1,16 +1,24 @@
 package com.company.tests.unit.environments;
 
 import com.company.configurations.environments.EnvironmentConfigManager;
+import com.company.configurations.environments.EnvironmentFile;
 import com.company.configurations.environments.EnvironmentFileAlias;
 import com.company.configurations.environments.EnvironmentFilePaths;
+import com.company.configurations.environments.EnvironmentKeys;
+import com.company.configurations.environments.SecretMasker;
 import com.company.core.ErrorHandler;
 import com.company.utils.Base64Utils;
 import com.company.utils.LoggerUtils;
 import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import javax.crypto.SecretKey;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
 
 public class EnvironmentConfigTests {
 
@@ -49,6 +57,48 @@ public class EnvironmentConfigTests {
         }
     }
 
+    @Test(groups = {"configSetup"})
+    public void testTypedKeysReadThroughFileAlias() {
+        EnvironmentConfigManager.loadConfiguration(EnvironmentFileAlias.UAT.getAlias(), EnvironmentFilePaths.UAT.getFilename());
+
+        Assert.assertSame(EnvironmentConfigManager.getConfiguration(EnvironmentFileAlias.UAT),
+                EnvironmentConfigManager.getConfiguration(EnvironmentFileAlias.UAT.getAlias()));
+        Assert.assertEquals(EnvironmentConfigManager.get(EnvironmentFileAlias.UAT, EnvironmentKeys.PORTAL_USERNAME),
+                EnvironmentConfigManager.getEnvironmentKeyFromCache(EnvironmentFileAlias.UAT.getAlias(), USERNAME));
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testSecretValuesAreMasked() {
+        EnvironmentConfigManager.loadConfiguration(EnvironmentFileAlias.BASE.getAlias(), EnvironmentFilePaths.BASE.getFilename());
+        EnvironmentConfigManager.loadConfiguration(EnvironmentFileAlias.UAT.getAlias(), EnvironmentFilePaths.UAT.getFilename());
+
+        Map<String, String> baseEnvironment = EnvironmentConfigManager.getConfiguration(EnvironmentFileAlias.BASE.getAlias()).getMaskedEnvironment();
+        Map<String, String> uatEnvironment = EnvironmentConfigManager.getConfiguration(EnvironmentFileAlias.UAT.getAlias()).getMaskedEnvironment();
+
+        Assert.assertEquals(baseEnvironment.get(UAT_SECRET_KEY), SecretMasker.MASK);
+        Assert.assertEquals(uatEnvironment.get(PASSWORD), SecretMasker.MASK);
+        Assert.assertNotEquals(uatEnvironment.get(USERNAME), SecretMasker.MASK);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testWrittenFileIsReloadedForLoadedAliases() throws Exception {
+        String fileName = ".env.reload-" + System.nanoTime();
+        String alias = "ReloadTest" + fileName;
+        Path envFile = Path.of(EnvironmentFilePaths.getDirectoryPath(), fileName);
+        Files.writeString(envFile, "RELOAD_VALUE=before\n");
+        try {
+            EnvironmentConfigManager.loadConfiguration(alias, fileName);
+            EnvironmentFile.update(envFile, Map.of("RELOAD_VALUE", "after-update"));
+            Assert.assertEquals(EnvironmentConfigManager.getEnvironmentKeyFromCache(alias, "RELOAD_VALUE"), "before");
+
+            Assert.assertEquals(EnvironmentConfigManager.reloadConfigurationsFor(envFile.toAbsolutePath()), Set.of(alias));
+            Assert.assertEquals(EnvironmentConfigManager.getEnvironmentKeyFromCache(alias, "RELOAD_VALUE"), "after-update");
+        } finally {
+            Files.deleteIfExists(envFile);
+            Files.deleteIfExists(envFile.resolveSibling(fileName + ".lock"));
+        }
+    }
+
     @DataProvider(name = "EnvironmentConfigFiles")
     private Object[][] environmentConfigFiles() {
         return new Object[][]{
@@ -0,0 +1,92 @@
+package com.company.tests.unit.environments;
+
+import com.company.configurations.environments.EnvironmentFile;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class EnvironmentFileTests {
+
+    private static final String SAMPLE_CONTENT = String.join("\n",
+            "# Portal credentials",
+            "PORTAL_USERNAME=Admin",
+            "export PORTAL_PASSWORD = 'adm#in 123'",
+            "",
+            "GREETING=\"Hello \\\"team\\\"\\nWelcome\"  # inline comment",
+            "PORTAL_BASE_URL=https://example.com/#/login # trailing comment",
+            "EMPTY=",
+            "PORTAL_USERNAME=Overridden",
+            "");
+
+    @Test(groups = {"configSetup"})
+    public void testParseSupportedSyntax() {
+        EnvironmentFile environmentFile = parse(SAMPLE_CONTENT);
+
+        Assert.assertEquals(environmentFile.get("PORTAL_USERNAME"), "Overridden");
+        Assert.assertEquals(environmentFile.get("PORTAL_PASSWORD"), "adm#in 123");
+        Assert.assertEquals(environmentFile.get("GREETING"), "Hello \"team\"\nWelcome");
+        Assert.assertEquals(environmentFile.get("PORTAL_BASE_URL"), "https://example.com/#/login");
+        Assert.assertEquals(environmentFile.get("EMPTY"), "");
+        Assert.assertNull(environmentFile.get("MISSING"));
+        Assert.assertEquals(environmentFile.get("MISSING", "fallback"), "fallback");
+    }
+
+    @Test(groups = {"configSetup"}, expectedExceptions = IllegalArgumentException.class)
+    public void testParseRejectsMalformedLine() {
+        parse("PORTAL_USERNAME Admin\n");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testUpdatePreservesUntouchedLines() {
+        EnvironmentFile environmentFile = parse("# header\r\nA=1\r\nexport B=2\r\nC=3");
+
+        Map<String, String> updates = new LinkedHashMap<>();
+        updates.put("B", "two words");
+        updates.put("A", "one");
+        updates.put("D", "4");
+
+        String updated = new String(environmentFile.withUpdates(updates), StandardCharsets.UTF_8);
+        Assert.assertEquals(updated, "# header\r\nA=one\r\nexport B=\"two words\"\r\nC=3\nD=4\n");
+
+        EnvironmentFile reparsed = parse(updated);
+        Assert.assertEquals(reparsed.get("B"), "two words");
+        Assert.assertEquals(reparsed.get("D"), "4");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testNullUpdateRemovesKey() {
+        EnvironmentFile environmentFile = parse("# header\r\nA=1\r\nexport B=2\r\nC=3");
+
+        Map<String, String> updates = new LinkedHashMap<>();
+        updates.put("B", null);
+        updates.put("C", null);
+        updates.put("MISSING", null);
+
+        Assert.assertEquals(new String(environmentFile.withUpdates(updates), StandardCharsets.UTF_8), "# header\r\nA=1\r\n");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testUpdateWritesFile() throws IOException {
+        Path envFile = Files.createTempFile("environment-file", ".env");
+        try {
+            Files.writeString(envFile, "PORTAL_USERNAME=Admin\n");
+            EnvironmentFile.update(envFile, Map.of("PORTAL_USERNAME", "encrypted+value/==", "PORTAL_PASSWORD", "secret"));
+
+            EnvironmentFile reparsed = EnvironmentFile.parse(envFile);
+            Assert.assertEquals(reparsed.get("PORTAL_USERNAME"), "encrypted+value/==");
+            Assert.assertEquals(reparsed.get("PORTAL_PASSWORD"), "secret");
+        } finally {
+            Files.deleteIfExists(envFile);
+        }
+    }
+
+    private static EnvironmentFile parse(String content) {
+        return EnvironmentFile.parse(Path.of("test.env"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+package com.company.tests.unit.listeners;
+
+import com.company.tests.listeners.ShardPlanner;
+import com.company.tests.listeners.TestDurationHistory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DurationShardingTests {
+
+    private static final int SHARD_COUNT = 4;
+
+    @Test(groups = {"configSetup"})
+    public void testShardsFinishWithinFewPercentOfEachOther() {
+        List<ShardPlanner.Unit> units = suiteWithSlowUiTests();
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(units, Map.of(), SHARD_COUNT);
+
+        double slowest = shards.stream().mapToDouble(ShardPlanner.Shard::predictedMillis).max().orElseThrow();
+        double fastest = shards.stream().mapToDouble(ShardPlanner.Shard::predictedMillis).min().orElseThrow();
+        Assert.assertTrue(slowest / fastest < 1.03, "Shards range from " + fastest + " to " + slowest + " ms");
+
+        // Splitting by class count, as surefire does, leaves the slow UI classes on one shard
+        double classCountSlowest = 0;
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            double total = 0;
+            for (ShardPlanner.Unit unit : units) {
+                if (Math.floorMod(classIndex(unit), SHARD_COUNT) == shard) {
+                    total += unit.durationMillis();
+                }
+            }
+            classCountSlowest = Math.max(classCountSlowest, total);
+        }
+        Assert.assertTrue(slowest < classCountSlowest * 0.8, "Balanced " + slowest + " ms against " + classCountSlowest + " ms by class count");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testEveryUnitIsPlannedOnceAndPlansAreStable() {
+        List<ShardPlanner.Unit> units = suiteWithSlowUiTests();
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(units, Map.of(), SHARD_COUNT);
+
+        Set<String> planned = new HashSet<>();
+        shards.forEach(shard -> shard.units().forEach(unit -> Assert.assertTrue(planned.add(unit.name()), unit.name())));
+        Assert.assertEquals(planned.size(), units.size());
+
+        List<ShardPlanner.Unit> reversed = new ArrayList<>(units);
+        Collections.reverse(reversed);
+        Assert.assertEquals(ShardPlanner.plan(reversed, Map.of(), SHARD_COUNT), shards, "Every node must compute the same plan");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testClassSetupIsPaidOncePerShard() {
+        List<ShardPlanner.Unit> units = List.of(
+                new ShardPlanner.Unit("Slow.a", 1_000, Set.of("Slow")),
+                new ShardPlanner.Unit("Crypto.a", 400, Set.of("Crypto")),
+                new ShardPlanner.Unit("Crypto.b", 400, Set.of("Crypto")));
+
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(units, Map.of("Crypto", 300.0), 2);
+
+        Assert.assertEquals(shards.get(0).units().stream().map(ShardPlanner.Unit::name).toList(), List.of("Slow.a"));
+        Assert.assertEquals(shards.get(1).units().stream().map(ShardPlanner.Unit::name).toList(), List.of("Crypto.a", "Crypto.b"));
+        Assert.assertEquals(shards.get(1).predictedMillis(), 1_100.0, "Setup must be counted once for both crypto units");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testHistoryIsSmoothedAndMergedAcrossWriters() throws Exception {
+        Path file = Files.createTempDirectory("durations").resolve("test-durations.properties");
+        Assert.assertTrue(TestDurationHistory.load(file).durations().isEmpty());
+
+        TestDurationHistory.record(file, Map.of("Suite.slow", 1_000.0));
+        TestDurationHistory.record(file, Map.of("Suite.slow", 2_000.0));
+        Assert.assertEquals(TestDurationHistory.load(file).durationOf("Suite.slow"), 1_300.0);
+
+        // Forks of one build write their own methods into the same file
+        try (ExecutorService forks = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int fork = 0; fork < 8; fork++) {
+                String key = "Fork" + fork + ".test";
+                writes.add(forks.submit(() -> {
+                    TestDurationHistory.record(file, Map.of(key, 10.0));
+                    return null;
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        }
+        TestDurationHistory history = TestDurationHistory.load(file);
+        Assert.assertEquals(history.durations().size(), 9);
+        Assert.assertEquals(history.durationOf("Fork7.test"), 10.0);
+    }
+
+    private static List<ShardPlanner.Unit> suiteWithSlowUiTests() {
+        Random random = new Random(42);
+        List<ShardPlanner.Unit> units = new ArrayList<>();
+        for (int classIndex = 0; classIndex < 40; classIndex++) {
+            // Every fourth class is a browser test class, an order of magnitude slower than the unit tests
+            boolean uiClass = classIndex % 4 == 0;
+            for (int method = 0; method < 6; method++) {
+                double duration = uiClass ? 8_000 + random.nextInt(12_000) : 50 + random.nextInt(900);
+                String className = "Class" + classIndex;
+                units.add(new ShardPlanner.Unit(className + ".test" + method, duration, Set.of(className)));
+            }
+        }
+        return units;
+    }
+
+    private static int classIndex(ShardPlanner.Unit unit) {
+        return Integer.parseInt(unit.name().substring("Class".length(), unit.name().indexOf('.')));
+    }
+}
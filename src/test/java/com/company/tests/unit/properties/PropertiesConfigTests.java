@@ -3,9 +3,11 @@ package com.company.tests.unit.properties;
 import com.company.configurations.properties.ConfigFileAlias;
 import com.company.configurations.properties.ConfigFilePath;
 import com.company.configurations.properties.PropertiesConfigManager;
+import com.company.configurations.properties.PropertyKeys;
 import com.company.core.ErrorHandler;
 import com.company.utils.LoggerUtils;
 import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -57,6 +59,16 @@ public class PropertiesConfigTests {
         }
     }
 
+    @Test(groups = {"configSetup"})
+    public void testTypedKeysReadThroughFileAlias() {
+        PropertiesConfigManager.loadConfiguration(ConfigFileAlias.UAT.getAlias(), ConfigFilePath.UAT.getFilePath());
+
+        Assert.assertSame(PropertiesConfigManager.getConfiguration(ConfigFileAlias.UAT),
+                PropertiesConfigManager.getConfiguration(ConfigFileAlias.UAT.getAlias()));
+        Assert.assertEquals(PropertiesConfigManager.get(ConfigFileAlias.UAT, PropertyKeys.PORTAL_BASE_URL),
+                PropertiesConfigManager.getPropertyKeyFromCache(ConfigFileAlias.UAT.getAlias(), PORTAL_BASE_URL));
+    }
+
     @DataProvider(name = "PropertiesConfigFiles")
     private Object[][] propertiesConfigFiles() {
         return new Object[][]{
@@ -0,0 +1,83 @@
+package com.company.tests.unit.properties;
+
+import com.company.configurations.properties.PropertiesIndex;
+import com.company.configurations.properties.PropertiesIndexCompiler;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class PropertiesIndexTests {
+
+    @Test(groups = {"configSetup"})
+    public void testIndexRoundTrip() throws IOException {
+        Path directory = Files.createTempDirectory("config-index");
+        Path sourceFile = Files.writeString(directory.resolve("sample.properties"), "PORTAL_BASE_URL=https://example.com\n");
+        Path indexFile = directory.resolve("sample.properties" + PropertiesIndex.INDEX_EXTENSION);
+        byte[] content = Files.readAllBytes(sourceFile);
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("PORTAL_BASE_URL", "https://example.com");
+        values.put("GREETING", "Sawubona é");
+        PropertiesIndex.write(indexFile, content, values);
+
+        Optional<Map<String, String>> indexed = PropertiesIndex.readIfFresh(indexFile, content);
+        Assert.assertTrue(indexed.isPresent(), "Fresh index should be readable");
+        Assert.assertEquals(indexed.get(), values);
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testStaleIndexIsIgnored() throws IOException {
+        Path directory = Files.createTempDirectory("config-index");
+        Path sourceFile = Files.writeString(directory.resolve("sample.properties"), "A=1\n");
+        Path indexFile = directory.resolve("sample.properties" + PropertiesIndex.INDEX_EXTENSION);
+        PropertiesIndex.write(indexFile, Files.readAllBytes(sourceFile), Map.of("A", "1"));
+
+        // Same size and modification time as the indexed content; only the bytes differ
+        FileTime modified = Files.getLastModifiedTime(sourceFile);
+        Files.writeString(sourceFile, "A=2\n");
+        Files.setLastModifiedTime(sourceFile, modified);
+
+        Assert.assertTrue(PropertiesIndex.readIfFresh(indexFile, Files.readAllBytes(sourceFile)).isEmpty(),
+                "Stale index must fall back to the source");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testCorruptIndexIsIgnored() throws IOException {
+        Path directory = Files.createTempDirectory("config-index");
+        Path sourceFile = Files.writeString(directory.resolve("sample.properties"), "A=1\n");
+        Path indexFile = directory.resolve("sample.properties" + PropertiesIndex.INDEX_EXTENSION);
+        byte[] content = Files.readAllBytes(sourceFile);
+        PropertiesIndex.write(indexFile, content, Map.of("A", "1"));
+
+        byte[] bytes = Files.readAllBytes(indexFile);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(indexFile, bytes);
+        Assert.assertTrue(PropertiesIndex.readIfFresh(indexFile, content).isEmpty(), "Corrupt index must fall back to the source");
+    }
+
+    @Test(groups = {"configSetup"})
+    public void testSameFileNameInDifferentDirectoriesKeepsSeparateIndexes() throws IOException {
+        Path sourceDirectory = Files.createTempDirectory("config-source");
+        Path indexDirectory = Files.createTempDirectory("config-index");
+        Path first = Files.createDirectories(sourceDirectory.resolve("first")).resolve("shared.properties");
+        Path second = Files.createDirectories(sourceDirectory.resolve("second")).resolve("shared.properties");
+        Files.writeString(first, "OWNER=first\n", StandardCharsets.ISO_8859_1);
+        Files.writeString(second, "OWNER=second\n", StandardCharsets.ISO_8859_1);
+
+        Assert.assertTrue(PropertiesIndexCompiler.compile(sourceDirectory, indexDirectory).isEmpty());
+
+        Path firstIndex = PropertiesIndex.indexPathFor(sourceDirectory, indexDirectory, first);
+        Path secondIndex = PropertiesIndex.indexPathFor(sourceDirectory, indexDirectory, second);
+        Assert.assertNotEquals(firstIndex, secondIndex);
+        Assert.assertEquals(PropertiesIndex.readIfFresh(firstIndex, Files.readAllBytes(first)).orElseThrow().get("OWNER"), "first");
+        Assert.assertEquals(PropertiesIndex.readIfFresh(secondIndex, Files.readAllBytes(second)).orElseThrow().get("OWNER"), "second");
+    }
+}